@@ -2,6 +2,7 @@ package com.frozendawn;
 
 import com.frozendawn.config.FrozenDawnConfig;
 import com.frozendawn.init.ModArmorMaterials;
+import com.frozendawn.init.ModAttachments;
 import com.frozendawn.init.ModBlockEntities;
 import com.frozendawn.init.ModBlocks;
 import com.frozendawn.init.ModDataComponents;
@@ -10,11 +11,13 @@ import com.frozendawn.init.ModItems;
 import com.frozendawn.init.ModLootModifiers;
 import com.frozendawn.init.ModMenuTypes;
 import com.frozendawn.init.ModSounds;
+import com.frozendawn.world.TemperatureManager;
 import com.mojang.logging.LogUtils;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.config.ModConfig;
+import net.neoforged.fml.event.config.ModConfigEvent;
 import org.slf4j.Logger;
 
 @Mod(FrozenDawn.MOD_ID)
@@ -33,8 +36,10 @@ public class FrozenDawn {
         ModLootModifiers.LOOT_MODIFIERS.register(modEventBus);
         ModSounds.SOUNDS.register(modEventBus);
         ModEntities.ENTITIES.register(modEventBus);
+        ModAttachments.ATTACHMENT_TYPES.register(modEventBus);
 
         modContainer.registerConfig(ModConfig.Type.COMMON, FrozenDawnConfig.SPEC);
+        modEventBus.addListener(ModConfigEvent.Reloading.class, event -> TemperatureManager.invalidateCache());
 
         LOGGER.info("Frozen Dawn initialized. The sun grows cold...");
     }
@@ -27,7 +27,7 @@ import org.jetbrains.annotations.Nullable;
 public class AcheronForgeBlockEntity extends BlockEntity implements MenuProvider {
 
     private static final int PROCESS_TIME = 200; // 10 seconds
-    private static final int HEAT_CHECK_RADIUS_SQ = 64; // 8 blocks
+    private static final int HEAT_CHECK_RADIUS = 8;
 
     private final NonNullList<ItemStack> items = NonNullList.withSize(2, ItemStack.EMPTY);
     private int processingProgress = 0;
@@ -102,13 +102,8 @@ public class AcheronForgeBlockEntity extends BlockEntity implements MenuProvider
 
     private boolean checkNearbyHeat() {
         if (level == null) return false;
-        for (BlockPos heaterPos : HeaterRegistry.getHeaters(level)) {
-            if (worldPosition.distSqr(heaterPos) <= HEAT_CHECK_RADIUS_SQ) return true;
-        }
-        for (BlockPos corePos : GeothermalCoreRegistry.getCores(level)) {
-            if (worldPosition.distSqr(corePos) <= HEAT_CHECK_RADIUS_SQ) return true;
-        }
-        return false;
+        return HeaterRegistry.anyWithin(level, worldPosition, HEAT_CHECK_RADIUS)
+                || GeothermalCoreRegistry.anyWithin(level, worldPosition, HEAT_CHECK_RADIUS);
     }
 
     public NonNullList<ItemStack> getItems() { return items; }
@@ -5,6 +5,7 @@ import com.frozendawn.init.ModDataComponents;
 import com.frozendawn.init.ModItems;
 import com.frozendawn.item.O2TankItem;
 import com.frozendawn.world.GeothermalCoreRegistry;
+import com.frozendawn.world.HeatField;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.NonNullList;
@@ -42,6 +43,8 @@ public class GeothermalCoreBlockEntity extends BlockEntity implements MenuProvid
     private int rangeLevel = 0;
     private int tempLevel = 0;
     private int o2Level = 0;
+    /** Whether the current range/temp levels are stamped into the HeatField. */
+    private boolean heatStamped = false;
 
     private final NonNullList<ItemStack> items = NonNullList.withSize(4, ItemStack.EMPTY);
 
@@ -127,7 +130,27 @@ public class GeothermalCoreBlockEntity extends BlockEntity implements MenuProvid
             }
         }
 
-        if (changed) setChanged();
+        if (changed) {
+            setChanged();
+            heatStamped = false;
+        }
+        if (!heatStamped) stampHeatField();
+    }
+
+    /**
+     * Stamps this core's warmth into the HeatField. Above Y=0 the core runs at half
+     * range and half temperature. Re-stamping with unchanged values is a no-op.
+     */
+    private void stampHeatField() {
+        if (level == null || level.isClientSide()) return;
+        float range = getEffectiveRange();
+        float temp = getEffectiveTemp();
+        if (worldPosition.getY() >= 0) {
+            range /= 2;
+            temp /= 2;
+        }
+        HeatField.stamp(level, worldPosition, (int) (range * range), temp);
+        heatStamped = true;
     }
 
     public int getEffectiveRange() {
@@ -178,6 +201,8 @@ public class GeothermalCoreBlockEntity extends BlockEntity implements MenuProvid
     public void setRemoved() {
         if (level != null && !level.isClientSide()) {
             GeothermalCoreRegistry.unregister(level, worldPosition);
+            HeatField.clear(level, worldPosition);
+            heatStamped = false;
         }
         super.setRemoved();
     }
@@ -3,8 +3,13 @@ package com.frozendawn.block;
 import com.frozendawn.config.FrozenDawnConfig;
 import com.frozendawn.data.ApocalypseState;
 import com.frozendawn.init.ModBlockEntities;
-import com.frozendawn.init.ModBlocks;
+import com.frozendawn.phase.FrozenDawnPhaseTracker;
+import com.frozendawn.world.BlockChangeBus;
+import com.frozendawn.world.HeatField;
+import com.frozendawn.world.HeatSources;
 import com.frozendawn.world.HeaterRegistry;
+import com.frozendawn.world.RoomRegistry;
+import com.frozendawn.world.TemperatureManager;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
@@ -16,9 +21,9 @@ import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.inventory.ContainerData;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -30,6 +35,17 @@ public class ThermalHeaterBlockEntity extends BlockEntity implements MenuProvide
     private int burnTimeRemaining = 0;
     private boolean cachedSheltered = false;
     private boolean shelterValid = false;
+    /** Whether this heater's warmth is currently stamped into the HeatField, and with which reach. */
+    private boolean heatStamped = false;
+    private boolean stampedExposed = false;
+    private int stampedGeneration = -1;
+    /**
+     * Watches the 4 blocks overhead that decide shelter status outside sealed rooms.
+     * Shelter from a sealed room is watched through RoomRegistry.watchRoom as well.
+     */
+    @Nullable
+    private BlockChangeBus.Watch roofWatch;
+    private final Runnable shelterWatcher = this::invalidateShelterCache;
 
     public ThermalHeaterBlockEntity(BlockPos pos, BlockState state) {
         super(ModBlockEntities.THERMAL_HEATER.get(), pos, state);
@@ -42,6 +58,7 @@ public class ThermalHeaterBlockEntity extends BlockEntity implements MenuProvide
     }
 
     public void serverTick() {
+        updateHeatStamp();
         if (burnTimeRemaining > 0) {
             burnTimeRemaining = Math.max(0, burnTimeRemaining - getPhaseConsumption());
             if (burnTimeRemaining == 0) {
@@ -77,18 +94,56 @@ public class ThermalHeaterBlockEntity extends BlockEntity implements MenuProvide
         return burnTimeRemaining > 0;
     }
 
-    /** Returns cached shelter status, computing lazily on first access. */
+    /**
+     * Returns cached shelter status, computing lazily on first access. Shelter granted by
+     * a sealed room (whatever its ceiling height) stays valid until that room is dropped.
+     */
     public boolean getCachedSheltered() {
         if (!shelterValid && level != null) {
-            cachedSheltered = com.frozendawn.world.TemperatureManager.isSheltered(level, worldPosition);
+            cachedSheltered = TemperatureManager.isSheltered(level, worldPosition);
             shelterValid = true;
+            if (cachedSheltered) RoomRegistry.watchRoom(level, worldPosition, shelterWatcher);
         }
         return cachedSheltered;
     }
 
-    /** Invalidate shelter cache when blocks above change. */
+    /**
+     * Invalidate shelter cache when blocks above change or the heater's room is dropped
+     * (called from the roof and room watches).
+     * The heat stamp is refreshed on the next server tick, after the change has applied.
+     */
     public void invalidateShelterCache() {
         shelterValid = false;
+        heatStamped = false;
+    }
+
+    /**
+     * Keeps this heater's HeatField stamp in sync: stamped while lit, cleared when burnt out,
+     * and re-stamped when phase 5 wind exposure starts or stops shrinking its radius, or when
+     * a datapack reload recompiles the heat source table.
+     */
+    private void updateHeatStamp() {
+        if (level == null || level.isClientSide()) return;
+        if (!isLit()) {
+            if (heatStamped) {
+                HeatField.clear(level, worldPosition);
+                heatStamped = false;
+            }
+            return;
+        }
+        int phase = FrozenDawnPhaseTracker.getPhase();
+        boolean sheltered = getCachedSheltered();
+        boolean exposed = phase >= 5 && !sheltered;
+        int generation = HeatSources.getGeneration();
+        if (heatStamped && exposed == stampedExposed && generation == stampedGeneration) return;
+
+        BlockState state = getBlockState();
+        HeatField.stamp(level, worldPosition,
+                TemperatureManager.getHeaterRadiusSq(state, phase, sheltered),
+                TemperatureManager.getHeaterWarmth(state));
+        heatStamped = true;
+        stampedExposed = exposed;
+        stampedGeneration = generation;
     }
 
     private void updateLitState() {
@@ -104,14 +159,19 @@ public class ThermalHeaterBlockEntity extends BlockEntity implements MenuProvide
             } else {
                 HeaterRegistry.unregister(level, worldPosition);
             }
+            updateHeatStamp();
         }
     }
 
     @Override
     public void onLoad() {
         super.onLoad();
-        if (level != null && !level.isClientSide() && burnTimeRemaining > 0) {
-            HeaterRegistry.register(level, worldPosition);
+        if (level != null && !level.isClientSide()) {
+            if (burnTimeRemaining > 0) HeaterRegistry.register(level, worldPosition);
+            roofWatch = BlockChangeBus.watch(level,
+                    new BoundingBox(worldPosition.getX(), worldPosition.getY() + 1, worldPosition.getZ(),
+                            worldPosition.getX(), worldPosition.getY() + 4, worldPosition.getZ()),
+                    this::invalidateShelterCache);
         }
     }
 
@@ -119,24 +179,32 @@ public class ThermalHeaterBlockEntity extends BlockEntity implements MenuProvide
     public void setRemoved() {
         if (level != null && !level.isClientSide()) {
             HeaterRegistry.unregister(level, worldPosition);
+            HeatField.clear(level, worldPosition);
+            heatStamped = false;
+            if (roofWatch != null) {
+                roofWatch.cancel();
+                roofWatch = null;
+            }
         }
         super.setRemoved();
     }
 
+    /** Heat source definition for this heater as if lit (the table only defines lit states). */
+    @Nullable
+    private HeatSources.HeatSource getLitHeatSource() {
+        BlockState state = getBlockState();
+        if (state.hasProperty(ThermalHeaterBlock.LIT)) state = state.setValue(ThermalHeaterBlock.LIT, true);
+        return HeatSources.get(state);
+    }
+
     private int getHeatOutput() {
-        Block block = getBlockState().getBlock();
-        if (block == ModBlocks.DIAMOND_THERMAL_HEATER.get()) return 80;
-        if (block == ModBlocks.GOLD_THERMAL_HEATER.get()) return 65;
-        if (block == ModBlocks.IRON_THERMAL_HEATER.get()) return 50;
-        return 35;
+        HeatSources.HeatSource source = getLitHeatSource();
+        return source != null ? Math.round(source.warmth()) : 0;
     }
 
     private int getBaseRadius() {
-        Block block = getBlockState().getBlock();
-        if (block == ModBlocks.DIAMOND_THERMAL_HEATER.get()) return 14;
-        if (block == ModBlocks.GOLD_THERMAL_HEATER.get()) return 11;
-        if (block == ModBlocks.IRON_THERMAL_HEATER.get()) return 9;
-        return 7;
+        HeatSources.HeatSource source = getLitHeatSource();
+        return source != null ? (int) source.radius() : 0;
     }
 
     /** ContainerData for syncing heater status to the client UI (simplified). */
@@ -172,9 +240,9 @@ public class ThermalHeaterBlockEntity extends BlockEntity implements MenuProvide
     public int getPublicPhaseConsumption() { return getPhaseConsumption(); }
 
     public int getEffectiveRadius() {
-        int base = getBaseRadius();
-        boolean exposed = !getCachedSheltered() && getPhase() >= 5;
-        return exposed ? (int) (base * 0.6f) : base;
+        HeatSources.HeatSource source = getLitHeatSource();
+        if (source == null) return 0;
+        return (int) Math.sqrt(source.radiusSq(isWindExposed()));
     }
 
     public boolean isWindExposed() {
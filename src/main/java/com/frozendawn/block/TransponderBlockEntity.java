@@ -4,6 +4,7 @@ import com.frozendawn.FrozenDawn;
 import com.frozendawn.config.FrozenDawnConfig;
 import com.frozendawn.data.WinConditionState;
 import com.frozendawn.init.ModBlockEntities;
+import com.frozendawn.world.BlockChangeBus;
 import com.frozendawn.world.GeothermalCoreRegistry;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
@@ -27,6 +28,7 @@ import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.inventory.ContainerData;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -41,13 +43,15 @@ public class TransponderBlockEntity extends BlockEntity implements MenuProvider
     public static final int STATE_COMPLETE = 2;
     public static final int STATE_PAUSED = 3;
 
-    private static final int CORE_CHECK_RADIUS_SQ = 144; // 12 blocks
-    private static final int SHAFT_CHECK_INTERVAL = 100; // ticks between shaft revalidation
+    private static final int CORE_CHECK_RADIUS = 12;
 
     private int broadcastTicksRemaining = 0;
     private int totalBroadcastTicks = 0;
     private boolean shaftClear = false;
-    private int shaftCheckCooldown = 0;
+    /** Set by the shaft watch when anything in the column above changes; rechecked next tick. */
+    private boolean shaftDirty = true;
+    @Nullable
+    private BlockChangeBus.Watch shaftWatch;
     private boolean manuallyPaused = false;
 
     public TransponderBlockEntity(BlockPos pos, BlockState state) {
@@ -60,13 +64,12 @@ public class TransponderBlockEntity extends BlockEntity implements MenuProvider
         int state = getBlockState().getValue(TransponderBlock.STATE);
         if (state != STATE_BROADCASTING && state != STATE_PAUSED) return;
 
-        // Revalidate conditions every 100 ticks (core + shaft)
-        if (shaftCheckCooldown <= 0) {
+        // Revalidate the shaft only when a block in it changed (snow landing, blocks placed)
+        if (shaftDirty) {
             clearSnowInShaft();
             shaftClear = checkShaftClear();
-            shaftCheckCooldown = SHAFT_CHECK_INTERVAL;
+            shaftDirty = false; // clearing snow above re-flags the watch; that's already handled
         }
-        shaftCheckCooldown--;
 
         boolean conditionsMet = hasNearbyGeothermalCore() && shaftClear;
 
@@ -201,7 +204,7 @@ public class TransponderBlockEntity extends BlockEntity implements MenuProvider
         if (depthOk && schematicOk && coreOk && shaftOk) {
             // All conditions met — start broadcasting
             shaftClear = true;
-            shaftCheckCooldown = SHAFT_CHECK_INTERVAL;
+            shaftDirty = false;
             totalBroadcastTicks = FrozenDawnConfig.BROADCAST_TICKS.get();
             broadcastTicksRemaining = totalBroadcastTicks;
             level.setBlock(worldPosition, getBlockState().setValue(TransponderBlock.STATE, STATE_BROADCASTING), 3);
@@ -260,12 +263,29 @@ public class TransponderBlockEntity extends BlockEntity implements MenuProvider
         }
     }
 
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (level != null && !level.isClientSide()) {
+            shaftWatch = BlockChangeBus.watch(level,
+                    new BoundingBox(worldPosition.getX(), worldPosition.getY() + 1, worldPosition.getZ(),
+                            worldPosition.getX(), level.getMaxBuildHeight() - 1, worldPosition.getZ()),
+                    () -> shaftDirty = true);
+        }
+    }
+
+    @Override
+    public void setRemoved() {
+        if (shaftWatch != null) {
+            shaftWatch.cancel();
+            shaftWatch = null;
+        }
+        super.setRemoved();
+    }
+
     private boolean hasNearbyGeothermalCore() {
         if (level == null) return false;
-        for (BlockPos corePos : GeothermalCoreRegistry.getCores(level)) {
-            if (worldPosition.distSqr(corePos) <= CORE_CHECK_RADIUS_SQ) return true;
-        }
-        return false;
+        return GeothermalCoreRegistry.anyWithin(level, worldPosition, CORE_CHECK_RADIUS);
     }
 
     public int getBroadcastTicksRemaining() { return broadcastTicksRemaining; }
@@ -7,6 +7,15 @@ import com.frozendawn.data.ApocalypseState;
 import com.frozendawn.data.WinConditionState;
 import net.minecraft.core.BlockPos;
 import com.frozendawn.network.ApocalypseDataPayload;
+import com.frozendawn.world.ChunkCatchUp;
+import com.frozendawn.world.DepositRegistry;
+import com.frozendawn.world.FreezeSchedule;
+import com.frozendawn.world.MutationBuffer;
+import com.frozendawn.world.MutationScheduler;
+import com.frozendawn.world.SectionSnapshots;
+import com.frozendawn.world.SurfaceSamples;
+import com.frozendawn.world.TemperatureManager;
+import com.frozendawn.world.TreeRegistry;
 import com.frozendawn.phase.PhaseManager;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
@@ -76,6 +85,8 @@ public class FrozenDawnCommand {
                                 .executes(FrozenDawnCommand::applyPreset)))
                 .then(Commands.literal("satellite")
                         .executes(FrozenDawnCommand::satellite))
+                .then(Commands.literal("perf")
+                        .executes(FrozenDawnCommand::perf))
         );
     }
 
@@ -223,6 +234,61 @@ public class FrozenDawnCommand {
         return 1;
     }
 
+    /** Debug counters for the world simulation caches. */
+    private static int perf(CommandContext<CommandSourceStack> context) {
+        long hits = TemperatureManager.getCacheHits();
+        long misses = TemperatureManager.getCacheMisses();
+        long total = hits + misses;
+        String rate = total > 0 ? String.format("%.1f%%", 100.0 * hits / total) : "n/a";
+        context.getSource().sendSuccess(() -> Component.literal(
+                "  Temperature cache: " + hits + " hits / " + misses + " misses (" + rate + ")"), false);
+
+        String density = String.format("%.0f%%", MutationScheduler.getDensity() * 100);
+        context.getSource().sendSuccess(() -> Component.literal(
+                "  World sampling density: " + density), false);
+        for (MutationScheduler.Lane lane : MutationScheduler.Lane.values()) {
+            MutationScheduler.Run run = MutationScheduler.stats(lane);
+            context.getSource().sendSuccess(() -> Component.literal(
+                    "  " + lane.id() + ": " + run.getLastRan() + " last run, " + run.getDeferred()
+                            + " deferred, " + run.getTotalDropped() + " dropped (" + run.getTotalRan() + " total)"), false);
+        }
+        StringBuilder surface = new StringBuilder();
+        for (MutationScheduler.Lane lane : MutationScheduler.Lane.values()) {
+            int samples = SurfaceSamples.getSamples(lane);
+            if (samples == 0) continue;
+            surface.append(surface.isEmpty() ? "" : ", ").append(lane.id()).append(' ').append(samples);
+            int unloaded = SurfaceSamples.getUnloaded(lane);
+            if (unloaded > 0) surface.append(" (").append(unloaded).append(" unloaded)");
+            int shared = SurfaceSamples.getShared(lane);
+            if (shared > 0) surface.append(" (").append(shared).append(" shared)");
+        }
+        context.getSource().sendSuccess(() -> Component.literal(
+                "  Surface samples last second: " + (surface.isEmpty() ? "none" : surface) + "; "
+                        + SurfaceSamples.getHeightmapReads() + " heightmap reads"), false);
+        context.getSource().sendSuccess(() -> Component.literal(
+                "  Block changes last tick: " + MutationBuffer.getLastApplied() + " applied ("
+                        + MutationBuffer.getLastMinimal() + " without neighbour updates), "
+                        + MutationBuffer.getLastStale() + " stale"), false);
+        context.getSource().sendSuccess(() -> Component.literal(
+                "  Chunk catch-up: " + ChunkCatchUp.getQueuedChunks() + " chunks queued, "
+                        + ChunkCatchUp.getPendingChanges() + " changes pending"), false);
+        context.getSource().sendSuccess(() -> Component.literal(
+                "  Trees: " + TreeRegistry.getTreeCount() + " tracked in " + TreeRegistry.getChunkCount() + " chunks"), false);
+        context.getSource().sendSuccess(() -> Component.literal(
+                "  Deposits: " + DepositRegistry.getCrystalCount() + " crystals, "
+                        + DepositRegistry.getAtmosphereCount() + " frozen atmosphere"), false);
+        if (SectionSnapshots.size() > 0) {
+            context.getSource().sendSuccess(() -> Component.literal(
+                    "  Section snapshots: " + SectionSnapshots.size() + " cached"), false);
+        }
+        if (FreezeSchedule.isActive()) {
+            context.getSource().sendSuccess(() -> Component.literal(
+                    "  Freeze schedule: " + FreezeSchedule.getScheduledSections() + " sections, "
+                            + FreezeSchedule.getScheduledChunks() + " surfaces scheduled"), false);
+        }
+        return 1;
+    }
+
     private static void syncToClients(ApocalypseState state, MinecraftServer server) {
         WinConditionState winState = WinConditionState.get(server);
         PacketDistributor.sendToAllPlayers(new ApocalypseDataPayload(
@@ -1,5 +1,7 @@
 package com.frozendawn.config;
 
+import com.frozendawn.world.TemperatureManager;
+
 /**
  * Predefined configuration presets that stomp all preset-managed fields.
  *
@@ -43,5 +45,6 @@ public enum ConfigPresets {
         FrozenDawnConfig.SNOW_ACCUMULATION_RATE.set(snowAccumulationRate);
         FrozenDawnConfig.BROADCAST_TICKS.set(broadcastTicks);
         FrozenDawnConfig.SANITY_SPEED_MULTIPLIER.set(sanitySpeedMultiplier);
+        TemperatureManager.invalidateCache();
     }
 }
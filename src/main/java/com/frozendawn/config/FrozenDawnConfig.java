@@ -14,6 +14,7 @@ public class FrozenDawnConfig {
     public static final ModConfigSpec.IntValue BASE_PHASE5_TEMP;
     public static final ModConfigSpec.DoubleValue GEOTHERMAL_STRENGTH;
     public static final ModConfigSpec.DoubleValue HEAT_SOURCE_MULTIPLIER;
+    public static final ModConfigSpec.IntValue TEMPERATURE_CACHE_TICKS;
 
     // Gameplay
     public static final ModConfigSpec.BooleanValue ENABLE_VEGETATION_DECAY;
@@ -30,6 +31,15 @@ public class FrozenDawnConfig {
     public static final ModConfigSpec.DoubleValue SANITY_SPEED_MULTIPLIER;
     public static final ModConfigSpec.BooleanValue ENABLE_FROSTBITTEN;
 
+    // Performance
+    public static final ModConfigSpec.IntValue WORLD_TICK_BUDGET_MICROS;
+    public static final ModConfigSpec.IntValue THROTTLE_MSPT;
+    public static final ModConfigSpec.BooleanValue BULK_SECTION_FREEZING;
+    public static final ModConfigSpec.BooleanValue SCHEDULED_FREEZING;
+    public static final ModConfigSpec.BooleanValue OFF_THREAD_SAMPLING;
+    public static final ModConfigSpec.BooleanValue RANDOM_TICK_MODE;
+    public static final ModConfigSpec.BooleanValue MERGE_COLLAPSE_DROPS;
+
     // Client
     public static final ModConfigSpec.BooleanValue ENABLE_SUN_SHRINKING;
     public static final ModConfigSpec.BooleanValue ENABLE_SKY_DARKENING;
@@ -68,6 +78,11 @@ public class FrozenDawnConfig {
                         "Preset-managed: overwritten by /frozendawn preset command.",
                         "Performance note: higher values don't affect scan radius, only warmth output.")
                 .defineInRange("heatSourceMultiplier", 1.0, 0.0, 5.0);
+        TEMPERATURE_CACHE_TICKS = BUILDER
+                .comment("How long (ticks) a computed temperature is reused for repeat queries at the same block.",
+                        "Heat source, room and config changes invalidate it immediately; 0 disables the cache.",
+                        "Performance note: longer windows save more work but delay noticing distant roof changes.")
+                .defineInRange("temperatureCacheTicks", 5, 0, 100);
         BUILDER.pop();
 
         BUILDER.push("gameplay");
@@ -127,6 +142,47 @@ public class FrozenDawnConfig {
                 .define("enableFrostbitten", true);
         BUILDER.pop();
 
+        BUILDER.push("performance");
+        WORLD_TICK_BUDGET_MICROS = BUILDER
+                .comment("Time budget (microseconds per tick) shared by freezing, decay, snow, crystal and spawn sampling.",
+                        "Work that doesn't fit carries over to the next tick; see /frozendawn perf.",
+                        "Performance note: lower values smooth out spikes but slow world changes on busy servers.")
+                .defineInRange("worldTickBudgetMicros", 4000, 250, 40000);
+        THROTTLE_MSPT = BUILDER
+                .comment("Server MSPT above which world sampling density starts dropping (down to 10% at 50 MSPT).",
+                        "Frostbitten spawn attempts are not thinned. Set to 50 to never throttle.")
+                .defineInRange("throttleMspt", 40, 10, 50);
+        BULK_SECTION_FREEZING = BUILDER
+                .comment("Advance large frozen bodies (ice, magma, obsidian) and coal ore a whole chunk section at a time.",
+                        "Water and lava always freeze block by block, so the fluid around them updates.",
+                        "When off, every block freezes individually.",
+                        "Performance note: bulk freezing skips per-block neighbour updates and sends one update per section.")
+                .define("bulkSectionFreezing", true);
+        SCHEDULED_FREEZING = BUILDER
+                .comment("Freeze blocks on a fixed schedule instead of by random checks.",
+                        "Each block's freezing time is derived from the world seed and its position, so the",
+                        "frozen world is the same on every run. Late phase 6 sublimation still uses random checks.",
+                        "Performance note: only chunk sections that hold freezable blocks are visited, and only when a block is due.")
+                .define("scheduledFreezing", false);
+        OFF_THREAD_SAMPLING = BUILDER
+                .comment("Pick and classify the volume freezing sample positions on a worker thread.",
+                        "The server thread only re-checks each found block and changes it. Either way, samples are only",
+                        "drawn among the blocks that can still freeze.",
+                        "Performance note: moves the counting and drawing off the server thread; found blocks are applied",
+                        "one tick later.")
+                .define("offThreadSampling", false);
+        RANDOM_TICK_MODE = BUILDER
+                .comment("Run freezing and vegetation decay from vanilla's random block ticks instead of the mod's own sampling.",
+                        "Covers every chunk within simulation distance and follows the randomTickSpeed gamerule.",
+                        "Performance note: reuses vanilla's chunk walk; the probes of all chunks in a tick share the",
+                        "freezing and vegetation slices of worldTickBudgetMicros.")
+                .define("randomTickMode", false);
+        MERGE_COLLAPSE_DROPS = BUILDER
+                .comment("Drop the loot of a collapsing tree as merged stacks at its base instead of one item per block.",
+                        "Performance note: a collapse spawns a few item entities instead of up to 64.")
+                .define("mergeCollapseDrops", true);
+        BUILDER.pop();
+
         BUILDER.push("client");
         ENABLE_SUN_SHRINKING = BUILDER
                 .comment("Enable sun shrinking visual effect")
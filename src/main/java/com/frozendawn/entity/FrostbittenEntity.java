@@ -37,7 +37,6 @@ import net.minecraft.world.level.ServerLevelAccessor;
 import net.minecraft.world.level.block.Blocks;
 
 import javax.annotation.Nullable;
-import java.util.Set;
 
 public class FrostbittenEntity extends Monster {
 
@@ -165,13 +164,11 @@ public class FrostbittenEntity extends Monster {
 
             // Heater burn: check every 20 ticks
             if (gameTick % 20 == 0) {
-                Set<BlockPos> heaters = HeaterRegistry.getHeaters(level());
-                for (BlockPos heaterPos : heaters) {
-                    if (blockPosition().closerToCenterThan(heaterPos.getCenter(), 4.0)) {
-                        hurt(damageSources().onFire(), 2.0f);
-                        setRemainingFireTicks(40);
-                        break;
-                    }
+                BlockPos pos = blockPosition();
+                if (HeaterRegistry.anyWithin(level(), pos, 4,
+                        packed -> pos.closerToCenterThan(BlockPos.of(packed).getCenter(), 4.0))) {
+                    hurt(damageSources().onFire(), 2.0f);
+                    setRemainingFireTicks(40);
                 }
             }
 
@@ -0,0 +1,55 @@
+package com.frozendawn.event;
+
+import com.frozendawn.FrozenDawn;
+import com.frozendawn.world.AmbientHeatRegistry;
+import com.frozendawn.world.ChunkCatchUp;
+import com.frozendawn.world.DepositRegistry;
+import com.frozendawn.world.FreezeSchedule;
+import com.frozendawn.world.LoadedChunks;
+import com.frozendawn.world.RoomRegistry;
+import com.frozendawn.world.SectionSnapshots;
+import com.frozendawn.world.TreeRegistry;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+
+/**
+ * Keeps per-chunk block indexes in sync with chunk loading: seeds them when a
+ * chunk loads and drops them when it unloads. Individual block changes reach the
+ * indexes through BlockChangeBus. Loading also hands stale chunks to ChunkCatchUp
+ * schedules freezing for FreezeSchedule and finds the chunk's trees for TreeRegistry
+ * and its crystals and deposits for DepositRegistry.
+ * Block indexes are server side only; rooms are tracked on both sides since the
+ * client queries enclosure for its own effects.
+ */
+@EventBusSubscriber(modid = FrozenDawn.MOD_ID)
+public class ChunkIndexHandler {
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        LoadedChunks.onLoad(level, event.getChunk().getPos());
+        AmbientHeatRegistry.onChunkLoad(level, event.getChunk());
+        if (event.getChunk() instanceof LevelChunk chunk) {
+            ChunkCatchUp.onChunkLoad(level, chunk);
+            FreezeSchedule.onChunkLoad(level, chunk);
+            TreeRegistry.onChunkLoad(level, chunk);
+            DepositRegistry.onChunkLoad(level, chunk);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (!(event.getLevel() instanceof Level level)) return;
+        RoomRegistry.onChunkUnload(level, event.getChunk().getPos());
+        if (level.isClientSide()) return;
+        LoadedChunks.onUnload(level, event.getChunk().getPos());
+        AmbientHeatRegistry.onChunkUnload(level, event.getChunk().getPos());
+        SectionSnapshots.onChunkUnload(level, event.getChunk().getPos());
+        TreeRegistry.onChunkUnload(level, event.getChunk().getPos());
+        DepositRegistry.onChunkUnload(level, event.getChunk().getPos());
+    }
+}
@@ -0,0 +1,51 @@
+package com.frozendawn.event;
+
+import com.frozendawn.FrozenDawn;
+import com.frozendawn.world.AmbientHeatRegistry;
+import com.frozendawn.world.ChunkWatermarks;
+import com.frozendawn.world.HeatSources;
+import com.frozendawn.world.LoadedChunks;
+import com.frozendawn.world.TreeRegistry;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.AddReloadListenerEvent;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+import net.neoforged.neoforge.server.ServerLifecycleHooks;
+
+/**
+ * Registers Frozen Dawn's datapack reload listeners and recompiles data that depends
+ * on block tags once they are bound. On /reload, indexes derived from that data are
+ * rebuilt for every loaded chunk so existing worlds pick up the new definitions.
+ */
+@EventBusSubscriber(modid = FrozenDawn.MOD_ID)
+public class DataReloadHandler {
+
+    @SubscribeEvent
+    public static void onAddReloadListeners(AddReloadListenerEvent event) {
+        event.addListener(new HeatSources.Loader());
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        if (event.getUpdateCause() != TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD) return;
+        HeatSources.compile();
+        ChunkWatermarks.onTagsUpdated();
+        TreeRegistry.onTagsUpdated();
+
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (server == null) return;
+        for (ServerLevel level : server.getAllLevels()) {
+            LoadedChunks.forEach(level, packed -> {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(
+                        ChunkPos.getX(packed), ChunkPos.getZ(packed));
+                if (chunk == null) return;
+                AmbientHeatRegistry.reseedChunk(level, chunk);
+                TreeRegistry.reseedChunk(level, chunk);
+            });
+        }
+    }
+}
@@ -45,6 +45,8 @@ public class FoodFrostHandler {
 
     /** Server-side frost tick cache: player UUID -> slot index -> frost ticks. */
     private static final Map<UUID, int[]> frostCache = new HashMap<>();
+    /** Frost/thaw pass per player every 20 ticks (1 second). */
+    private static final int FROST_INTERVAL = 20;
     /** Sync components every 100 ticks (5 seconds) for persistence. */
     private static final int SYNC_INTERVAL = 100;
 
@@ -61,14 +63,14 @@ public class FoodFrostHandler {
     @SubscribeEvent
     public static void onServerTick(ServerTickEvent.Post event) {
         MinecraftServer server = event.getServer();
-        if (server.getTickCount() % 20 != 0) return;
-
         ApocalypseState state = ApocalypseState.get(server);
         if (state.getPhase() < 4) return;
 
-        boolean periodicSync = server.getTickCount() % SYNC_INTERVAL == 0;
-
+        // Each player is handled every 20 ticks on their own offset (see PlayerTickHandler.isPlayerTurn)
+        int tick = server.getTickCount();
         for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            if (!PlayerTickHandler.isPlayerTurn(player, tick, FROST_INTERVAL)) continue;
+            boolean periodicSync = PlayerTickHandler.isPlayerTurn(player, tick, SYNC_INTERVAL);
             if (player.isCreative() || player.isSpectator()) continue;
             if (player.level().dimension() != Level.OVERWORLD) continue;
 
@@ -7,8 +7,11 @@ import com.frozendawn.init.ModDataComponents;
 import com.frozendawn.init.ModDamageTypes;
 import com.frozendawn.item.O2TankItem;
 import com.frozendawn.network.TemperaturePayload;
+import com.frozendawn.world.BlockChangeBus;
 import com.frozendawn.world.GeothermalCoreRegistry;
+import com.frozendawn.world.RoomRegistry;
 import com.frozendawn.world.TemperatureManager;
+import it.unimi.dsi.fastutil.HashCommon;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.network.chat.Component;
@@ -20,6 +23,7 @@ import net.minecraft.world.effect.MobEffects;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraft.world.phys.Vec3;
 import net.neoforged.neoforge.network.PacketDistributor;
 
@@ -39,6 +43,19 @@ final class PlayerTickHandler {
     private static final Map<UUID, Boolean> habitableCache = new HashMap<>();
     private static final Map<UUID, Integer> suffocationTimer = new HashMap<>();
     private static final Map<UUID, Float> playerTemperatures = new HashMap<>();
+    private static final Map<UUID, TemperatureSample> temperatureSamples = new HashMap<>();
+    private static final Map<UUID, ShelterWatch> shelterWatches = new HashMap<>();
+
+    /** How often a player's temperature inputs are checked; the full recompute only runs if they changed. */
+    private static final int TEMPERATURE_CHECK_INTERVAL = 10;
+    /** Heat damage and armor advancements keep their original cadence. */
+    private static final int HEAT_DAMAGE_INTERVAL = 40;
+    private static final int WIND_CHILL_INTERVAL = 20;
+    /** Recompute anyway after this long, as a backstop for changes nothing watches. */
+    private static final int MAX_TEMPERATURE_AGE = 200;
+
+    /** Inputs a player's last temperature was computed from. */
+    private record TemperatureSample(long pos, int generation, int day, float armorHeatMult, float drain, long computedAt) {}
 
     private static final int SUFFOCATION_DURATION = 200;
     private static final String[] ARMOR_ADVANCEMENTS = {
@@ -49,39 +66,51 @@ final class PlayerTickHandler {
         habitableCache.clear();
         suffocationTimer.clear();
         playerTemperatures.clear();
+        temperatureSamples.clear();
+        shelterWatches.values().forEach(ShelterWatch::cancel);
+        shelterWatches.clear();
         FrostbiteHandler.reset();
         SanityHandler.reset();
     }
 
-    /** Returns the last-calculated temperature for a player (updated every 40 ticks). */
+    /** Forces a fresh temperature computation and sync on the next check (e.g. after login). */
+    static void forgetTemperature(UUID playerId) {
+        temperatureSamples.remove(playerId);
+    }
+
+    /** Returns the last-calculated temperature for a player (rechecked every 10 ticks). */
     static float getLastTemperature(UUID playerId) {
         return playerTemperatures.getOrDefault(playerId, 20f);
     }
 
+    /**
+     * True on this player's turn of a repeating interval. Each player gets a fixed offset
+     * from their UUID, so per-player work is spread evenly across the interval instead of
+     * all landing on the same tick. Turns of an interval that divides another line up.
+     */
+    static boolean isPlayerTurn(ServerPlayer player, long tick, int interval) {
+        return Math.floorMod(tick + HashCommon.mix(player.getUUID().hashCode()), interval) == 0;
+    }
+
     /**
      * Called every server tick from WorldTickHandler.
      */
     static void tick(MinecraftServer server, ApocalypseState state, int currentPhase, int currentDay, float progress) {
-        // Temperature sync + heat damage + armor advancements (every 40 ticks)
-        if (state.getApocalypseTicks() % 40 == 0) {
-            for (ServerPlayer player : server.getPlayerList().getPlayers()) {
-                if (player.level().dimension() == Level.OVERWORLD) {
-                    float temp = TemperatureManager.getTemperatureAt(
-                            player.level(), player.blockPosition(), currentDay, state.getTotalDays());
+        long ticks = state.getApocalypseTicks();
 
-                    // Armor heat trapping: insulated armor amplifies heat above 20C
-                    float armorHeatMult = MobFreezeHandler.getArmorHeatMultiplier(player);
-                    if (temp > 20f && armorHeatMult > 0f) {
-                        temp += (temp - 20f) * armorHeatMult;
-                    }
-
-                    // Apply frostbite temperature drain for the HUD
-                    temp -= FrostbiteHandler.getTemperatureDrain(player);
+        // Per-player work is staggered by UUID, so each tick handles ~1/interval of the players
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            boolean overworld = player.level().dimension() == Level.OVERWORLD;
 
-                    playerTemperatures.put(player.getUUID(), temp);
-                    PacketDistributor.sendToPlayer(player, new TemperaturePayload(temp));
+            // Temperature sync (inputs checked every 10 ticks, recomputed only when they changed)
+            if (overworld && isPlayerTurn(player, ticks, TEMPERATURE_CHECK_INTERVAL)) {
+                updateTemperature(player, state, currentDay, ticks);
+            }
 
-                    applyHeatDamage(player, temp, progress);
+            // Heat damage + armor advancements (every 40 ticks)
+            if (isPlayerTurn(player, ticks, HEAT_DAMAGE_INTERVAL)) {
+                if (overworld) {
+                    applyHeatDamage(player, getLastTemperature(player.getUUID()), progress);
                 }
                 // Grant armor tier advancements (acheronite doesn't count for EVA)
                 int armorTier = MobFreezeHandler.getFullSetTier(player);
@@ -107,9 +136,9 @@ final class PlayerTickHandler {
             }
         }
 
-        // Wind chill exhaustion (every 20 ticks, phase 5+)
-        if (currentPhase >= 5 && state.getApocalypseTicks() % 20 == 0) {
-            tickWindChill(server, currentPhase);
+        // Wind chill exhaustion (every 20 ticks per player, phase 5+)
+        if (currentPhase >= 5) {
+            tickWindChill(server, currentPhase, ticks);
         }
 
         // Atmospheric suffocation (every tick, phase 6 late)
@@ -126,6 +155,84 @@ final class PlayerTickHandler {
         }
     }
 
+    /**
+     * Recomputes a player's temperature and sends it to the client, unless the player
+     * is on the same block with the same heat generation, day, armor and frostbite drain
+     * as last time (e.g. AFK beside a heater). Shelter changes at the player's block
+     * don't move the generation, so a ShelterWatch drops the sample when they happen.
+     */
+    private static void updateTemperature(ServerPlayer player, ApocalypseState state, int currentDay, long ticks) {
+        BlockPos pos = player.blockPosition();
+        int generation = TemperatureManager.getGeneration(player.level(), pos);
+        float armorHeatMult = MobFreezeHandler.getArmorHeatMultiplier(player);
+        float drain = FrostbiteHandler.getTemperatureDrain(player);
+
+        TemperatureSample last = temperatureSamples.get(player.getUUID());
+        if (last != null && last.pos() == pos.asLong() && last.generation() == generation
+                && last.day() == currentDay && last.armorHeatMult() == armorHeatMult && last.drain() == drain
+                && ticks - last.computedAt() < MAX_TEMPERATURE_AGE) {
+            return;
+        }
+
+        float temp = TemperatureManager.getTemperatureAt(player.level(), pos, currentDay, state.getTotalDays());
+
+        // Armor heat trapping: insulated armor amplifies heat above 20C
+        if (temp > 20f && armorHeatMult > 0f) {
+            temp += (temp - 20f) * armorHeatMult;
+        }
+
+        // Apply frostbite temperature drain for the HUD
+        temp -= drain;
+
+        temperatureSamples.put(player.getUUID(),
+                new TemperatureSample(pos.asLong(), generation, currentDay, armorHeatMult, drain, ticks));
+        shelterWatches.computeIfAbsent(player.getUUID(), ShelterWatch::new).watch(player.level(), pos);
+        playerTemperatures.put(player.getUUID(), temp);
+        PacketDistributor.sendToPlayer(player, new TemperaturePayload(temp));
+    }
+
+    /**
+     * Drops a player's temperature sample, and the cached temperature at its block, when
+     * the shelter there may have changed: a block changed in the column overhead (roof
+     * probe, open sky), or the room or open region around the player was dropped.
+     * One per player, so RoomRegistry keeps at most one watcher per player per region.
+     */
+    private static final class ShelterWatch implements Runnable {
+        private final UUID playerId;
+        private Level level;
+        private long pos;
+        private BlockChangeBus.Watch column;
+
+        ShelterWatch(UUID playerId) {
+            this.playerId = playerId;
+        }
+
+        void watch(Level level, BlockPos pos) {
+            cancel();
+            this.level = level;
+            this.pos = pos.asLong();
+            if (pos.getY() + 1 < level.getMaxBuildHeight()) {
+                column = BlockChangeBus.watch(level, new BoundingBox(pos.getX(), pos.getY() + 1, pos.getZ(),
+                        pos.getX(), level.getMaxBuildHeight() - 1, pos.getZ()), this);
+            }
+            RoomRegistry.watchRoom(level, pos, this);
+        }
+
+        void cancel() {
+            if (column != null) {
+                column.cancel();
+                column = null;
+            }
+        }
+
+        @Override
+        public void run() {
+            cancel();
+            temperatureSamples.remove(playerId);
+            if (level != null) TemperatureManager.invalidateCache(level, new long[] {pos});
+        }
+    }
+
     private static void applyHeatDamage(ServerPlayer player, float temp, float progress) {
         if (player.isCreative() || player.isSpectator() || temp <= 60f) return;
 
@@ -166,10 +273,11 @@ final class PlayerTickHandler {
         }
     }
 
-    private static void tickWindChill(MinecraftServer server, int currentPhase) {
+    private static void tickWindChill(MinecraftServer server, int currentPhase, long ticks) {
         float phaseMult = currentPhase >= 6 ? 1.5f : 1.0f;
 
         for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            if (!isPlayerTurn(player, ticks, WIND_CHILL_INTERVAL)) continue;
             if (player.isCreative() || player.isSpectator()) continue;
             if (player.level().dimension() != Level.OVERWORLD) continue;
             if (player.blockPosition().getY() < 50) continue;
@@ -272,19 +380,17 @@ final class PlayerTickHandler {
         if (TemperatureManager.isEnclosed(player.level(), player.blockPosition())) return true;
 
         BlockPos playerPos = player.blockPosition();
-        for (BlockPos corePos : GeothermalCoreRegistry.getCores(player.level())) {
+        BlockPos.MutableBlockPos corePos = new BlockPos.MutableBlockPos();
+        return GeothermalCoreRegistry.anyWithin(player.level(), playerPos, GeothermalCoreBlockEntity.MAX_O2_RANGE, packed -> {
             int o2Range;
-            BlockEntity be = player.level().getBlockEntity(corePos);
+            BlockEntity be = player.level().getBlockEntity(corePos.set(packed));
             if (be instanceof GeothermalCoreBlockEntity core) {
                 o2Range = core.getEffectiveO2Range();
             } else {
                 o2Range = GeothermalCoreBlockEntity.BASE_O2_RANGE;
             }
-            if (playerPos.distSqr(corePos) <= (long) o2Range * o2Range) {
-                return true;
-            }
-        }
-        return false;
+            return playerPos.distSqr(corePos) <= (long) o2Range * o2Range;
+        });
     }
 
 }
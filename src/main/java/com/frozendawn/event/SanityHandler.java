@@ -160,26 +160,15 @@ final class SanityHandler {
     private static boolean isNearLitHeaterWithLight(ServerPlayer player) {
         BlockPos playerPos = player.blockPosition();
 
-        for (BlockPos heaterPos : HeaterRegistry.getHeaters(player.level())) {
-            if (playerPos.distSqr(heaterPos) <= 16 * 16) {
-                BlockEntity be = player.level().getBlockEntity(heaterPos);
-                if (be instanceof ThermalHeaterBlockEntity heater && heater.isLit()) {
-                    if (player.level().getBrightness(LightLayer.BLOCK, playerPos) >= 12) {
-                        return true;
-                    }
-                }
-            }
-        }
-
-        for (BlockPos corePos : GeothermalCoreRegistry.getCores(player.level())) {
-            if (playerPos.distSqr(corePos) <= 16 * 16) {
-                if (player.level().getBrightness(LightLayer.BLOCK, playerPos) >= 12) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+        // Light level is the same for every candidate — check it once, up front
+        if (player.level().getBrightness(LightLayer.BLOCK, playerPos) < 12) return false;
+
+        BlockPos.MutableBlockPos heaterPos = new BlockPos.MutableBlockPos();
+        boolean nearHeater = HeaterRegistry.anyWithin(player.level(), playerPos, 16, packed -> {
+            BlockEntity be = player.level().getBlockEntity(heaterPos.set(packed));
+            return be instanceof ThermalHeaterBlockEntity heater && heater.isLit();
+        });
+        return nearHeater || GeothermalCoreRegistry.anyWithin(player.level(), playerPos, 16);
     }
 
     private static boolean isNearOtherPlayer(ServerPlayer player) {
@@ -6,16 +6,23 @@ import com.frozendawn.data.WinConditionState;
 import com.frozendawn.init.ModBlocks;
 import com.frozendawn.phase.FrozenDawnPhaseTracker;
 import com.frozendawn.network.ApocalypseDataPayload;
-import com.frozendawn.block.ThermalHeaterBlockEntity;
-import com.frozendawn.world.HeaterRegistry;
 import com.frozendawn.world.TemperatureManager;
 import com.frozendawn.entity.FrostbittenEntity;
 import com.frozendawn.world.AcheroniteGrowth;
 import com.frozendawn.world.BlockFreezer;
+import com.frozendawn.world.ChunkCatchUp;
+import com.frozendawn.world.DepositRegistry;
+import com.frozendawn.world.FreezeSchedule;
 import com.frozendawn.world.FrostbittenSpawner;
 import com.frozendawn.world.FrozenAtmosphereFormation;
+import com.frozendawn.world.MutationBuffer;
+import com.frozendawn.world.MutationScheduler;
+import com.frozendawn.world.SamplingArea;
 import com.frozendawn.world.SatellitePlacement;
+import com.frozendawn.world.SectionSnapshots;
 import com.frozendawn.world.SnowAccumulator;
+import com.frozendawn.world.SurfaceSamples;
+import com.frozendawn.world.TreeRegistry;
 import com.frozendawn.world.VegetationDecay;
 import net.minecraft.advancements.AdvancementHolder;
 import net.minecraft.advancements.AdvancementProgress;
@@ -36,6 +43,8 @@ import net.neoforged.neoforge.network.PacketDistributor;
  * Drives the apocalypse forward each server tick.
  * Dispatches to PlayerTickHandler for per-player effects, then drives
  * world systems: WeatherHandler, BlockFreezer, VegetationDecay, SnowAccumulator.
+ * The sampling systems run under MutationScheduler's per-tick time budget and queue
+ * their block changes in MutationBuffer, which is flushed once they are done.
  */
 @EventBusSubscriber(modid = FrozenDawn.MOD_ID)
 public class WorldTickHandler {
@@ -55,6 +64,18 @@ public class WorldTickHandler {
         WeatherHandler.reset();
         NetherSeveranceHandler.reset();
         FrostbittenSpawner.reset();
+        MutationScheduler.reset();
+        MutationBuffer.reset();
+        SamplingArea.reset();
+        SurfaceSamples.reset();
+        ChunkCatchUp.reset();
+        FreezeSchedule.reset();
+        BlockFreezer.reset();
+        VegetationDecay.reset();
+        SectionSnapshots.reset();
+        TreeRegistry.reset();
+        DepositRegistry.reset();
+        FrozenAtmosphereFormation.reset();
     }
 
     @SubscribeEvent
@@ -107,6 +128,8 @@ public class WorldTickHandler {
         SatellitePlacement.tickPlacement(overworld);
         WeatherHandler.tick(overworld, currentPhase, progress);
         NetherSeveranceHandler.tick(overworld, currentPhase);
+        // Sampling systems share a time budget, scaled down when the server is behind
+        MutationScheduler.beginTick(server);
         // Stagger heavy systems on alternating ticks to halve peak load
         long tick = overworld.getGameTime();
         if (tick % 2 == 0) {
@@ -120,6 +143,10 @@ public class WorldTickHandler {
         }
         SnowAccumulator.tick(overworld, currentPhase, progress);
         FrostbittenSpawner.tick(overworld, currentPhase, progress);
+        // Apply the tick's queued block changes in one pass
+        MutationBuffer.flush(overworld);
+        // Chunks that missed days while unloaded
+        ChunkCatchUp.tick(overworld, currentDay);
     }
 
     /**
@@ -154,8 +181,6 @@ public class WorldTickHandler {
 
     @SubscribeEvent
     public static void onBlockPlace(BlockEvent.EntityPlaceEvent event) {
-        invalidateNearbyShelterCaches(event.getLevel(), event.getPos());
-
         if (!(event.getEntity() instanceof ServerPlayer player)) return;
         if (!event.getPlacedBlock().is(ModBlocks.GEOTHERMAL_CORE.get())) return;
         if (event.getPos().getY() >= 0) return;
@@ -163,27 +188,6 @@ public class WorldTickHandler {
         grantAdvancement(player, "last_light");
     }
 
-    @SubscribeEvent
-    public static void onBlockBreak(BlockEvent.BreakEvent event) {
-        invalidateNearbyShelterCaches(event.getLevel(), event.getPos());
-    }
-
-    /** Invalidate shelter caches for any heaters within 4 blocks below the changed position. */
-    private static void invalidateNearbyShelterCaches(net.minecraft.world.level.LevelAccessor levelAccessor, net.minecraft.core.BlockPos changedPos) {
-        if (!(levelAccessor instanceof net.minecraft.world.level.Level level)) return;
-        java.util.Set<net.minecraft.core.BlockPos> heaters = HeaterRegistry.getHeaters(level);
-        if (heaters.isEmpty()) return;
-        for (int dy = 1; dy <= 4; dy++) {
-            net.minecraft.core.BlockPos below = changedPos.below(dy);
-            if (heaters.contains(below)) {
-                net.minecraft.world.level.block.entity.BlockEntity be = level.getBlockEntity(below);
-                if (be instanceof ThermalHeaterBlockEntity heater) {
-                    heater.invalidateShelterCache();
-                }
-            }
-        }
-    }
-
     @SubscribeEvent
     public static void onPlayerJoin(PlayerEvent.PlayerLoggedInEvent event) {
         if (event.getEntity() instanceof ServerPlayer player && player.getServer() != null) {
@@ -193,6 +197,7 @@ public class WorldTickHandler {
 
             grantPhaseAdvancements(player, state.getPhase());
             SanityHandler.onPlayerLogin(player);
+            PlayerTickHandler.forgetTemperature(player.getUUID());
 
             net.minecraft.nbt.CompoundTag persistentData = player.getPersistentData();
             if (!persistentData.getBoolean("frozendawn:received_books")) {
@@ -0,0 +1,18 @@
+package com.frozendawn.init;
+
+import com.frozendawn.FrozenDawn;
+import com.frozendawn.world.ChunkProgress;
+import net.neoforged.neoforge.attachment.AttachmentType;
+import net.neoforged.neoforge.registries.DeferredHolder;
+import net.neoforged.neoforge.registries.DeferredRegister;
+import net.neoforged.neoforge.registries.NeoForgeRegistries;
+
+public class ModAttachments {
+    public static final DeferredRegister<AttachmentType<?>> ATTACHMENT_TYPES =
+            DeferredRegister.create(NeoForgeRegistries.Keys.ATTACHMENT_TYPES, FrozenDawn.MOD_ID);
+
+    /** Completion watermarks for the world decay passes, per chunk. */
+    public static final DeferredHolder<AttachmentType<?>, AttachmentType<ChunkProgress>> CHUNK_PROGRESS =
+            ATTACHMENT_TYPES.register("chunk_progress",
+                    () -> AttachmentType.serializable(ChunkProgress::new).build());
+}
@@ -0,0 +1,26 @@
+package com.frozendawn.mixin;
+
+import com.frozendawn.world.BlockChangeBus;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Reports every block state change in a loaded chunk to BlockChangeBus.
+ * setBlockState returns the previous state, or null when nothing changed.
+ */
+@Mixin(LevelChunk.class)
+public class LevelChunkMixin {
+
+    @Inject(method = "setBlockState", at = @At("RETURN"))
+    private void frozendawn$onBlockChanged(BlockPos pos, BlockState state, boolean isMoving,
+                                           CallbackInfoReturnable<BlockState> cir) {
+        BlockState oldState = cir.getReturnValue();
+        if (oldState == null) return;
+        BlockChangeBus.onBlockChanged(((LevelChunk) (Object) this).getLevel(), pos, oldState, state);
+    }
+}
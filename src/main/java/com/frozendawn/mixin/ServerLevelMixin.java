@@ -0,0 +1,22 @@
+package com.frozendawn.mixin;
+
+import com.frozendawn.world.RandomTicks;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Lets freezing and vegetation decay take their random-tick mode probes in each chunk
+ * right after vanilla's own random block ticks for it.
+ */
+@Mixin(ServerLevel.class)
+public class ServerLevelMixin {
+
+    @Inject(method = "tickChunk", at = @At("TAIL"))
+    private void frozendawn$afterRandomTicks(LevelChunk chunk, int randomTickSpeed, CallbackInfo ci) {
+        RandomTicks.tickChunk((ServerLevel) (Object) this, chunk, randomTickSpeed);
+    }
+}
@@ -2,9 +2,9 @@ package com.frozendawn.world;
 
 import com.frozendawn.block.AcheroniteCrystalBlock;
 import com.frozendawn.init.ModBlocks;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
@@ -17,7 +17,8 @@ import net.minecraft.world.level.levelgen.Heightmap;
  * frozen obsidian, blue ice, packed ice) when the temperature is below -80C.
  *
  * Growth: existing crystals advance through stages 0-3 over time.
- * Only stage 3 (full cluster) drops shards when mined.
+ * Only stage 3 (full cluster) drops shards when mined. Growing crystals are
+ * visited from DepositRegistry rather than found by random column probes.
  *
  * Runs on the same staggered tick as BlockFreezer (alternating ticks).
  */
@@ -28,6 +29,8 @@ public final class AcheroniteGrowth {
     private static final int FORMATION_RADIUS = 48;
     private static final int GROWTH_RADIUS = 24;
     private static final float FORMATION_TEMP_THRESHOLD = -60f;
+    /** Cave formation checks per player square, on top of the surface checks. */
+    private static final int UNDERGROUND_CHECKS = 2;
 
     // Phase-scaled values
     private static final int P5_FORMATION_CHECKS = 4;
@@ -40,6 +43,9 @@ public final class AcheroniteGrowth {
     private static final int P6_GROWTH_CHECKS = 20;
     private static final float P6_GROWTH_CHANCE = 0.35f;      // fast growth
 
+    /** Crystals due a growth visit this run (server thread only). */
+    private static final LongArrayList dueCrystals = new LongArrayList();
+
     public static void tick(ServerLevel level, int phase, float progress, int currentDay, int totalDays) {
         if (phase < 5) return;
 
@@ -50,106 +56,128 @@ public final class AcheroniteGrowth {
         float growthChance = isPhase6 ? P6_GROWTH_CHANCE : P5_GROWTH_CHANCE;
 
         RandomSource random = level.getRandom();
-
-        for (ServerPlayer player : level.players()) {
-            BlockPos origin = player.blockPosition();
-            BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
-
-            // Surface formation: target the surface using heightmap
-            for (int i = 0; i < formationChecks; i++) {
-                int x = origin.getX() + random.nextInt(FORMATION_RADIUS * 2 + 1) - FORMATION_RADIUS;
-                int z = origin.getZ() + random.nextInt(FORMATION_RADIUS * 2 + 1) - FORMATION_RADIUS;
-                int surfaceY = level.getHeight(Heightmap.Types.WORLD_SURFACE, x, z);
-                mutable.set(x, surfaceY, z);
-                if (!level.isLoaded(mutable)) continue;
-
-                // Scan down through snow/air to find the actual ground
-                for (int dy = 0; dy <= 6; dy++) {
-                    mutable.set(x, surfaceY - dy, z);
-                    BlockState at = level.getBlockState(mutable);
-                    if (at.isAir() || at.is(Blocks.SNOW) || at.is(Blocks.SNOW_BLOCK)) continue;
-
-                    // Found a solid block — check if it's a valid substrate
-                    if (!isValidSubstrate(at)) break;
-
-                    // Check air above for crystal placement
-                    BlockPos crystalPos = mutable.above();
-                    BlockState aboveState = level.getBlockState(crystalPos);
-                    if (!aboveState.isAir() && !aboveState.is(Blocks.SNOW)) break;
-
-                    float temp = TemperatureManager.getTemperatureAt(level, crystalPos, currentDay, totalDays);
-                    if (temp > FORMATION_TEMP_THRESHOLD) break;
-                    if (random.nextFloat() >= formationChance) break;
-
-                    // Clear snow at crystal position if needed, then place
-                    if (aboveState.is(Blocks.SNOW)) {
-                        level.destroyBlock(crystalPos, false);
-                    }
-                    level.setBlock(crystalPos,
-                            ModBlocks.ACHERONITE_CRYSTAL.get().defaultBlockState()
-                                    .setValue(AcheroniteCrystalBlock.AGE, 0), 3);
-                    clearSnowAround(level, crystalPos, 2);
-                    break;
+        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+
+        // Formation: surface checks plus a couple of underground (cave) checks, in one lane
+        long[] formationArea = SamplingArea.chunksNear(level, FORMATION_RADIUS);
+        if (formationArea.length > 0) {
+            int perPlayer = formationChecks + UNDERGROUND_CHECKS;
+            MutationScheduler.Run formation = MutationScheduler.begin(MutationScheduler.Lane.ACHERONITE_FORMATION,
+                    SamplingArea.demand(formationArea, FORMATION_RADIUS, perPlayer));
+            while (formation.next()) {
+                SurfaceSamples.Column column = SurfaceSamples.next(MutationScheduler.Lane.ACHERONITE_FORMATION,
+                        level, formationArea, random);
+                if (column == null) continue;
+                if (random.nextInt(perPlayer) < UNDERGROUND_CHECKS) {
+                    formUnderground(level, column, mutable, random, formationChance, currentDay, totalDays);
+                } else {
+                    formSurface(level, column, mutable, random, formationChance, currentDay, totalDays);
                 }
             }
+            formation.end();
+        }
 
-            // Underground formation: random Y scan for cave crystals
-            for (int i = 0; i < 2; i++) {
-                int x = origin.getX() + random.nextInt(FORMATION_RADIUS * 2 + 1) - FORMATION_RADIUS;
-                int z = origin.getZ() + random.nextInt(FORMATION_RADIUS * 2 + 1) - FORMATION_RADIUS;
-                int y = random.nextIntBetweenInclusive(level.getMinBuildHeight() + 1, 0);
-                mutable.set(x, y, z);
-                if (!level.isLoaded(mutable)) continue;
-
-                BlockState state = level.getBlockState(mutable);
-                if (!state.isAir()) continue;
-
-                BlockState belowState = level.getBlockState(mutable.below());
-                if (!isValidSubstrate(belowState)) continue;
+        // Growth: visit the known growing crystals of the chunks due this run
+        long[] growthArea = SamplingArea.chunksNear(level, GROWTH_RADIUS);
+        long now = level.getGameTime();
+        dueCrystals.clear();
+        for (long chunkKey : growthArea) {
+            if (DepositRegistry.isDue(chunkKey, now, DepositRegistry.VISIT_RUNS)) DepositRegistry.growingIn(chunkKey, dueCrystals);
+        }
+        if (dueCrystals.isEmpty()) return;
+        // Checks per crystal per visit: what random column probes would have landed on it since the last one
+        double perVisit = SamplingArea.perChunk(GROWTH_RADIUS, growthChecks) * MutationScheduler.getDensity()
+                / 256 * DepositRegistry.VISIT_RUNS;
+        MutationScheduler.Run growth = MutationScheduler.begin(MutationScheduler.Lane.ACHERONITE_GROWTH,
+                dueCrystals.size());
+        for (int i = 0; i < dueCrystals.size() && growth.next(); i++) {
+            mutable.set(dueCrystals.getLong(i));
+            grow(level, mutable, random, perVisit, growthChance, currentDay, totalDays);
+        }
+        growth.end();
+        dueCrystals.clear();
+    }
 
-                float temp = TemperatureManager.getTemperatureAt(level, mutable, currentDay, totalDays);
-                if (temp > FORMATION_TEMP_THRESHOLD) continue;
-                if (random.nextFloat() >= formationChance) continue;
+    /** Surface formation: scan down from the heightmap through snow/air to the ground. */
+    private static void formSurface(ServerLevel level, SurfaceSamples.Column column, BlockPos.MutableBlockPos mutable,
+                                    RandomSource random, float formationChance, int currentDay, int totalDays) {
+        int surfaceY = column.height(Heightmap.Types.WORLD_SURFACE);
+        for (int dy = 0; dy <= 6; dy++) {
+            column.at(mutable, surfaceY - dy);
+            BlockState at = column.state(surfaceY - dy);
+            if (at.isAir() || at.is(Blocks.SNOW) || at.is(Blocks.SNOW_BLOCK)) continue;
+
+            // Found a solid block — check if it's a valid substrate
+            if (!isValidSubstrate(at)) return;
+
+            // Check air above for crystal placement
+            BlockPos crystalPos = mutable.above();
+            BlockState aboveState = column.state(crystalPos.getY());
+            if (!aboveState.isAir() && !aboveState.is(Blocks.SNOW)) return;
+
+            float temp = TemperatureManager.getTemperatureAt(level, crystalPos, currentDay, totalDays);
+            if (temp > FORMATION_TEMP_THRESHOLD) return;
+            if (random.nextFloat() >= formationChance) return;
+
+            // Place the crystal (over a snow layer, if there is one) and clear the snow around it
+            MutationBuffer.set(crystalPos, aboveState,
+                    ModBlocks.ACHERONITE_CRYSTAL.get().defaultBlockState()
+                            .setValue(AcheroniteCrystalBlock.AGE, 0));
+            clearSnowAround(level, crystalPos, 2);
+            return;
+        }
+    }
 
-                level.setBlock(mutable.immutable(),
-                        ModBlocks.ACHERONITE_CRYSTAL.get().defaultBlockState()
-                                .setValue(AcheroniteCrystalBlock.AGE, 0), 3);
-            }
+    /** Underground formation: random Y below 0 for cave crystals. */
+    private static void formUnderground(ServerLevel level, SurfaceSamples.Column column,
+                                        BlockPos.MutableBlockPos mutable, RandomSource random,
+                                        float formationChance, int currentDay, int totalDays) {
+        column.at(mutable, random.nextIntBetweenInclusive(level.getMinBuildHeight() + 1, 0));
+        BlockState state = column.state(mutable.getY());
+        if (!state.isAir()) return;
 
-            // Surface growth: scan down from heightmap to find existing crystals
-            for (int i = 0; i < growthChecks; i++) {
-                int x = origin.getX() + random.nextInt(GROWTH_RADIUS * 2 + 1) - GROWTH_RADIUS;
-                int z = origin.getZ() + random.nextInt(GROWTH_RADIUS * 2 + 1) - GROWTH_RADIUS;
-                int surfaceY = level.getHeight(Heightmap.Types.WORLD_SURFACE, x, z);
-                // Scan down through snow/air to find crystals
-                for (int dy = 0; dy <= 8; dy++) {
-                    mutable.set(x, surfaceY - dy, z);
-                    if (!level.isLoaded(mutable)) break;
-
-                    BlockState state = level.getBlockState(mutable);
-                    if (!state.is(ModBlocks.ACHERONITE_CRYSTAL.get())) {
-                        if (!state.isAir() && !state.is(Blocks.SNOW) && !state.is(Blocks.SNOW_BLOCK)) break;
-                        continue;
-                    }
+        BlockState belowState = column.state(mutable.getY() - 1);
+        if (!isValidSubstrate(belowState)) return;
 
-                    int age = state.getValue(AcheroniteCrystalBlock.AGE);
-                    if (age >= 3) break;
+        float temp = TemperatureManager.getTemperatureAt(level, mutable, currentDay, totalDays);
+        if (temp > FORMATION_TEMP_THRESHOLD) return;
+        if (random.nextFloat() >= formationChance) return;
 
-                    float temp = TemperatureManager.getTemperatureAt(level, mutable, currentDay, totalDays);
-                    if (temp > FORMATION_TEMP_THRESHOLD) break;
-                    if (random.nextFloat() >= growthChance) break;
+        MutationBuffer.set(mutable.immutable(), state,
+                ModBlocks.ACHERONITE_CRYSTAL.get().defaultBlockState()
+                        .setValue(AcheroniteCrystalBlock.AGE, 0));
+    }
 
-                    BlockPos crystalPos = mutable.immutable();
-                    level.setBlock(crystalPos,
-                            state.setValue(AcheroniteCrystalBlock.AGE, age + 1), 3);
-                    clearSnowAround(level, crystalPos, 2);
-                    break;
-                }
-            }
+    /**
+     * Growth of one known crystal. Only crystals the surface scan used to reach grow:
+     * cave crystals stay as they formed.
+     */
+    private static void grow(ServerLevel level, BlockPos.MutableBlockPos mutable, RandomSource random,
+                             double checks, float growthChance, int currentDay, int totalDays) {
+        // Any of the checks passing grows the crystal one stage, as one probe would have
+        boolean passed = false;
+        for (int n = RandomTicks.probes(checks, random); n > 0 && !passed; n--) {
+            passed = random.nextFloat() < growthChance;
         }
+        if (!passed) return;
+        if (!level.isLoaded(mutable)) return;
+
+        BlockState state = level.getBlockState(mutable);
+        if (!state.is(ModBlocks.ACHERONITE_CRYSTAL.get())) return;
+        int age = state.getValue(AcheroniteCrystalBlock.AGE);
+        if (age >= 3) return;
+        if (!DepositRegistry.isExposed(level, mutable, 8)) return;
+
+        float temp = TemperatureManager.getTemperatureAt(level, mutable, currentDay, totalDays);
+        if (temp > FORMATION_TEMP_THRESHOLD) return;
+
+        BlockPos crystalPos = mutable.immutable();
+        MutationBuffer.set(crystalPos, state,
+                state.setValue(AcheroniteCrystalBlock.AGE, age + 1));
+        clearSnowAround(level, crystalPos, 2);
     }
 
-    /** Clears snow layers and snow blocks within a horizontal radius around a crystal. */
+    /** Clears snow layers and snow blocks within a horizontal radius around a crystal (no drops, no break effects). */
     private static void clearSnowAround(ServerLevel level, BlockPos center, int radius) {
         BlockPos.MutableBlockPos check = new BlockPos.MutableBlockPos();
         for (int dx = -radius; dx <= radius; dx++) {
@@ -159,7 +187,7 @@ public final class AcheroniteGrowth {
                     check.set(center.getX() + dx, center.getY() + dy, center.getZ() + dz);
                     BlockState s = level.getBlockState(check);
                     if (s.is(Blocks.SNOW) || s.is(Blocks.SNOW_BLOCK)) {
-                        level.destroyBlock(check.immutable(), false);
+                        MutationBuffer.set(check.immutable(), s, Blocks.AIR.defaultBlockState());
                     }
                 }
             }
@@ -0,0 +1,112 @@
+package com.frozendawn.world;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+import java.util.WeakHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Tracks ambient (non-heater) heat blocks per level: lit campfires and furnaces,
+ * lava, magma, fire, acheronite blocks, and anything else a datapack defines in
+ * HeatSources.
+ *
+ * Seeded per section when a chunk loads (sections whose palette can't contain a
+ * heat source are skipped outright) and kept current by block change hooks.
+ * Replaces the 13x13x13 block scan in TemperatureManager with a box query that
+ * only visits indexed sources.
+ */
+public final class AmbientHeatRegistry {
+
+    private static final WeakHashMap<Level, SectionBitIndex> sources = new WeakHashMap<>();
+
+    private AmbientHeatRegistry() {}
+
+    /** True if this state is an ambient heat source (defined in HeatSources, not a Thermal Heater). */
+    public static boolean isSource(BlockState state) {
+        HeatSources.HeatSource source = HeatSources.get(state);
+        return source != null && !source.blockEntityManaged();
+    }
+
+    /** Adds or removes a position after its block state changed. */
+    public static void onBlockChanged(Level level, BlockPos pos, BlockState newState) {
+        boolean changed;
+        if (isSource(newState)) {
+            changed = sources.computeIfAbsent(level, k -> new SectionBitIndex()).add(pos);
+            if (changed) {
+                FrozenAtmosphereFormation.onHeatChanged(level, pos, (int) Math.ceil(HeatSources.get(newState).radius()));
+            }
+        } else {
+            SectionBitIndex index = sources.get(level);
+            changed = index != null && index.remove(pos);
+        }
+        if (changed) TemperatureManager.invalidateCache(level, pos, HeatSources.getMaxAmbientRadius());
+    }
+
+    /** Scans a freshly loaded chunk, skipping sections whose palette holds no heat source. */
+    public static void onChunkLoad(Level level, ChunkAccess chunk) {
+        SectionBitIndex index = null;
+        ChunkPos chunkPos = chunk.getPos();
+        LevelChunkSection[] sections = chunk.getSections();
+        for (int i = 0; i < sections.length; i++) {
+            LevelChunkSection section = sections[i];
+            if (section == null || section.hasOnlyAir()) continue;
+            PalettedContainer<BlockState> states = section.getStates();
+            if (!states.maybeHas(AmbientHeatRegistry::isSource)) continue;
+
+            long[] mask = null;
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (!isSource(states.get(x, y, z))) continue;
+                        if (mask == null) mask = SectionBitIndex.newMask();
+                        int local = SectionBitIndex.localIndex(x, y, z);
+                        mask[local >>> 6] |= 1L << (local & 63);
+                    }
+                }
+            }
+            if (mask == null) continue;
+            if (index == null) index = sources.computeIfAbsent(level, k -> new SectionBitIndex());
+            int sectionY = chunk.getSectionYFromSectionIndex(i);
+            index.putSection(SectionPos.asLong(chunkPos.x, sectionY, chunkPos.z), mask);
+            int reach = HeatSources.getMaxAmbientRadius();
+            TemperatureManager.invalidateCache(level,
+                    chunkPos.getMinBlockX() - reach, SectionPos.sectionToBlockCoord(sectionY) - reach, chunkPos.getMinBlockZ() - reach,
+                    chunkPos.getMaxBlockX() + reach, SectionPos.sectionToBlockCoord(sectionY, 15) + reach, chunkPos.getMaxBlockZ() + reach);
+        }
+    }
+
+    /** Re-seeds a loaded chunk from scratch, e.g. after the heat source table was recompiled. */
+    public static void reseedChunk(Level level, ChunkAccess chunk) {
+        onChunkUnload(level, chunk.getPos());
+        onChunkLoad(level, chunk);
+    }
+
+    public static void onChunkUnload(Level level, ChunkPos chunkPos) {
+        SectionBitIndex index = sources.get(level);
+        if (index == null) return;
+        index.removeChunk(chunkPos.x, chunkPos.z, level.getMinSection(), level.getMaxSection() - 1);
+        if (index.isEmpty()) sources.remove(level);
+    }
+
+    /**
+     * Visits indexed sources inside the cube of the given radius around the center
+     * until the predicate returns true.
+     *
+     * @return true if the predicate matched a source (iteration stopped early)
+     */
+    public static boolean anyInBox(Level level, BlockPos center, int radius, LongPredicate predicate) {
+        SectionBitIndex index = sources.get(level);
+        if (index == null) return false;
+        return index.anyInBox(
+                center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius,
+                predicate);
+    }
+}
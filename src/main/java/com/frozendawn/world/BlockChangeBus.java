@@ -0,0 +1,128 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.WeakHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Single entry point for every block state change in a loaded chunk, fed by
+ * LevelChunkMixin at the end of LevelChunk.setBlockState. Unlike place/break and
+ * neighbour-notify events, this also sees pistons, explosions, fluid and snow
+ * updates, and our own flag-2 writes.
+ *
+ * Two kinds of subscribers:
+ * - Listeners see every change (indexes that cover the whole world: rooms, ambient heat).
+ * - Watches cover a fixed box and fire only for changes inside it (a heater's roof
+ *   column, a transponder's shaft). They are bucketed per section, so a change costs
+ *   one map lookup when nothing watches its section.
+ *
+ * Callbacks run inside setBlockState: they must only update caches or set flags,
+ * never modify the world. Watches are per logical side, like the levels they watch.
+ */
+public final class BlockChangeBus {
+
+    @FunctionalInterface
+    public interface Listener {
+        void onBlockChanged(Level level, BlockPos pos, BlockState oldState, BlockState newState);
+    }
+
+    /** Listeners for both logical sides. */
+    private static final Listener[] LISTENERS = {
+            (level, pos, oldState, newState) -> RoomRegistry.onBlockChanged(level, pos)
+    };
+
+    /** Listeners for server levels only. */
+    private static final Listener[] SERVER_LISTENERS = {
+            (level, pos, oldState, newState) -> AmbientHeatRegistry.onBlockChanged(level, pos, newState),
+            (level, pos, oldState, newState) -> ChunkWatermarks.onBlockChanged(level, pos, newState),
+            (level, pos, oldState, newState) -> FreezeSchedule.onBlockChanged(level, pos, newState),
+            (level, pos, oldState, newState) -> SectionSnapshots.onBlockChanged(level, pos),
+            (level, pos, oldState, newState) -> TreeRegistry.onBlockChanged(level, pos, oldState, newState),
+            (level, pos, oldState, newState) -> DepositRegistry.onBlockChanged(level, pos, oldState, newState)
+    };
+
+    private static final WeakHashMap<Level, Long2ObjectOpenHashMap<List<Watch>>> serverWatches = new WeakHashMap<>();
+    private static final WeakHashMap<Level, Long2ObjectOpenHashMap<List<Watch>>> clientWatches = new WeakHashMap<>();
+
+    private BlockChangeBus() {}
+
+    /** A registered watch region. Cancel it when its owner goes away. */
+    public static final class Watch {
+        /** The owning level's section buckets (not the level itself, which would pin it in the WeakHashMap). */
+        private final Long2ObjectOpenHashMap<List<Watch>> sections;
+        private final BoundingBox box;
+        private final Runnable callback;
+        private boolean cancelled;
+
+        private Watch(Long2ObjectOpenHashMap<List<Watch>> sections, BoundingBox box, Runnable callback) {
+            this.sections = sections;
+            this.box = box;
+            this.callback = callback;
+        }
+
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            forEachSection(box, key -> {
+                List<Watch> list = sections.get(key);
+                if (list == null) return;
+                list.remove(this);
+                if (list.isEmpty()) sections.remove(key);
+            });
+        }
+    }
+
+    /**
+     * Calls the callback whenever a block inside the box (inclusive) changes, until the
+     * returned watch is cancelled.
+     */
+    public static Watch watch(Level level, BoundingBox box, Runnable callback) {
+        Long2ObjectOpenHashMap<List<Watch>> sections = watches(level).computeIfAbsent(level, k -> new Long2ObjectOpenHashMap<>());
+        Watch watch = new Watch(sections, box, callback);
+        forEachSection(box, key -> sections.computeIfAbsent(key, k -> new ArrayList<>(2)).add(watch));
+        return watch;
+    }
+
+    /** Called by LevelChunkMixin after a block state actually changed. */
+    public static void onBlockChanged(Level level, BlockPos pos, BlockState oldState, BlockState newState) {
+        for (Listener listener : LISTENERS) {
+            listener.onBlockChanged(level, pos, oldState, newState);
+        }
+        if (!level.isClientSide()) {
+            for (Listener listener : SERVER_LISTENERS) {
+                listener.onBlockChanged(level, pos, oldState, newState);
+            }
+        }
+
+        Long2ObjectOpenHashMap<List<Watch>> sections = watches(level).get(level);
+        if (sections == null || sections.isEmpty()) return;
+        List<Watch> list = sections.get(SectionPos.asLong(pos));
+        if (list == null) return;
+        // Copy: a callback may cancel its own watch
+        for (Watch watch : list.toArray(new Watch[0])) {
+            if (!watch.cancelled && watch.box.isInside(pos)) watch.callback.run();
+        }
+    }
+
+    private static WeakHashMap<Level, Long2ObjectOpenHashMap<List<Watch>>> watches(Level level) {
+        return level.isClientSide() ? clientWatches : serverWatches;
+    }
+
+    private static void forEachSection(BoundingBox box, LongConsumer consumer) {
+        for (int sx = SectionPos.blockToSectionCoord(box.minX()); sx <= SectionPos.blockToSectionCoord(box.maxX()); sx++) {
+            for (int sy = SectionPos.blockToSectionCoord(box.minY()); sy <= SectionPos.blockToSectionCoord(box.maxY()); sy++) {
+                for (int sz = SectionPos.blockToSectionCoord(box.minZ()); sz <= SectionPos.blockToSectionCoord(box.maxZ()); sz++) {
+                    consumer.accept(SectionPos.asLong(sx, sy, sz));
+                }
+            }
+        }
+    }
+}
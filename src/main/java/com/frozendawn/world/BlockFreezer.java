@@ -3,14 +3,18 @@ package com.frozendawn.world;
 import com.frozendawn.config.FrozenDawnConfig;
 import com.frozendawn.init.ModBlocks;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.tags.BlockTags;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.minecraft.world.level.levelgen.Heightmap;
 
+import java.util.function.UnaryOperator;
+
 /**
  * Handles block freezing chains driven by apocalypse phase:
  *
@@ -20,7 +24,15 @@ import net.minecraft.world.level.levelgen.Heightmap;
  * Sand → Frozen Sand (permafrost)
  *
  * Surface checks now scan below canopy (not just heightmap) to freeze
- * blocks under trees.
+ * blocks under trees. Chunks and sections with nothing left to freeze at the
+ * current stage are skipped via ChunkWatermarks. The volume pass's probes are drawn
+ * by a CandidatePipeline, weighted towards the sections holding the most water, ice,
+ * lava and ore (on a worker thread with offThreadSampling). With randomTickMode on, the
+ * probes are taken per chunk from vanilla's random ticking (see RandomTicks).
+ *
+ * With scheduledFreezing on, the chains are driven by FreezeSchedule instead. The
+ * random passes here then only run in the late phase 6 stage, and only for its own
+ * effects (snow compacting, sublimation), which depend on sky access per block.
  */
 public final class BlockFreezer {
 
@@ -29,8 +41,28 @@ public final class BlockFreezer {
     private static final int BASE_SURFACE_CHECKS = 24;
     private static final int BASE_VOLUME_CHECKS = 12;
     private static final int RADIUS = 64;
+    /** How far below the heightmap the surface pass looks for ground under canopies. */
+    static final int CANOPY_DEPTH = 12;
+    /** Sections with at least this many freezable blocks are converted in bulk. */
+    private static final int BULK_MIN_BLOCKS = 64;
+
+    private static final CandidatePipeline volumePipeline = new CandidatePipeline(ChunkWatermarks.Pass.FREEZER_VOLUME,
+            MutationScheduler.Lane.FREEZER_VOLUME);
+
+    /**
+     * Everything the passes need to know about the current phase, worked out once per tick.
+     * chains is false when FreezeSchedule runs the chains and only the late effects are left here.
+     */
+    private record Stage(int phase, float progress, boolean late, boolean chains, boolean lava, boolean fuel,
+                         boolean bulk, int surfaceStage, int volumeStage, StateMask surfaceMask, StateMask volumeMask,
+                         int surfaceChecks, int volumeChecks) {
+    }
+
+    /** The stage the random-tick hook works with, or null when it has nothing to do. */
+    private static Stage randomTickStage;
 
     public static void tick(ServerLevel level, int phase, float progress) {
+        randomTickStage = null;
         if (phase < 2) return;
 
         int surfaceChecks = switch (phase) {
@@ -46,130 +78,363 @@ public final class BlockFreezer {
             default -> BASE_VOLUME_CHECKS * 10;
         };
 
+        // Stages: everything that changes which states the passes can act on
+        boolean late = phase >= 6 && progress >= 0.85f;
+        boolean lava = FrozenDawnConfig.ENABLE_LAVA_FREEZING.get();
+        boolean fuel = FrozenDawnConfig.ENABLE_FUEL_SCARCITY.get() && phase >= FrozenDawnConfig.FUEL_SCARCITY_PHASE.get();
+        boolean bulk = FrozenDawnConfig.BULK_SECTION_FREEZING.get();
+        // Scheduled engine: the chains run on FreezeSchedule's timetable instead, and
+        // the passes below only take care of the late effects
+        boolean chains = !FrozenDawnConfig.SCHEDULED_FREEZING.get();
+        if (!chains) {
+            FreezeSchedule.tick(level, phase);
+            if (!late) return;
+        } else if (FreezeSchedule.isActive()) {
+            FreezeSchedule.reset();
+        }
+        int surfaceStage = 1 + (phase << 2 | (chains ? 0 : 2) | (late ? 1 : 0));
+        int volumeStage = 1 + (phase << 4 | (chains ? 0 : 8) | (late ? 4 : 0) | (lava ? 2 : 0) | (fuel ? 1 : 0));
+        StateMask surfaceMask = ChunkWatermarks.stage(ChunkWatermarks.Pass.FREEZER_SURFACE, surfaceStage,
+                state -> freezesOnSurface(state, phase, late, chains));
+        StateMask volumeMask = ChunkWatermarks.stage(ChunkWatermarks.Pass.FREEZER_VOLUME, volumeStage,
+                state -> freezesInVolume(state, phase, late, chains, lava, fuel));
+        Stage stage = new Stage(phase, progress, late, chains, lava, fuel, bulk, surfaceStage, volumeStage,
+                surfaceMask, volumeMask, surfaceChecks, volumeChecks);
+
+        // Random-tick mode: the probes come from vanilla's chunk ticking instead
+        if (FrozenDawnConfig.RANDOM_TICK_MODE.get()) {
+            randomTickStage = stage;
+            if (volumePipeline.isActive()) volumePipeline.reset();
+            return;
+        }
+
+        long[] area = SamplingArea.chunksNear(level, RADIUS);
+        if (area.length == 0) return;
+        RandomSource random = level.getRandom();
+        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+
+        // Surface pass: now scans downward from heightmap to find freezable blocks
+        // under tree canopies, not just the top-level surface block
+        long[] surfaceArea = ChunkWatermarks.openChunks(level, area, ChunkWatermarks.Pass.FREEZER_SURFACE, surfaceStage);
+        if (surfaceArea.length > 0) {
+            MutationScheduler.Run surface = MutationScheduler.begin(MutationScheduler.Lane.FREEZER_SURFACE,
+                    SamplingArea.demand(surfaceArea, RADIUS, surfaceChecks));
+            while (surface.next()) {
+                SurfaceSamples.Column column = SurfaceSamples.next(MutationScheduler.Lane.FREEZER_SURFACE,
+                        level, surfaceArea, random);
+                if (column != null) probeSurface(level, column, mutable, stage);
+            }
+            surface.end();
+        }
+
+        // Volume pass: water, lava, ice chains
+        int minY = level.getMinBuildHeight();
+        int maxY = level.getMaxBuildHeight() - 1;
+        long[] volumeArea = ChunkWatermarks.openChunks(level, area, ChunkWatermarks.Pass.FREEZER_VOLUME, volumeStage, minY, maxY);
+        if (volumeArea.length == 0) return;
+        // Probes are drawn among the open sections' freezable blocks (on a worker thread
+        // with offThreadSampling); only the re-check and the change happen here
+        int found = volumePipeline.cycle(level, volumeArea, minY, maxY,
+                SamplingArea.demand(volumeArea, RADIUS, volumeChecks), volumeStage, volumeMask,
+                FrozenDawnConfig.OFF_THREAD_SAMPLING.get());
+        MutationScheduler.Run volume = MutationScheduler.begin(MutationScheduler.Lane.FREEZER_VOLUME, found);
+        while (volume.next()) {
+            BlockState volumeState = volumePipeline.next(level, mutable);
+            if (volumeState == null) break;
+            freezeVolumeHit(level, mutable, volumeState, stage);
+        }
+        volume.end();
+    }
+
+    /**
+     * Random-tick mode: called for each chunk vanilla random-ticks, after its own block
+     * ticks. Probes the chunk at the density the sampling passes would have given it,
+     * scaled by randomTickSpeed relative to the default of 3, under the freezer lanes.
+     */
+    public static void randomTickChunk(ServerLevel level, LevelChunk chunk, int randomTickSpeed) {
+        Stage stage = randomTickStage;
+        if (stage == null) return;
         RandomSource random = level.getRandom();
+        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+        int baseX = chunk.getPos().getMinBlockX();
+        int baseZ = chunk.getPos().getMinBlockZ();
+        double scale = RandomTicks.probeScale(RADIUS, randomTickSpeed);
 
-        for (ServerPlayer player : level.players()) {
-            BlockPos origin = player.blockPosition();
-
-            BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
-
-            // Surface pass: now scans downward from heightmap to find freezable blocks
-            // under tree canopies, not just the top-level surface block
-            for (int i = 0; i < surfaceChecks; i++) {
-                int x = origin.getX() + random.nextInt(RADIUS * 2 + 1) - RADIUS;
-                int z = origin.getZ() + random.nextInt(RADIUS * 2 + 1) - RADIUS;
-                int topY = level.getHeight(Heightmap.Types.WORLD_SURFACE, x, z) - 1;
-
-                // Scan downward up to 12 blocks to find freezable ground under trees
-                for (int dy = 0; dy <= 12; dy++) {
-                    mutable.set(x, topY - dy, z);
-                    if (!level.isLoaded(mutable)) break;
-                    BlockState state = level.getBlockState(mutable);
-
-                    // Skip air, leaves, logs (canopy blocks) - keep scanning down
-                    if (state.isAir() || state.is(BlockTags.LEAVES) || state.is(BlockTags.LOGS)
-                            || state.is(ModBlocks.DEAD_LEAVES.get()) || state.is(ModBlocks.FROZEN_LEAVES.get())
-                            || state.is(ModBlocks.DEAD_LOG.get()) || state.is(ModBlocks.FROZEN_LOG.get())) {
-                        continue;
-                    }
-
-                    // Found a solid block - try to freeze it
-                    transformSurface(level, mutable.immutable(), state, phase, progress);
-                    break;
-                }
+        if (!ChunkWatermarks.isComplete(chunk, ChunkWatermarks.Pass.FREEZER_SURFACE, 0, stage.surfaceStage())) {
+            MutationScheduler.Run surface = MutationScheduler.begin(MutationScheduler.Lane.FREEZER_SURFACE,
+                    stage.surfaceChecks() * scale);
+            while (surface.next()) {
+                probeSurface(level, SurfaceSamples.of(chunk, baseX + random.nextInt(16), baseZ + random.nextInt(16)),
+                        mutable, stage);
             }
+            surface.end();
+        }
+
+        // Finished sections turn a probe away after the watermark check, without a block read
+        int minY = level.getMinBuildHeight();
+        int height = level.getHeight();
+        MutationScheduler.Run volume = MutationScheduler.begin(MutationScheduler.Lane.FREEZER_VOLUME,
+                stage.volumeChecks() * scale);
+        while (volume.next()) {
+            mutable.set(baseX + random.nextInt(16), minY + random.nextInt(height), baseZ + random.nextInt(16));
+            probeVolume(level, chunk, mutable, stage);
+        }
+        volume.end();
+    }
+
+    /** One surface probe of a sampled column; pos is a scratch position. */
+    private static void probeSurface(ServerLevel level, SurfaceSamples.Column column, BlockPos.MutableBlockPos pos,
+                                     Stage stage) {
+        LevelChunk chunk = column.chunk();
+        int topY = column.height(Heightmap.Types.WORLD_SURFACE) - 1;
+        column.at(pos, topY);
+        BlockState state = columnMayContain(chunk, topY - CANOPY_DEPTH, topY, stage.surfaceMask())
+                ? groundBelowCanopy(chunk, pos, topY) : null;
+        if (state == null || !stage.surfaceMask().contains(state)) {
+            ChunkWatermarks.miss(chunk, ChunkWatermarks.Pass.FREEZER_SURFACE, 0, stage.surfaceStage(),
+                    () -> surfaceFinished(chunk, stage.surfaceMask()));
+            return;
+        }
+        ChunkWatermarks.hit(chunk, ChunkWatermarks.Pass.FREEZER_SURFACE, 0);
+        transformSurface(level, pos.immutable(), state, stage.phase(), stage.progress(), stage.chains());
+    }
+
+    /**
+     * One volume probe at pos, in a loaded chunk. Returns false if the probe's section is
+     * finished at this stage, so further probes there can be skipped.
+     */
+    private static boolean probeVolume(ServerLevel level, LevelChunk chunk, BlockPos.MutableBlockPos pos, Stage stage) {
+        int sectionIndex = chunk.getSectionIndex(pos.getY());
+        if (ChunkWatermarks.isComplete(chunk, ChunkWatermarks.Pass.FREEZER_VOLUME, sectionIndex, stage.volumeStage())) {
+            return false;
+        }
+        // Most sections (stone, air, deepslate) can't hold anything freezable; the palette
+        // answer is exact, so the section is finished outright
+        LevelChunkSection section = chunk.getSection(sectionIndex);
+        StateMask mask = stage.volumeMask();
+        if (!mask.mayBeIn(section)) {
+            ChunkWatermarks.complete(chunk, ChunkWatermarks.Pass.FREEZER_VOLUME, sectionIndex, stage.volumeStage());
+            return false;
+        }
+
+        BlockState state = chunk.getBlockState(pos);
+        if (!mask.contains(state)) {
+            ChunkWatermarks.miss(chunk, ChunkWatermarks.Pass.FREEZER_VOLUME, sectionIndex, stage.volumeStage(),
+                    () -> !mask.isIn(section));
+            return true;
+        }
+        ChunkWatermarks.hit(chunk, ChunkWatermarks.Pass.FREEZER_VOLUME, sectionIndex);
+        freezeVolumeHit(level, pos, state, stage);
+        return true;
+    }
+
+    /** Drops the volume sampling state and the random-tick stage. */
+    public static void reset() {
+        volumePipeline.reset();
+        randomTickStage = null;
+    }
+
+    /**
+     * Acts on a volume probe that found something freezable. Big bodies of water, lava or
+     * ore advance a whole section per hit, except in the late stage, where sublimation
+     * depends on sky access per block. Fluids always take the per-block path.
+     */
+    private static void freezeVolumeHit(ServerLevel level, BlockPos pos, BlockState state, Stage stage) {
+        if (stage.bulk() && !stage.late() && state.getFluidState().isEmpty()) {
+            LevelChunk chunk = level.getChunkAt(pos);
+            if (bulkFreeze(level, chunk, chunk.getSectionIndex(pos.getY()), stage.phase(), stage.lava(), stage.fuel())) return;
+        }
+        BlockPos immutable = pos.immutable();
+        transformVolume(level, immutable, state, stage.phase(), stage.progress(), stage.chains());
+        if (stage.chains()) transformSurfaceCoalOre(immutable, state, stage.phase());
+    }
+
+    /**
+     * Advances every freezable block in the section one step along its chain in a single
+     * SectionConverter pass, if the section holds at least BULK_MIN_BLOCKS of them.
+     * Returns false (leaving the probe to the per-block path) for smaller sections.
+     * Water and lava are left out: a source turning solid has to update the fluid
+     * around it, so they go through MutationBuffer with full updates, one per probe.
+     */
+    private static boolean bulkFreeze(ServerLevel level, LevelChunk chunk, int sectionIndex,
+                                      int phase, boolean lava, boolean fuel) {
+        // Coal only freezes at Y >= 0; sections are 16-aligned, so this is all or nothing
+        boolean coal = fuel && SectionPos.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(sectionIndex)) >= 0;
+        UnaryOperator<BlockState> step = state -> state.getFluidState().isEmpty()
+                ? nextFrozenState(state, phase, lava, coal) : null;
+        if (SectionConverter.countConvertible(chunk.getSection(sectionIndex), step) < BULK_MIN_BLOCKS) return false;
+        SectionConverter.convert(level, chunk, sectionIndex, step);
+        return true;
+    }
+
+    /** The next state in a volume freezing chain (transformVolume without the late stage), or null. */
+    static BlockState nextFrozenState(BlockState state, int phase, boolean lava, boolean coal) {
+        if (state.is(Blocks.WATER)) return phase >= 2 ? Blocks.ICE.defaultBlockState() : null;
+        if (state.is(Blocks.ICE)) return phase >= 3 ? Blocks.PACKED_ICE.defaultBlockState() : null;
+        if (state.is(Blocks.PACKED_ICE)) return phase >= 4 ? Blocks.BLUE_ICE.defaultBlockState() : null;
+        if (lava) {
+            if (state.is(Blocks.LAVA)) return phase >= 3 ? Blocks.MAGMA_BLOCK.defaultBlockState() : null;
+            if (state.is(Blocks.MAGMA_BLOCK)) return phase >= 4 ? Blocks.OBSIDIAN.defaultBlockState() : null;
+            if (state.is(Blocks.OBSIDIAN)) return phase >= 4 ? ModBlocks.FROZEN_OBSIDIAN.get().defaultBlockState() : null;
+        }
+        if (coal && (state.is(Blocks.COAL_ORE) || state.is(Blocks.DEEPSLATE_COAL_ORE))) {
+            return ModBlocks.FROZEN_COAL_ORE.get().defaultBlockState();
+        }
+        return null;
+    }
+
+    /**
+     * First block at or below topY that isn't air or tree canopy, looking at most
+     * CANOPY_DEPTH blocks down; null if the scan finds only canopy. Leaves mutable on it.
+     */
+    static BlockState groundBelowCanopy(LevelChunk chunk, BlockPos.MutableBlockPos mutable, int topY) {
+        int x = mutable.getX();
+        int z = mutable.getZ();
+        for (int dy = 0; dy <= CANOPY_DEPTH; dy++) {
+            mutable.set(x, topY - dy, z);
+            BlockState state = chunk.getBlockState(mutable);
+            if (!isCanopy(state)) return state;
+        }
+        return null;
+    }
+
+    static boolean isCanopy(BlockState state) {
+        return state.isAir() || state.is(BlockTags.LEAVES) || state.is(BlockTags.LOGS)
+                || state.is(ModBlocks.DEAD_LEAVES.get()) || state.is(ModBlocks.FROZEN_LEAVES.get())
+                || state.is(ModBlocks.DEAD_LOG.get()) || state.is(ModBlocks.FROZEN_LOG.get());
+    }
 
-            // Volume pass: water, lava, ice chains
-            for (int i = 0; i < volumeChecks; i++) {
-                int x = origin.getX() + random.nextInt(RADIUS * 2 + 1) - RADIUS;
-                int z = origin.getZ() + random.nextInt(RADIUS * 2 + 1) - RADIUS;
-                int y = random.nextIntBetweenInclusive(level.getMinBuildHeight(), level.getMaxBuildHeight() - 1);
-                mutable.set(x, y, z);
-                if (!level.isLoaded(mutable)) continue;
-
-                BlockState volumeState = level.getBlockState(mutable);
-                BlockPos immutable = mutable.immutable();
-                transformVolume(level, immutable, volumeState, phase, progress);
-                transformSurfaceCoalOre(level, immutable, volumeState, phase);
+    /** Verifies a chunk for the surface pass: no column's ground is something it can freeze. */
+    private static boolean surfaceFinished(LevelChunk chunk, StateMask mask) {
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        int baseX = chunk.getPos().getMinBlockX();
+        int baseZ = chunk.getPos().getMinBlockZ();
+        for (int lx = 0; lx < 16; lx++) {
+            for (int lz = 0; lz < 16; lz++) {
+                int topY = chunk.getHeight(Heightmap.Types.WORLD_SURFACE, lx, lz);
+                if (!columnMayContain(chunk, topY - CANOPY_DEPTH, topY, mask)) continue;
+                cursor.set(baseX + lx, topY, baseZ + lz);
+                BlockState ground = groundBelowCanopy(chunk, cursor, topY);
+                if (ground != null && mask.contains(ground)) return false;
             }
         }
+        return true;
+    }
+
+    /** True if transformSurface can change this state at the given stage. */
+    private static boolean freezesOnSurface(BlockState state, int phase, boolean late, boolean chains) {
+        if (late && (state.is(Blocks.SNOW) || state.is(Blocks.SNOW_BLOCK))) return true;
+        if (!chains) return false;
+        if (state.is(Blocks.GRASS_BLOCK)) return phase >= 2;
+        if (state.is(ModBlocks.DEAD_GRASS_BLOCK.get())) return phase >= 3;
+        if (state.is(Blocks.DIRT)) return phase >= 4;
+        return (state.is(Blocks.SAND) || state.is(Blocks.RED_SAND)) && phase >= 3;
+    }
+
+    /** True if transformVolume or transformSurfaceCoalOre can change this state at the given stage. */
+    private static boolean freezesInVolume(BlockState state, int phase, boolean late, boolean chains,
+                                           boolean lava, boolean fuel) {
+        if (late && (state.is(Blocks.WATER) || state.is(Blocks.ICE)
+                || state.is(Blocks.PACKED_ICE) || state.is(Blocks.BLUE_ICE))) return true;
+        if (!chains) return false;
+        if (state.is(Blocks.WATER)) return phase >= 2;
+        if (state.is(Blocks.ICE)) return phase >= 3;
+        if (state.is(Blocks.PACKED_ICE)) return phase >= 4;
+        if (lava && state.is(Blocks.LAVA)) return phase >= 3;
+        if (lava && (state.is(Blocks.MAGMA_BLOCK) || state.is(Blocks.OBSIDIAN))) return phase >= 4;
+        return fuel && (state.is(Blocks.COAL_ORE) || state.is(Blocks.DEEPSLATE_COAL_ORE));
+    }
+
+    /**
+     * Palette pre-check: false if no section overlapping [minY, maxY] in this column can
+     * contain a state from the mask, so the caller can skip it without any block reads.
+     */
+    private static boolean columnMayContain(LevelChunk chunk, int minY, int maxY, StateMask mask) {
+        int minIndex = Math.max(0, chunk.getSectionIndex(minY));
+        int maxIndex = Math.min(chunk.getSectionsCount() - 1, chunk.getSectionIndex(maxY));
+        for (int i = minIndex; i <= maxIndex; i++) {
+            if (mask.mayBeIn(chunk.getSection(i))) return true;
+        }
+        return false;
     }
 
-    private static void transformSurface(ServerLevel level, BlockPos pos, BlockState state, int phase, float progress) {
+    private static void transformSurface(ServerLevel level, BlockPos pos, BlockState state, int phase, float progress,
+                                         boolean chains) {
         // Phase 6 late: exposed snow/snow blocks slowly compact into ice
         // 10% chance per check — gradual transformation, not instant
         // (existing ice → packed ice → blue ice chain handles the rest)
         if (phase >= 6 && progress >= 0.85f && level.canSeeSky(pos.above())) {
             if ((state.is(Blocks.SNOW) || state.is(Blocks.SNOW_BLOCK))
                     && level.getRandom().nextFloat() < 0.10f) {
-                level.setBlock(pos, Blocks.ICE.defaultBlockState(), 3);
+                MutationBuffer.set(pos, state, Blocks.ICE.defaultBlockState());
                 return;
             }
         }
 
-        if (state.is(Blocks.GRASS_BLOCK) && phase >= 2) {
-            level.setBlock(pos, ModBlocks.DEAD_GRASS_BLOCK.get().defaultBlockState(), 3);
-            return;
-        }
-        if (state.is(ModBlocks.DEAD_GRASS_BLOCK.get()) && phase >= 3) {
-            level.setBlock(pos, Blocks.DIRT.defaultBlockState(), 3);
-            return;
-        }
-        if (state.is(Blocks.DIRT) && phase >= 4) {
-            level.setBlock(pos, ModBlocks.FROZEN_DIRT.get().defaultBlockState(), 3);
-            return;
-        }
-        if ((state.is(Blocks.SAND) || state.is(Blocks.RED_SAND)) && phase >= 3) {
-            level.setBlock(pos, ModBlocks.FROZEN_SAND.get().defaultBlockState(), 3);
+        if (!chains) return;
+        BlockState next = nextSurfaceState(state, phase);
+        if (next != null) MutationBuffer.set(pos, state, next);
+    }
+
+    /** The next state in a surface freezing chain (transformSurface without the late stage), or null. */
+    static BlockState nextSurfaceState(BlockState state, int phase) {
+        if (state.is(Blocks.GRASS_BLOCK)) return phase >= 2 ? ModBlocks.DEAD_GRASS_BLOCK.get().defaultBlockState() : null;
+        if (state.is(ModBlocks.DEAD_GRASS_BLOCK.get())) return phase >= 3 ? Blocks.DIRT.defaultBlockState() : null;
+        if (state.is(Blocks.DIRT)) return phase >= 4 ? ModBlocks.FROZEN_DIRT.get().defaultBlockState() : null;
+        if (state.is(Blocks.SAND) || state.is(Blocks.RED_SAND)) {
+            return phase >= 3 ? ModBlocks.FROZEN_SAND.get().defaultBlockState() : null;
         }
+        return null;
     }
 
-    private static void transformSurfaceCoalOre(ServerLevel level, BlockPos pos, BlockState state, int phase) {
+    private static void transformSurfaceCoalOre(BlockPos pos, BlockState state, int phase) {
         if (!FrozenDawnConfig.ENABLE_FUEL_SCARCITY.get()) return;
         if (phase < FrozenDawnConfig.FUEL_SCARCITY_PHASE.get()) return;
         if (pos.getY() < 0) return;
 
         if (state.is(Blocks.COAL_ORE) || state.is(Blocks.DEEPSLATE_COAL_ORE)) {
-            level.setBlock(pos, ModBlocks.FROZEN_COAL_ORE.get().defaultBlockState(), 3);
+            MutationBuffer.set(pos, state, ModBlocks.FROZEN_COAL_ORE.get().defaultBlockState());
         }
     }
 
-    private static void transformVolume(ServerLevel level, BlockPos pos, BlockState state, int phase, float progress) {
+    private static void transformVolume(ServerLevel level, BlockPos pos, BlockState state, int phase, float progress,
+                                        boolean chains) {
         // Phase 6 late: surface ice sublimates (solid → gas in vacuum)
         // Water also boils off instantly. Underground ice is unaffected.
         if (phase >= 6 && progress >= 0.85f && level.canSeeSky(pos.above())) {
             if (state.is(Blocks.WATER) || state.is(Blocks.ICE)
                     || state.is(Blocks.PACKED_ICE) || state.is(Blocks.BLUE_ICE)) {
-                level.setBlock(pos, Blocks.AIR.defaultBlockState(), 3);
+                MutationBuffer.set(pos, state, Blocks.AIR.defaultBlockState());
                 return;
             }
         }
+        if (!chains) return;
 
         if (state.is(Blocks.WATER) && phase >= 2) {
-            level.setBlock(pos, Blocks.ICE.defaultBlockState(), 3);
+            MutationBuffer.set(pos, state, Blocks.ICE.defaultBlockState());
             return;
         }
         if (state.is(Blocks.ICE) && phase >= 3) {
-            level.setBlock(pos, Blocks.PACKED_ICE.defaultBlockState(), 3);
+            MutationBuffer.set(pos, state, Blocks.PACKED_ICE.defaultBlockState());
             return;
         }
         if (state.is(Blocks.PACKED_ICE) && phase >= 4) {
-            level.setBlock(pos, Blocks.BLUE_ICE.defaultBlockState(), 3);
+            MutationBuffer.set(pos, state, Blocks.BLUE_ICE.defaultBlockState());
             return;
         }
 
         if (!FrozenDawnConfig.ENABLE_LAVA_FREEZING.get()) return;
 
         if (state.is(Blocks.LAVA) && phase >= 3) {
-            level.setBlock(pos, Blocks.MAGMA_BLOCK.defaultBlockState(), 3);
+            MutationBuffer.set(pos, state, Blocks.MAGMA_BLOCK.defaultBlockState());
             return;
         }
         if (state.is(Blocks.MAGMA_BLOCK) && phase >= 4) {
-            level.setBlock(pos, Blocks.OBSIDIAN.defaultBlockState(), 3);
+            MutationBuffer.set(pos, state, Blocks.OBSIDIAN.defaultBlockState());
             return;
         }
         if (state.is(Blocks.OBSIDIAN) && phase >= 4) {
-            level.setBlock(pos, ModBlocks.FROZEN_OBSIDIAN.get().defaultBlockState(), 3);
+            MutationBuffer.set(pos, state, ModBlocks.FROZEN_OBSIDIAN.get().defaultBlockState());
         }
     }
 }
@@ -0,0 +1,332 @@
+package com.frozendawn.world;
+
+import com.frozendawn.FrozenDawn;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Two-stage sampling for a volume pass: a job draws the random positions and classifies
+ * them against the pass's StateMask, reading SectionSnapshots copies, and the server
+ * thread only checks each candidate still holds the sampled state and acts on it.
+ *
+ * With offThreadSampling the job runs on a worker thread: each cycle hands the server
+ * thread what the previous job found and starts the next job, so candidates are one
+ * cycle old when applied. A job still running when the next cycle comes is left to
+ * finish rather than doubled up; the demand of the cycles it spans is added to the next
+ * job, so a slow job delays probes but doesn't lose them.
+ *
+ * Otherwise the job runs inline at the start of the cycle. It counts at most
+ * MAX_INLINE_COUNTS uncounted sections per cycle; the others take their turn in later
+ * cycles and get no probes until they are counted.
+ *
+ * Either way, candidates of a batch that aren't run by the time the next batch arrives
+ * are dropped, together with the lane's debt for them.
+ *
+ * Sampling is occupancy-weighted: the worker counts each open section's actionable
+ * blocks (once per snapshot; counts are kept until BlockChangeBus retires the
+ * snapshot) and draws only among those blocks, uniformly, so every probe is a hit on
+ * the snapshot. The probe count is the number of hits uniform sampling over the whole
+ * column range would have produced, which keeps the pace of the world unchanged while
+ * the probes that used to land in air and stone are simply not taken. Sections that
+ * count zero are finished in ChunkWatermarks directly.
+ *
+ * One instance per pass. cycle, next and reset are server thread only.
+ */
+final class CandidatePipeline {
+
+    /** Upper bound on probes per job, whatever the demand. */
+    private static final int MAX_SAMPLES = 1 << 16;
+    /**
+     * Sections where at most this share of the in-range blocks is actionable keep a list
+     * of their positions; denser ones are sampled by retrying random positions.
+     */
+    private static final int SPARSE_SHARE = 4;
+    private static final int DENSE_TRIES = 16;
+    /** Sections counted per inline cycle; counting reads every block of the section. */
+    private static final int MAX_INLINE_COUNTS = 8;
+
+    private final ChunkWatermarks.Pass pass;
+    private final MutationScheduler.Lane lane;
+    /** Occupancy of the last job's sections, reused while their snapshot and mask hold. */
+    private final Long2ObjectOpenHashMap<Occupancy> occupancy = new Long2ObjectOpenHashMap<>();
+    private CompletableFuture<Result> pending;
+    private Result current;
+    private int cursor;
+    /** Demand of the cycles since the running job started, sampled by the next job. */
+    private double owed;
+    /** Chunk the next inline cycle starts at: where the last one ran out of counts. */
+    private int rotation;
+
+    CandidatePipeline(ChunkWatermarks.Pass pass, MutationScheduler.Lane lane) {
+        this.pass = pass;
+        this.lane = lane;
+    }
+
+    /** A section's actionable blocks in one snapshot, for one mask. Immutable. */
+    private record Occupancy(PalettedContainer<BlockState> snapshot, StateMask mask, int count, short[] positions) {
+    }
+
+    /** What one job found: candidates in sampling order, and every section's occupancy. */
+    private static final class Result {
+        final int stage;
+        final long[] sectionKeys;
+        final Occupancy[] occupancy;
+        final LongArrayList positions = new LongArrayList();
+        final List<BlockState> states = new ArrayList<>();
+
+        Result(int stage, long[] sectionKeys) {
+            this.stage = stage;
+            this.sectionKeys = sectionKeys;
+            this.occupancy = new Occupancy[sectionKeys.length];
+        }
+    }
+
+    /**
+     * Takes over the finished job's candidates, if any, and starts a job for the open
+     * sections of the given chunks; inline, runs the job and takes over its candidates
+     * right away. Demand is in probes over the whole column range, as
+     * SamplingArea.demand gives it, before density.
+     *
+     * @return the number of candidates taken over, to be added to the lane's demand
+     */
+    int cycle(ServerLevel level, long[] chunks, int minY, int maxY, double demand, int stage, StateMask mask,
+              boolean offThread) {
+        owed += demand;
+        int taken = 0;
+        if (!offThread) {
+            // A job left over from off-thread mode is dropped; this cycle's batch replaces the last
+            pending = null;
+            if (current != null) MutationScheduler.stats(lane).clearDebt();
+            current = null;
+            cursor = 0;
+        } else if (pending != null) {
+            if (!pending.isDone()) return 0;
+            Result done = pending.join();
+            pending = null;
+            // What the lane still owes was for the batch being replaced
+            if (current != null) MutationScheduler.stats(lane).clearDebt();
+            current = null;
+            cursor = 0;
+            if (done != null) accept(level, done, stage);
+            taken = remaining();
+        }
+        if (chunks.length == 0) return taken;
+
+        LongArrayList keys = new LongArrayList();
+        List<PalettedContainer<BlockState>> sections = new ArrayList<>();
+        List<Occupancy> known = new ArrayList<>();
+        int start = offThread ? 0 : rotation % chunks.length;
+        int counts = 0;
+        rotation = start;
+        for (int n = 0; n < chunks.length; n++) {
+            int chunkIndex = (start + n) % chunks.length;
+            long chunkKey = chunks[chunkIndex];
+            LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(chunkKey), ChunkPos.getZ(chunkKey));
+            if (chunk == null) continue;
+            for (int index = chunk.getSectionIndex(minY); index <= chunk.getSectionIndex(maxY); index++) {
+                if (ChunkWatermarks.isComplete(chunk, pass, index, stage)) continue;
+                // The palette answer is exact for most sections, so they finish without a copy
+                if (!mask.mayBeIn(chunk.getSection(index))) {
+                    ChunkWatermarks.complete(chunk, pass, index, stage);
+                    continue;
+                }
+                PalettedContainer<BlockState> snapshot = SectionSnapshots.get(chunk, index);
+                if (snapshot == null) continue;
+                long key = SectionPos.asLong(chunk.getPos().x, chunk.getSectionYFromSectionIndex(index), chunk.getPos().z);
+                Occupancy cached = occupancy.get(key);
+                if (cached != null && (cached.snapshot() != snapshot || cached.mask() != mask)) cached = null;
+                if (!offThread && cached == null && ++counts > MAX_INLINE_COUNTS) {
+                    if (counts == MAX_INLINE_COUNTS + 1) rotation = chunkIndex;
+                    continue;
+                }
+                keys.add(key);
+                sections.add(snapshot);
+                known.add(cached);
+            }
+        }
+        if (keys.isEmpty()) {
+            owed = 0;
+            return taken;
+        }
+
+        // Uniform sampling's hit rate per actionable block; the worker multiplies by the count.
+        // Density is left to the lane that runs the candidates.
+        double hitsPerBlock = owed / ((double) chunks.length * (maxY - minY + 1) * 256);
+        owed = 0;
+        long[] sectionKeys = keys.toLongArray();
+        @SuppressWarnings("unchecked")
+        PalettedContainer<BlockState>[] snapshots = sections.toArray(new PalettedContainer[0]);
+        Occupancy[] cachedOccupancy = known.toArray(new Occupancy[0]);
+        long seed = level.getRandom().nextLong();
+        if (!offThread) {
+            accept(level, sample(sectionKeys, snapshots, cachedOccupancy, minY, maxY, hitsPerBlock, seed, stage, mask),
+                    stage);
+            return remaining();
+        }
+        pending = CompletableFuture.supplyAsync(
+                () -> sample(sectionKeys, snapshots, cachedOccupancy, minY, maxY, hitsPerBlock, seed, stage, mask),
+                Util.backgroundExecutor())
+                .exceptionally(error -> {
+                    FrozenDawn.LOGGER.warn("Candidate sampling failed for {}", pass, error);
+                    return null;
+                });
+        return taken;
+    }
+
+    /**
+     * The next candidate whose block still holds the state it was sampled in, with pos
+     * set to it, or null when the current batch is used up.
+     */
+    BlockState next(ServerLevel level, BlockPos.MutableBlockPos pos) {
+        if (current == null) return null;
+        while (cursor < current.positions.size()) {
+            int i = cursor++;
+            pos.set(current.positions.getLong(i));
+            LevelChunk chunk = level.getChunkSource().getChunkNow(pos.getX() >> 4, pos.getZ() >> 4);
+            if (chunk == null) continue;
+            BlockState state = current.states.get(i);
+            if (chunk.getBlockState(pos) == state) return state;
+        }
+        return null;
+    }
+
+    /** Candidates of the current batch not yet handed out. */
+    int remaining() {
+        return current == null ? 0 : current.positions.size() - cursor;
+    }
+
+    boolean isActive() {
+        return pending != null || current != null;
+    }
+
+    /** Drops the current batch, the occupancy counts and any running job. */
+    void reset() {
+        pending = null;
+        current = null;
+        cursor = 0;
+        owed = 0;
+        rotation = 0;
+        occupancy.clear();
+    }
+
+    /** Replaces the current batch and occupancy with a finished job's. */
+    private void accept(ServerLevel level, Result result, int stage) {
+        occupancy.clear();
+        // Found on a previous stage's mask: nothing in it still applies
+        if (result.stage != stage) return;
+        for (int i = 0; i < result.sectionKeys.length; i++) {
+            long key = result.sectionKeys[i];
+            Occupancy counted = result.occupancy[i];
+            // A section changed since the copy is counted again next job
+            if (!SectionSnapshots.isCurrent(key, counted.snapshot())) continue;
+            occupancy.put(key, counted);
+            if (counted.count() == 0) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(SectionPos.x(key), SectionPos.z(key));
+                if (chunk != null) {
+                    ChunkWatermarks.complete(chunk, pass, chunk.getSectionIndexFromSectionY(SectionPos.y(key)), stage);
+                }
+            }
+        }
+        current = result;
+    }
+
+    /** Worker side: counts what isn't counted yet, then draws the probes. Reads nothing but its arguments. */
+    private static Result sample(long[] sectionKeys, PalettedContainer<BlockState>[] snapshots, Occupancy[] known,
+                                 int minY, int maxY, double hitsPerBlock, long seed, int stage, StateMask mask) {
+        Result result = new Result(stage, sectionKeys);
+        int[] countEnds = new int[sectionKeys.length];
+        int total = 0;
+        for (int i = 0; i < sectionKeys.length; i++) {
+            Occupancy counted = known[i] != null ? known[i] : count(sectionKeys[i], snapshots[i], minY, maxY, mask);
+            result.occupancy[i] = counted;
+            total += counted.count();
+            countEnds[i] = total;
+        }
+        if (total == 0) return result;
+
+        RandomSource random = RandomSource.create(seed);
+        double expected = hitsPerBlock * total;
+        int samples = (int) Math.min(MAX_SAMPLES, expected);
+        if (samples < MAX_SAMPLES && random.nextDouble() < expected - samples) samples++;
+        for (int n = 0; n < samples; n++) {
+            int pick = random.nextInt(total);
+            int i = upperBound(countEnds, pick);
+            Occupancy section = result.occupancy[i];
+            long key = sectionKeys[i];
+            int index = pickIndex(section, pick - (i == 0 ? 0 : countEnds[i - 1]),
+                    SectionPos.sectionToBlockCoord(SectionPos.y(key)), minY, maxY, mask, random);
+            if (index < 0) continue;
+            int x = index & 15;
+            int z = (index >> 4) & 15;
+            int y = index >> 8;
+            result.positions.add(BlockPos.asLong(SectionPos.sectionToBlockCoord(SectionPos.x(key)) + x,
+                    SectionPos.sectionToBlockCoord(SectionPos.y(key)) + y,
+                    SectionPos.sectionToBlockCoord(SectionPos.z(key)) + z));
+            result.states.add(section.snapshot().get(x, y, z));
+        }
+        return result;
+    }
+
+    /** Counts a section's actionable blocks between minY and maxY, listing them if sparse. */
+    private static Occupancy count(long key, PalettedContainer<BlockState> snapshot, int minY, int maxY, StateMask mask) {
+        int baseY = SectionPos.sectionToBlockCoord(SectionPos.y(key));
+        int lowY = Math.max(minY, baseY) - baseY;
+        int highY = Math.min(maxY, baseY + 15) - baseY;
+        int limit = (highY - lowY + 1) * 256 / SPARSE_SHARE;
+        short[] listed = new short[limit];
+        int count = 0;
+        for (int y = lowY; y <= highY; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (!mask.contains(snapshot.get(x, y, z))) continue;
+                    if (count < limit) listed[count] = (short) (y << 8 | z << 4 | x);
+                    count++;
+                }
+            }
+        }
+        short[] positions = count <= limit ? Arrays.copyOf(listed, count) : null;
+        return new Occupancy(snapshot, mask, count, positions);
+    }
+
+    /**
+     * A uniformly chosen actionable block of the section, as y << 8 | z << 4 | x, or -1 if
+     * the retries of a dense section all missed.
+     */
+    private static int pickIndex(Occupancy section, int nth, int baseY, int minY, int maxY,
+                                 StateMask mask, RandomSource random) {
+        if (section.positions() != null) return section.positions()[nth];
+        int lowY = Math.max(minY, baseY) - baseY;
+        int rows = Math.min(maxY, baseY + 15) - baseY - lowY + 1;
+        for (int tries = 0; tries < DENSE_TRIES; tries++) {
+            int index = (lowY + random.nextInt(rows)) << 8 | random.nextInt(256);
+            if (mask.contains(section.snapshot().get(index & 15, index >> 8, (index >> 4) & 15))) return index;
+        }
+        return -1;
+    }
+
+    /** Index of the first entry greater than value (entries ascending). */
+    private static int upperBound(int[] ends, int value) {
+        int low = 0;
+        int high = ends.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] > value) high = mid;
+            else low = mid + 1;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,386 @@
+package com.frozendawn.world;
+
+import com.frozendawn.FrozenDawn;
+import com.frozendawn.config.FrozenDawnConfig;
+import com.frozendawn.data.ApocalypseState;
+import com.frozendawn.init.ModAttachments;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.DoublePlantBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.DoubleBlockHalf;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.UnaryOperator;
+
+/**
+ * Brings chunks up to date that sat unloaded while the apocalypse moved on.
+ *
+ * The sampling systems only touch chunks near players, so each chunk records (in its
+ * ChunkProgress) the last day it was kept current. When a chunk loads STALE_DAYS or
+ * more behind, its block states and surface heights are copied on the server thread
+ * and a background thread plans where the freezing and decay chains would have left
+ * it by now: blocks move along the freezing chains for the current phase, surface
+ * plants die, leaves fall and logs freeze. How far depends on how long the chunk was
+ * away: each step is taken by a share of the blocks (missed days over SETTLE_DAYS,
+ * picked by a hash of the position), so only chunks gone SETTLE_DAYS or more have
+ * their chains run to the end. Random events (tree collapses, snow, crystals) are
+ * left to the regular systems, and so is freezing when FreezeSchedule drives it.
+ *
+ * The plan comes back to the server thread and is applied in slices under the
+ * CATCH_UP lane of MutationScheduler. Each change checks that the block still holds the
+ * state the plan was made from, so anything altered since the snapshot is left alone.
+ * Once the whole plan is applied the chunk is stamped with the plan's day. Chunks that
+ * never recorded a day (new terrain, or saved before tracking) are stamped with the
+ * current day when they load and left to the regular systems from there.
+ */
+public final class ChunkCatchUp {
+
+    /** Days a chunk may fall behind before a load triggers a catch-up. */
+    private static final int STALE_DAYS = 2;
+    /** Days away after which every chain is taken to have run its course. */
+    private static final int SETTLE_DAYS = 8;
+    /** Chunks within this many blocks of a player are stamped as current. */
+    private static final int MARK_RADIUS = 64;
+    private static final int MARK_INTERVAL = 20;
+    /** Most changes asked of the lane per tick; the time slice usually binds first. */
+    private static final int CHANGES_PER_TICK = 1024;
+    /** Chains are at most three steps; this just bounds a misbehaving mapping. */
+    private static final int MAX_CHAIN_STEPS = 8;
+
+    /** Plans finished by background threads, waiting for the server thread. */
+    private static final ConcurrentLinkedQueue<Plan> ready = new ConcurrentLinkedQueue<>();
+    /** Plans being applied, oldest first (server thread only). */
+    private static final ArrayDeque<Plan> applying = new ArrayDeque<>();
+    /** Chunks with a plan being made or applied (server thread only). */
+    private static final LongOpenHashSet inFlight = new LongOpenHashSet();
+    private static int pendingChanges;
+    /** Bumped on reset so plans started before it are discarded. */
+    private static int generation;
+
+    private ChunkCatchUp() {}
+
+    /**
+     * Server chunk load: starts a catch-up plan if the chunk is stale, or stamps it with
+     * the current day if it never recorded one (nothing happened to it while away).
+     */
+    public static void onChunkLoad(ServerLevel level, LevelChunk chunk) {
+        if (level.dimension() != Level.OVERWORLD) return;
+        ApocalypseState state = ApocalypseState.get(level.getServer());
+        int day = state.getCurrentDay();
+        ChunkProgress progress = chunk.getData(ModAttachments.CHUNK_PROGRESS);
+        int lastDay = progress.getLastDay();
+        if (lastDay < 0) {
+            if (progress.setLastDay(day)) chunk.setUnsaved(true);
+            return;
+        }
+        int phase = state.getPhase();
+        if (phase < 2 || day - lastDay < STALE_DAYS) return;
+        long key = chunk.getPos().toLong();
+        if (!inFlight.add(key)) return;
+
+        Snapshot snapshot = Snapshot.of(chunk, day, phase, Math.min(1.0, (day - lastDay) / (double) SETTLE_DAYS));
+        int planGeneration = generation;
+        CompletableFuture.supplyAsync(() -> plan(snapshot), Util.backgroundExecutor())
+                .exceptionally(error -> {
+                    FrozenDawn.LOGGER.warn("Catch-up planning failed for chunk {}", chunk.getPos(), error);
+                    return new Plan(key, -1);
+                })
+                .thenAccept(plan -> {
+                    plan.generation = planGeneration;
+                    ready.add(plan);
+                });
+    }
+
+    /**
+     * Stamps chunks near players as current, then applies queued plans until the lane's
+     * budget runs out. Call once per tick after MutationScheduler.beginTick.
+     */
+    public static void tick(ServerLevel level, int day) {
+        if (level.getGameTime() % MARK_INTERVAL == 0) markNearby(level, day);
+
+        for (Plan plan; (plan = ready.poll()) != null; ) {
+            if (plan.generation != generation) continue;
+            if (plan.size() == 0) {
+                finish(level, plan);
+            } else {
+                applying.add(plan);
+                pendingChanges += plan.size();
+            }
+        }
+        if (applying.isEmpty()) return;
+
+        // Ask for at most CHANGES_PER_TICK outstanding, counting what the lane still owes
+        MutationScheduler.Run run = MutationScheduler.stats(MutationScheduler.Lane.CATCH_UP);
+        double demand = Math.max(0, Math.min(pendingChanges, CHANGES_PER_TICK) - run.getDeferred());
+        run = MutationScheduler.begin(MutationScheduler.Lane.CATCH_UP, demand);
+        Plan plan = applying.peek();
+        LevelChunk chunk = null;
+        while (plan != null && run.next()) {
+            if (chunk == null) {
+                chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(plan.chunkKey), ChunkPos.getZ(plan.chunkKey));
+                if (chunk == null) {
+                    // Unloaded again before we got to it; the next load plans afresh
+                    pendingChanges -= plan.size() - plan.next;
+                    inFlight.remove(plan.chunkKey);
+                    applying.poll();
+                    plan = applying.peek();
+                    continue;
+                }
+            }
+
+            int i = plan.next++;
+            pendingChanges--;
+            BlockPos pos = BlockPos.of(plan.positions.getLong(i));
+            if (chunk.getBlockState(pos) == plan.expected.get(i)) {
+                level.setBlock(pos, plan.targets.get(i), MutationBuffer.flagsFor(plan.expected.get(i), plan.targets.get(i)));
+            }
+            if (plan.next == plan.size()) {
+                applying.poll();
+                finish(level, plan);
+                plan = applying.peek();
+                chunk = null;
+            }
+        }
+        run.end();
+    }
+
+    public static int getQueuedChunks() {
+        return inFlight.size();
+    }
+
+    public static int getPendingChanges() {
+        return pendingChanges;
+    }
+
+    public static void reset() {
+        generation++;
+        ready.clear();
+        applying.clear();
+        inFlight.clear();
+        pendingChanges = 0;
+    }
+
+    private static void markNearby(ServerLevel level, int day) {
+        for (long key : SamplingArea.chunksNear(level, MARK_RADIUS)) {
+            // A chunk still catching up gets its day when the plan finishes
+            if (inFlight.contains(key)) continue;
+            LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(key), ChunkPos.getZ(key));
+            if (chunk == null) continue;
+            if (chunk.getData(ModAttachments.CHUNK_PROGRESS).setLastDay(day)) chunk.setUnsaved(true);
+        }
+    }
+
+    private static void finish(ServerLevel level, Plan plan) {
+        inFlight.remove(plan.chunkKey);
+        if (plan.day < 0) return;
+        LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(plan.chunkKey), ChunkPos.getZ(plan.chunkKey));
+        if (chunk == null) return;
+        if (chunk.getData(ModAttachments.CHUNK_PROGRESS).setLastDay(plan.day)) chunk.setUnsaved(true);
+    }
+
+    // --- Planning (background thread, reads only the snapshot) ---
+
+    private static Plan plan(Snapshot snapshot) {
+        Plan plan = new Plan(snapshot.chunkKey, snapshot.day);
+        int phase = snapshot.phase;
+        int baseX = ChunkPos.getX(snapshot.chunkKey) << 4;
+        int baseZ = ChunkPos.getZ(snapshot.chunkKey) << 4;
+
+        // Freezing chains everywhere, tree decay in the tree zone
+        for (int i = 0; i < snapshot.sections.length; i++) {
+            PalettedContainer<BlockState> states = snapshot.sections[i];
+            if (states == null) continue;
+            int baseY = SectionPos.sectionToBlockCoord(snapshot.minSection + i);
+            boolean coal = snapshot.fuel && baseY >= 0;
+            boolean trees = snapshot.vegetation && baseY + 15 >= VegetationDecay.TREE_ZONE_MIN_Y
+                    && baseY <= VegetationDecay.TREE_ZONE_MAX_Y;
+            UnaryOperator<BlockState> freeze = state -> snapshot.freezing
+                    ? BlockFreezer.nextFrozenState(state, phase, snapshot.lava, coal) : null;
+            if (!states.maybeHas(state -> freeze.apply(state) != null
+                    || (trees && VegetationDecay.settledTreeState(state, phase) != null))) continue;
+
+            for (int y = 0; y < 16; y++) {
+                int worldY = baseY + y;
+                boolean inTreeZone = trees && worldY >= VegetationDecay.TREE_ZONE_MIN_Y
+                        && worldY <= VegetationDecay.TREE_ZONE_MAX_Y;
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        BlockState state = states.get(x, y, z);
+                        long pos = BlockPos.asLong(baseX + x, worldY, baseZ + z);
+                        BlockState target = settle(snapshot, pos, state, freeze);
+                        if (target == null && inTreeZone && stepped(snapshot, pos, 0)) {
+                            target = VegetationDecay.settledTreeState(state, phase);
+                        }
+                        if (target != null) plan.add(pos, state, target);
+                    }
+                }
+            }
+        }
+
+        // Surface: plants on top, then the ground below them and any canopy
+        UnaryOperator<BlockState> thaw = state -> BlockFreezer.nextSurfaceState(state, phase);
+        for (int lx = 0; lx < 16; lx++) {
+            for (int lz = 0; lz < 16; lz++) {
+                int topY = snapshot.heights[lx << 4 | lz];
+                int x = baseX + lx;
+                int z = baseZ + lz;
+                BlockState top = snapshot.stateAt(lx, topY, lz);
+                // Plants die per column, so both halves of a double plant go together
+                boolean plantDies = snapshot.vegetation && stepped(snapshot, BlockPos.asLong(x, 0, z), 0);
+                if (plantDies) planPlant(plan, snapshot, lx, topY, lz, x, z, top);
+
+                if (!snapshot.freezing) continue;
+                for (int dy = 0; dy <= BlockFreezer.CANOPY_DEPTH; dy++) {
+                    BlockState state = dy == 0 ? top : snapshot.stateAt(lx, topY - dy, lz);
+                    if (BlockFreezer.isCanopy(state) || (plantDies && plantGone(snapshot, state))) continue;
+                    long pos = BlockPos.asLong(x, topY - dy, z);
+                    BlockState target = settle(snapshot, pos, state, thaw);
+                    if (target != null) plan.add(pos, state, target);
+                    break;
+                }
+            }
+        }
+        return plan;
+    }
+
+    private static void planPlant(Plan plan, Snapshot snapshot, int lx, int y, int lz, int x, int z, BlockState top) {
+        BlockState target = VegetationDecay.settledSurfaceState(top, snapshot.phase);
+        if (target == null) return;
+        // Lower half first: changing it already takes the upper half with it
+        if (top.getBlock() instanceof DoublePlantBlock && top.getValue(DoublePlantBlock.HALF) == DoubleBlockHalf.UPPER) {
+            BlockState lower = snapshot.stateAt(lx, y - 1, lz);
+            BlockState lowerTarget = lower.is(top.getBlock())
+                    ? VegetationDecay.settledSurfaceState(lower, snapshot.phase) : null;
+            if (lowerTarget != null) plan.add(BlockPos.asLong(x, y - 1, z), lower, lowerTarget);
+        }
+        plan.add(BlockPos.asLong(x, y, z), top, target);
+    }
+
+    /** True if the plan removes this plant, so the ground under it is exposed to freezing. */
+    private static boolean plantGone(Snapshot snapshot, BlockState state) {
+        BlockState target = VegetationDecay.settledSurfaceState(state, snapshot.phase);
+        return target != null && target.isAir();
+    }
+
+    /**
+     * Runs a chain as far as the block got while the chunk was away: each step is taken
+     * only if stepped says so. Null if the block stays as it is.
+     */
+    private static BlockState settle(Snapshot snapshot, long pos, BlockState state, UnaryOperator<BlockState> step) {
+        BlockState current = state;
+        for (int i = 0; i < MAX_CHAIN_STEPS; i++) {
+            BlockState next = step.apply(current);
+            if (next == null || next == current || !stepped(snapshot, pos, i)) break;
+            current = next;
+        }
+        return current == state ? null : current;
+    }
+
+    /**
+     * True if the block at pos took the given step of its chain while the chunk was
+     * away. Each step is taken by the snapshot's share of blocks, picked by hashing the
+     * position, step and day, so the answer is fixed for one plan.
+     */
+    private static boolean stepped(Snapshot snapshot, long pos, int step) {
+        if (snapshot.share >= 1.0) return true;
+        long hash = HashCommon.mix(pos * 0x9E3779B97F4A7C15L ^ (long) step << 32 ^ snapshot.day);
+        return (hash >>> 11) * 0x1.0p-53 < snapshot.share;
+    }
+
+    /** Copies of a chunk's block states and surface heights, plus the settings to plan with. */
+    private static final class Snapshot {
+        final long chunkKey;
+        final int minSection;
+        /** Null for sections that are all air. */
+        final PalettedContainer<BlockState>[] sections;
+        /** WORLD_SURFACE top block Y per column, indexed lx << 4 | lz. */
+        final int[] heights = new int[256];
+        final int day;
+        final int phase;
+        /** Share of blocks that take each step: days missed over SETTLE_DAYS, at most 1. */
+        final double share;
+        final boolean lava;
+        final boolean fuel;
+        final boolean vegetation;
+        /** False when FreezeSchedule owns the freezing chains; it catches up on its own. */
+        final boolean freezing;
+
+        @SuppressWarnings("unchecked")
+        private Snapshot(LevelChunk chunk, int day, int phase, double share) {
+            this.chunkKey = chunk.getPos().toLong();
+            this.minSection = chunk.getMinSection();
+            this.sections = new PalettedContainer[chunk.getSectionsCount()];
+            this.day = day;
+            this.phase = phase;
+            this.share = share;
+            this.lava = FrozenDawnConfig.ENABLE_LAVA_FREEZING.get();
+            this.fuel = FrozenDawnConfig.ENABLE_FUEL_SCARCITY.get() && phase >= FrozenDawnConfig.FUEL_SCARCITY_PHASE.get();
+            this.vegetation = FrozenDawnConfig.ENABLE_VEGETATION_DECAY.get();
+            this.freezing = !FrozenDawnConfig.SCHEDULED_FREEZING.get();
+        }
+
+        static Snapshot of(LevelChunk chunk, int day, int phase, double share) {
+            Snapshot snapshot = new Snapshot(chunk, day, phase, share);
+            for (int i = 0; i < snapshot.sections.length; i++) {
+                LevelChunkSection section = chunk.getSection(i);
+                if (!section.hasOnlyAir()) snapshot.sections[i] = section.getStates().copy();
+            }
+            for (int lx = 0; lx < 16; lx++) {
+                for (int lz = 0; lz < 16; lz++) {
+                    snapshot.heights[lx << 4 | lz] = chunk.getHeight(Heightmap.Types.WORLD_SURFACE, lx, lz);
+                }
+            }
+            return snapshot;
+        }
+
+        BlockState stateAt(int lx, int y, int lz) {
+            int index = SectionPos.blockToSectionCoord(y) - minSection;
+            if (index < 0 || index >= sections.length || sections[index] == null) return Blocks.AIR.defaultBlockState();
+            return sections[index].get(lx, y & 15, lz);
+        }
+    }
+
+    /** The changes for one chunk, in order, with the state each one expects to replace. */
+    private static final class Plan {
+        final long chunkKey;
+        /** Day to stamp once applied; -1 if planning failed. */
+        final int day;
+        final LongArrayList positions = new LongArrayList();
+        final List<BlockState> expected = new ArrayList<>();
+        final List<BlockState> targets = new ArrayList<>();
+        int next;
+        int generation;
+
+        Plan(long chunkKey, int day) {
+            this.chunkKey = chunkKey;
+            this.day = day;
+        }
+
+        void add(long pos, BlockState from, BlockState to) {
+            positions.add(pos);
+            expected.add(from);
+            targets.add(to);
+        }
+
+        int size() {
+            return positions.size();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.frozendawn.world;
+
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.neoforged.neoforge.common.util.INBTSerializable;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Per-chunk completion watermarks, stored as a chunk data attachment
+ * (ModAttachments.CHUNK_PROGRESS) so they survive unloads and restarts.
+ *
+ * For every ChunkWatermarks.Pass this records, per slot, the stage at which the slot
+ * was found to hold nothing that pass can transform (0 = not complete). Surface passes
+ * use a single slot for the whole chunk; volume passes use one slot per section index.
+ * Miss counters are runtime-only.
+ *
+ * Also records the last apocalypse day the chunk was kept up to date (near a player,
+ * or by a catch-up pass), which ChunkCatchUp compares against when the chunk loads.
+ */
+public final class ChunkProgress implements INBTSerializable<CompoundTag> {
+
+    private static final ChunkWatermarks.Pass[] PASSES = ChunkWatermarks.Pass.values();
+
+    private final byte[][] completed = new byte[PASSES.length][];
+    private final byte[][] misses = new byte[PASSES.length][];
+    /** -1 = never recorded (chunk predates tracking). */
+    private int lastDay = -1;
+
+    public ChunkProgress() {
+        for (int i = 0; i < PASSES.length; i++) {
+            completed[i] = new byte[0];
+            misses[i] = new byte[0];
+        }
+    }
+
+    boolean isComplete(ChunkWatermarks.Pass pass, int slot, int stage) {
+        byte[] stages = completed[pass.ordinal()];
+        return slot < stages.length && stages[slot] == stage;
+    }
+
+    /** True if every slot in [firstSlot, lastSlot] is complete at this stage. */
+    boolean isComplete(ChunkWatermarks.Pass pass, int firstSlot, int lastSlot, int stage) {
+        byte[] stages = completed[pass.ordinal()];
+        if (lastSlot >= stages.length) return false;
+        for (int slot = firstSlot; slot <= lastSlot; slot++) {
+            if (stages[slot] != stage) return false;
+        }
+        return true;
+    }
+
+    void setComplete(ChunkWatermarks.Pass pass, int slot, int stage) {
+        ensureSlot(pass, slot);
+        completed[pass.ordinal()][slot] = (byte) stage;
+        misses[pass.ordinal()][slot] = 0;
+    }
+
+    /** Clears the slot's watermark. Returns true if it was set. */
+    boolean reopen(ChunkWatermarks.Pass pass, int slot) {
+        byte[] stages = completed[pass.ordinal()];
+        if (slot >= stages.length || stages[slot] == 0) return false;
+        stages[slot] = 0;
+        return true;
+    }
+
+    /** Counts a miss and returns the new run of consecutive misses (saturating). */
+    int addMiss(ChunkWatermarks.Pass pass, int slot) {
+        ensureSlot(pass, slot);
+        byte[] counts = misses[pass.ordinal()];
+        if (counts[slot] != Byte.MAX_VALUE) counts[slot]++;
+        return counts[slot];
+    }
+
+    void clearMisses(ChunkWatermarks.Pass pass, int slot) {
+        byte[] counts = misses[pass.ordinal()];
+        if (slot < counts.length) counts[slot] = 0;
+    }
+
+    int getLastDay() {
+        return lastDay;
+    }
+
+    /** Returns true if the recorded day changed. */
+    boolean setLastDay(int day) {
+        if (lastDay == day) return false;
+        lastDay = day;
+        return true;
+    }
+
+    private void ensureSlot(ChunkWatermarks.Pass pass, int slot) {
+        int i = pass.ordinal();
+        if (slot < completed[i].length) return;
+        completed[i] = Arrays.copyOf(completed[i], slot + 1);
+        misses[i] = Arrays.copyOf(misses[i], slot + 1);
+    }
+
+    @Override
+    public CompoundTag serializeNBT(HolderLookup.Provider provider) {
+        CompoundTag tag = new CompoundTag();
+        for (ChunkWatermarks.Pass pass : PASSES) {
+            byte[] stages = completed[pass.ordinal()];
+            if (stages.length > 0) tag.putByteArray(key(pass), stages.clone());
+        }
+        tag.putInt("last_day", lastDay);
+        return tag;
+    }
+
+    @Override
+    public void deserializeNBT(HolderLookup.Provider provider, CompoundTag tag) {
+        for (ChunkWatermarks.Pass pass : PASSES) {
+            byte[] stages = tag.getByteArray(key(pass));
+            completed[pass.ordinal()] = stages;
+            misses[pass.ordinal()] = new byte[stages.length];
+        }
+        lastDay = tag.contains("last_day") ? tag.getInt("last_day") : -1;
+    }
+
+    private static String key(ChunkWatermarks.Pass pass) {
+        return pass.name().toLowerCase(Locale.ROOT);
+    }
+}
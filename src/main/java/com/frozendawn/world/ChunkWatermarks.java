@@ -0,0 +1,159 @@
+package com.frozendawn.world;
+
+import com.frozendawn.init.ModAttachments;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Lets the decay passes skip chunks (and sections) they have already finished.
+ *
+ * Each pass describes what it can act on at its current stage (phase plus whatever
+ * config changes the transform set) as a StateMask. Probes report hits and misses;
+ * after a run of misses in a slot the pass verifies it for real (a section's palette,
+ * or every column for surface passes) and, if nothing is left, records the stage in
+ * the chunk's ChunkProgress. A completed slot is skipped until the stage changes or a
+ * block the pass can act on is placed there (seen through BlockChangeBus).
+ *
+ * Server thread only.
+ */
+public final class ChunkWatermarks {
+
+    /** Consecutive misses in a slot before it is verified. */
+    private static final int VERIFY_AFTER_MISSES = 32;
+    /** Depth below the surface heightmap that surface passes can see (covers the canopy scan). */
+    private static final int SURFACE_BAND = 16;
+
+    /** The decay passes that keep watermarks. Volume passes track each section separately. */
+    public enum Pass {
+        FREEZER_SURFACE(false),
+        FREEZER_VOLUME(true),
+        VEGETATION_SURFACE(false);
+
+        private final boolean perSection;
+        private final Int2ObjectOpenHashMap<StateMask> stageMasks = new Int2ObjectOpenHashMap<>();
+        private StateMask currentMask;
+
+        Pass(boolean perSection) {
+            this.perSection = perSection;
+        }
+    }
+
+    private static final Pass[] PASSES = Pass.values();
+
+    private ChunkWatermarks() {}
+
+    /**
+     * Returns the mask of states the pass can act on at this stage, building it from the
+     * predicate on first use, and makes it the pass's current stage.
+     */
+    static StateMask stage(Pass pass, int stage, Predicate<BlockState> canAct) {
+        StateMask mask = pass.stageMasks.get(stage);
+        if (mask == null) {
+            mask = new StateMask(canAct);
+            pass.stageMasks.put(stage, mask);
+        }
+        pass.currentMask = mask;
+        return mask;
+    }
+
+    /** Filters an area down to the chunks a surface pass hasn't finished at this stage. */
+    static long[] openChunks(ServerLevel level, long[] area, Pass pass, int stage) {
+        return openChunks(level, area, pass, stage, 0, 0);
+    }
+
+    /** Filters an area down to the chunks with an unfinished section between minY and maxY. */
+    static long[] openChunks(ServerLevel level, long[] area, Pass pass, int stage, int minY, int maxY) {
+        LongArrayList open = new LongArrayList(area.length);
+        for (long key : area) {
+            LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(key), ChunkPos.getZ(key));
+            if (chunk == null) continue;
+            if (chunk.hasData(ModAttachments.CHUNK_PROGRESS)) {
+                ChunkProgress progress = chunk.getData(ModAttachments.CHUNK_PROGRESS);
+                boolean done = pass.perSection
+                        ? progress.isComplete(pass, chunk.getSectionIndex(minY), chunk.getSectionIndex(maxY), stage)
+                        : progress.isComplete(pass, 0, stage);
+                if (done) continue;
+            }
+            open.add(key);
+        }
+        return open.size() == area.length ? area : open.toLongArray();
+    }
+
+    static boolean isComplete(LevelChunk chunk, Pass pass, int slot, int stage) {
+        return chunk.hasData(ModAttachments.CHUNK_PROGRESS)
+                && chunk.getData(ModAttachments.CHUNK_PROGRESS).isComplete(pass, slot, stage);
+    }
+
+    /** Records a slot as finished at this stage (the caller has already verified it). */
+    static void complete(LevelChunk chunk, Pass pass, int slot, int stage) {
+        chunk.getData(ModAttachments.CHUNK_PROGRESS).setComplete(pass, slot, stage);
+        chunk.setUnsaved(true);
+    }
+
+    /** A probe found something to act on: the slot's run of misses is broken. */
+    static void hit(LevelChunk chunk, Pass pass, int slot) {
+        if (chunk.hasData(ModAttachments.CHUNK_PROGRESS)) {
+            chunk.getData(ModAttachments.CHUNK_PROGRESS).clearMisses(pass, slot);
+        }
+    }
+
+    /**
+     * A probe found nothing to act on. After enough misses in a row, asks the verifier
+     * whether the slot is really finished and records it if so.
+     */
+    static void miss(LevelChunk chunk, Pass pass, int slot, int stage, BooleanSupplier verifier) {
+        ChunkProgress progress = chunk.getData(ModAttachments.CHUNK_PROGRESS);
+        if (progress.addMiss(pass, slot) < VERIFY_AFTER_MISSES) return;
+        if (verifier.getAsBoolean()) {
+            progress.setComplete(pass, slot, stage);
+            chunk.setUnsaved(true);
+        } else {
+            progress.clearMisses(pass, slot);
+        }
+    }
+
+    /**
+     * BlockChangeBus listener. Reopens a slot when a block its pass can act on appears
+     * there. Surface slots also reopen when a block near the surface is removed, since
+     * that can uncover ground (snow cleared, a tree felled); other surface churn such as
+     * snow layers or ice forming leaves them alone.
+     */
+    public static void onBlockChanged(Level level, BlockPos pos, BlockState newState) {
+        LevelChunk chunk = level.getChunkSource().getChunkNow(pos.getX() >> 4, pos.getZ() >> 4);
+        if (chunk == null || !chunk.hasData(ModAttachments.CHUNK_PROGRESS)) return;
+        ChunkProgress progress = chunk.getData(ModAttachments.CHUNK_PROGRESS);
+        boolean nearSurface = pos.getY() >= chunk.getHeight(Heightmap.Types.WORLD_SURFACE,
+                pos.getX() & 15, pos.getZ() & 15) - SURFACE_BAND;
+        int section = chunk.getSectionIndex(pos.getY());
+        boolean changed = false;
+        for (Pass pass : PASSES) {
+            // No mask yet (first tick, or just after a reload): reopen to be safe
+            StateMask mask = pass.currentMask;
+            boolean relevant = mask == null || mask.contains(newState);
+            if (pass.perSection) {
+                if (relevant) changed |= progress.reopen(pass, section);
+            } else if (nearSurface && (relevant || newState.isAir())) {
+                changed |= progress.reopen(pass, 0);
+            }
+        }
+        if (changed) chunk.setUnsaved(true);
+    }
+
+    /** Stage masks may depend on tags; rebuild them after a reload. */
+    public static void onTagsUpdated() {
+        for (Pass pass : PASSES) {
+            pass.stageMasks.clear();
+            pass.currentMask = null;
+        }
+    }
+}
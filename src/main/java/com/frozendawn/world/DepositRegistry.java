@@ -0,0 +1,160 @@
+package com.frozendawn.world;
+
+import com.frozendawn.block.AcheroniteCrystalBlock;
+import com.frozendawn.init.ModBlocks;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Overworld acheronite crystals and frozen atmosphere deposits, bucketed per chunk so
+ * AcheroniteGrowth and FrozenAtmosphereFormation visit the ones they have instead of
+ * probing random columns for them, and SnowAccumulator's crystal exclusion zone is a
+ * lookup instead of a 75-block scan.
+ *
+ * Crystals that can still grow (age below 3) are also kept on their own, so growth
+ * never visits a finished cluster. Seeded per section when a chunk loads (sections
+ * whose palette holds neither block are skipped) and kept current through
+ * BlockChangeBus, so placement, mining, pistons and explosions are all seen.
+ *
+ * Chunks are visited on a fixed rotation (isDue): each chunk comes up once every so
+ * many runs, spread over the rotation by its position, and its deposits then take the
+ * checks random probes would have landed on them meanwhile.
+ *
+ * Runtime only: rebuilt from the blocks on every load. Server thread only.
+ */
+public final class DepositRegistry {
+
+    /** Runs (every other tick) between visits to one chunk's deposits. */
+    static final int VISIT_RUNS = 20;
+
+    private static final StateMask DEPOSITS = new StateMask(state -> state.is(ModBlocks.ACHERONITE_CRYSTAL.get())
+            || state.is(ModBlocks.FROZEN_ATMOSPHERE.get()));
+
+    private static final PositionIndex crystals = new PositionIndex();
+    private static final PositionIndex growing = new PositionIndex();
+    private static final PositionIndex atmosphere = new PositionIndex();
+
+    private DepositRegistry() {}
+
+    /** BlockChangeBus listener: moves the position between indexes after its state changed. */
+    static void onBlockChanged(Level level, BlockPos pos, BlockState oldState, BlockState newState) {
+        if (level.dimension() != Level.OVERWORLD) return;
+        if (!DEPOSITS.contains(oldState) && !DEPOSITS.contains(newState)) return;
+        long packed = pos.asLong();
+        crystals.remove(packed);
+        growing.remove(packed);
+        atmosphere.remove(packed);
+        add(packed, newState);
+    }
+
+    /** Scans a freshly loaded chunk, skipping sections whose palette holds neither block. */
+    public static void onChunkLoad(Level level, LevelChunk chunk) {
+        if (level.dimension() != Level.OVERWORLD) return;
+        ChunkPos chunkPos = chunk.getPos();
+        LevelChunkSection[] sections = chunk.getSections();
+        for (int i = 0; i < sections.length; i++) {
+            if (!DEPOSITS.mayBeIn(sections[i])) continue;
+            PalettedContainer<BlockState> states = sections[i].getStates();
+            int baseY = SectionPos.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(i));
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        BlockState state = states.get(x, y, z);
+                        if (!DEPOSITS.contains(state)) continue;
+                        add(BlockPos.asLong(chunkPos.getMinBlockX() + x, baseY + y, chunkPos.getMinBlockZ() + z), state);
+                    }
+                }
+            }
+        }
+    }
+
+    public static void onChunkUnload(Level level, ChunkPos pos) {
+        if (level.dimension() != Level.OVERWORLD) return;
+        crystals.removeChunk(pos.toLong());
+        growing.removeChunk(pos.toLong());
+        atmosphere.removeChunk(pos.toLong());
+    }
+
+    /** True on the runs (every other tick) where the chunk comes up in a rotation of the given length. */
+    static boolean isDue(long chunkKey, long gameTime, int runs) {
+        return Math.floorMod(Long.hashCode(chunkKey) + gameTime / 2, runs) == 0;
+    }
+
+    /** Appends the chunk's crystals that can still grow to out. */
+    static void growingIn(long chunkKey, LongArrayList out) {
+        growing.copyChunk(chunkKey, out);
+    }
+
+    /** Appends the chunk's frozen atmosphere deposits to out. */
+    static void atmosphereIn(long chunkKey, LongArrayList out) {
+        atmosphere.copyChunk(chunkKey, out);
+    }
+
+    /** Visits every frozen atmosphere deposit within radius blocks of the center (packed positions). */
+    static void forEachAtmosphereWithin(BlockPos center, int radius, LongConsumer action) {
+        atmosphere.forEachWithin(center, radius, action);
+    }
+
+    /** True if a crystal lies within the horizontal radius and one block up or down of pos. */
+    static boolean hasCrystalNear(BlockPos pos, int radius) {
+        return hasCrystalNear(crystals, pos, radius);
+    }
+
+    /** hasCrystalNear against the given crystal index. */
+    static boolean hasCrystalNear(PositionIndex crystals, BlockPos pos, int radius) {
+        int reach = (int) Math.ceil(Math.sqrt(2.0 * radius * radius + 1));
+        return crystals.anyWithin(pos, reach, packed -> Math.abs(BlockPos.getX(packed) - pos.getX()) <= radius
+                && Math.abs(BlockPos.getZ(packed) - pos.getZ()) <= radius
+                && Math.abs(BlockPos.getY(packed) - pos.getY()) <= 1);
+    }
+
+    /**
+     * True if pos is at most maxDepth blocks below the surface heightmap with only air
+     * and snow above it: what the old downward scans from the surface could reach.
+     */
+    static boolean isExposed(ServerLevel level, BlockPos pos, int maxDepth) {
+        int surfaceY = level.getHeight(Heightmap.Types.WORLD_SURFACE, pos.getX(), pos.getZ());
+        if (pos.getY() < surfaceY - maxDepth) return false;
+        BlockPos.MutableBlockPos cursor = pos.mutable();
+        for (int y = pos.getY() + 1; y < surfaceY; y++) {
+            BlockState state = level.getBlockState(cursor.setY(y));
+            if (!state.isAir() && !state.is(Blocks.SNOW) && !state.is(Blocks.SNOW_BLOCK)) return false;
+        }
+        return true;
+    }
+
+    public static int getCrystalCount() {
+        return crystals.size();
+    }
+
+    public static int getAtmosphereCount() {
+        return atmosphere.size();
+    }
+
+    public static void reset() {
+        crystals.clear();
+        growing.clear();
+        atmosphere.clear();
+    }
+
+    private static void add(long packed, BlockState state) {
+        if (state.is(ModBlocks.ACHERONITE_CRYSTAL.get())) {
+            crystals.add(packed);
+            if (state.getValue(AcheroniteCrystalBlock.AGE) < 3) growing.add(packed);
+        } else if (state.is(ModBlocks.FROZEN_ATMOSPHERE.get())) {
+            atmosphere.add(packed);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.frozendawn.world;
+
+import com.frozendawn.config.FrozenDawnConfig;
+import com.frozendawn.data.ApocalypseState;
+import com.frozendawn.phase.PhaseManager;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+/**
+ * Deterministic alternative to BlockFreezer's random probes (config: scheduledFreezing).
+ *
+ * Every block on a freezing chain has a fixed tick for its next step: somewhere inside
+ * the phase that enables the step, at an offset hashed from the world seed, the block's
+ * position and the block being replaced. With the same seed and settings a block
+ * freezes at the same apocalypse tick in every run, and a chunk loaded late simply
+ * runs the steps that came due while it was away.
+ *
+ * Work is tracked per section for the volume chains (water, lava, coal) and per chunk
+ * for the surface chain (ground under canopies), in TimingWheels keyed by the earliest
+ * upcoming step in the slot. A wake applies every step that is due and reschedules the
+ * slot, at most once per QUANTUM ticks, so a lake freezing over a phase costs a few
+ * hundred wakes rather than one per block. Wakes run under the freezer lanes of
+ * MutationScheduler. Solid blocks are rewritten in place by SectionConverter; water
+ * and lava go through MutationBuffer so the fluid around them updates.
+ *
+ * The late-stage effects (sublimation, snow compacting) depend on sky access per block
+ * and stay with the sampled passes. Server thread only.
+ */
+public final class FreezeSchedule {
+
+    /** Minimum ticks between two wakes of the same slot. */
+    private static final int QUANTUM = 200;
+    private static final long TICKS_PER_DAY = 24000L;
+    /** Fuel phase used when fuel scarcity is off: later than any real phase. */
+    private static final int NEVER = 7;
+    private static final int MAX_CHAIN_STEPS = 8;
+
+    /** Everything that moves step times or changes which blocks are on a chain. */
+    private record Settings(long seed, int totalDays, boolean lava, int fuelPhase) {}
+
+    @FunctionalInterface
+    private interface Step {
+        BlockState next(BlockState state, int phase);
+    }
+
+    /** SectionPos keys. */
+    private static TimingWheel volumeWheel;
+    /** ChunkPos keys. */
+    private static TimingWheel surfaceWheel;
+    /** Slots with a pending wake (in a wheel or a due queue). */
+    private static final LongOpenHashSet volumeScheduled = new LongOpenHashSet();
+    private static final LongOpenHashSet surfaceScheduled = new LongOpenHashSet();
+    private static final LongArrayFIFOQueue volumeDue = new LongArrayFIFOQueue();
+    private static final LongArrayFIFOQueue surfaceDue = new LongArrayFIFOQueue();
+
+    private static Settings settings;
+    private static long now;
+    /** Phase that enables each state's next step, by state id (0 = not on the chain). */
+    private static byte[] volumePhases;
+    /** Same for sections at Y >= 0, where coal ore freezes too. */
+    private static byte[] coalPhases;
+    private static byte[] surfacePhases;
+    private static StateMask volumeMask;
+    private static StateMask coalMask;
+    /** Per-block hash salt (registry name), so each step of a chain gets its own time. */
+    private static int[] salts;
+
+    private FreezeSchedule() {}
+
+    public static boolean isActive() {
+        return volumeWheel != null;
+    }
+
+    /** Runs the wakes that are due. Called by BlockFreezer in place of its sampled passes. */
+    static void tick(ServerLevel level, int phase) {
+        ApocalypseState state = ApocalypseState.get(level.getServer());
+        long time = state.getApocalypseTicks();
+        boolean fuel = FrozenDawnConfig.ENABLE_FUEL_SCARCITY.get();
+        Settings current = new Settings(level.getSeed(), state.getTotalDays(),
+                FrozenDawnConfig.ENABLE_LAVA_FREEZING.get(), fuel ? FrozenDawnConfig.FUEL_SCARCITY_PHASE.get() : NEVER);
+        // Settings changed, first tick, or time set backwards: schedule everything afresh
+        now = time;
+        if (!current.equals(settings) || volumeWheel == null || time < volumeWheel.time()) {
+            rebuild(level, current);
+        }
+        volumeWheel.advance(time, volumeDue::enqueue);
+        surfaceWheel.advance(time, surfaceDue::enqueue);
+
+        MutationScheduler.Run surface = MutationScheduler.begin(MutationScheduler.Lane.FREEZER_SURFACE,
+                pendingDemand(MutationScheduler.Lane.FREEZER_SURFACE, surfaceDue.size()));
+        while (!surfaceDue.isEmpty() && surface.next()) {
+            wakeSurface(level, surfaceDue.dequeueLong(), phase);
+        }
+        surface.end();
+
+        MutationScheduler.Run volume = MutationScheduler.begin(MutationScheduler.Lane.FREEZER_VOLUME,
+                pendingDemand(MutationScheduler.Lane.FREEZER_VOLUME, volumeDue.size()));
+        while (!volumeDue.isEmpty() && volume.next()) {
+            wakeVolume(level, volumeDue.dequeueLong(), phase);
+        }
+        volume.end();
+    }
+
+    /** Server chunk load: schedules the chunk's slots soon, so steps missed while unloaded run. */
+    public static void onChunkLoad(ServerLevel level, LevelChunk chunk) {
+        if (!isActive() || level.dimension() != Level.OVERWORLD) return;
+        scheduleChunk(chunk);
+    }
+
+    /**
+     * BlockChangeBus listener. A block placed on a chain gets its section scheduled; any
+     * change that could uncover or add ground gets its chunk's surface scheduled.
+     */
+    public static void onBlockChanged(Level level, BlockPos pos, BlockState newState) {
+        if (!isActive() || level.dimension() != Level.OVERWORLD) return;
+        int id = Block.getId(newState);
+        if (volumePhases[id] != 0 || coalPhases[id] != 0) {
+            long key = SectionPos.asLong(pos);
+            if (volumeScheduled.add(key)) volumeWheel.schedule(key, now + QUANTUM);
+        }
+        if (surfacePhases[id] != 0 || newState.isAir()) {
+            long key = ChunkPos.asLong(pos);
+            if (surfaceScheduled.add(key)) surfaceWheel.schedule(key, now + QUANTUM);
+        }
+    }
+
+    public static int getScheduledSections() {
+        return volumeScheduled.size();
+    }
+
+    public static int getScheduledChunks() {
+        return surfaceScheduled.size();
+    }
+
+    public static void reset() {
+        volumeWheel = null;
+        surfaceWheel = null;
+        volumeScheduled.clear();
+        surfaceScheduled.clear();
+        volumeDue.clear();
+        surfaceDue.clear();
+        settings = null;
+        now = 0;
+    }
+
+    private static void rebuild(ServerLevel level, Settings current) {
+        settings = current;
+        volumePhases = chainPhases((state, phase) -> BlockFreezer.nextFrozenState(state, phase, current.lava(), false));
+        coalPhases = chainPhases((state, phase) -> BlockFreezer.nextFrozenState(state, phase, current.lava(),
+                phase >= current.fuelPhase()));
+        surfacePhases = chainPhases(BlockFreezer::nextSurfaceState);
+        byte[] volume = volumePhases;
+        byte[] coal = coalPhases;
+        volumeMask = new StateMask(state -> volume[Block.getId(state)] != 0);
+        coalMask = new StateMask(state -> coal[Block.getId(state)] != 0);
+        salts = new int[volume.length];
+        for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+            int id = Block.getId(state);
+            if (volume[id] != 0 || coal[id] != 0 || surfacePhases[id] != 0) {
+                salts[id] = BuiltInRegistries.BLOCK.getKey(state.getBlock()).hashCode();
+            }
+        }
+
+        volumeWheel = new TimingWheel(now);
+        surfaceWheel = new TimingWheel(now);
+        volumeScheduled.clear();
+        surfaceScheduled.clear();
+        volumeDue.clear();
+        surfaceDue.clear();
+        LoadedChunks.forEach(level, key -> {
+            LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(key), ChunkPos.getZ(key));
+            if (chunk != null) scheduleChunk(chunk);
+        });
+    }
+
+    /** For every block state, the first phase (2-6) at which the step moves it along; 0 if none. */
+    private static byte[] chainPhases(Step step) {
+        byte[] phases = new byte[Block.BLOCK_STATE_REGISTRY.size()];
+        for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+            for (int phase = 2; phase <= 6; phase++) {
+                if (step.next(state, phase) != null) {
+                    phases[Block.getId(state)] = (byte) phase;
+                    break;
+                }
+            }
+        }
+        return phases;
+    }
+
+    /** Schedules every section that may hold a chain block, and the surface, spread over a quantum. */
+    private static void scheduleChunk(LevelChunk chunk) {
+        ChunkPos pos = chunk.getPos();
+        long at = now + Math.floorMod(HashCommon.mix(pos.toLong()), QUANTUM);
+        for (int i = 0; i < chunk.getSectionsCount(); i++) {
+            int sectionY = chunk.getSectionYFromSectionIndex(i);
+            StateMask mask = SectionPos.sectionToBlockCoord(sectionY) >= 0 ? coalMask : volumeMask;
+            if (!mask.mayBeIn(chunk.getSection(i))) continue;
+            long key = SectionPos.asLong(pos.x, sectionY, pos.z);
+            if (volumeScheduled.add(key)) volumeWheel.schedule(key, at);
+        }
+        if (surfaceScheduled.add(pos.toLong())) surfaceWheel.schedule(pos.toLong(), at);
+    }
+
+    private static void wakeVolume(ServerLevel level, long key, int phase) {
+        int sectionX = SectionPos.x(key);
+        int sectionY = SectionPos.y(key);
+        int sectionZ = SectionPos.z(key);
+        LevelChunk chunk = level.getChunkSource().getChunkNow(sectionX, sectionZ);
+        if (chunk == null || sectionY < chunk.getMinSection() || sectionY >= chunk.getMaxSection()) {
+            // Unloaded: the next load schedules it again
+            volumeScheduled.remove(key);
+            return;
+        }
+        int index = chunk.getSectionIndexFromSectionY(sectionY);
+        int baseX = SectionPos.sectionToBlockCoord(sectionX);
+        int baseY = SectionPos.sectionToBlockCoord(sectionY);
+        int baseZ = SectionPos.sectionToBlockCoord(sectionZ);
+        boolean coal = baseY >= 0;
+        if (!(coal ? coalMask : volumeMask).mayBeIn(chunk.getSection(index))) {
+            volumeScheduled.remove(key);
+            return;
+        }
+
+        byte[] phases = coal ? coalPhases : volumePhases;
+        Step step = (state, p) -> BlockFreezer.nextFrozenState(state, p, settings.lava(), coal && p >= settings.fuelPhase());
+        long[] next = {Long.MAX_VALUE};
+        SectionConverter.convert(level, chunk, index, (x, y, z, state) -> {
+            BlockState result = advance(state, baseX + x, baseY + y, baseZ + z, phase, phases, step, next);
+            if (result == state || state.getFluidState().isEmpty()) return result;
+            // Fluids can't be written into the section: freezing one has to update the fluid around it
+            MutationBuffer.set(new BlockPos(baseX + x, baseY + y, baseZ + z), state, result);
+            return null;
+        });
+        reschedule(volumeWheel, volumeScheduled, key, next[0]);
+    }
+
+    private static void wakeSurface(ServerLevel level, long key, int phase) {
+        LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(key), ChunkPos.getZ(key));
+        if (chunk == null) {
+            surfaceScheduled.remove(key);
+            return;
+        }
+        int baseX = chunk.getPos().getMinBlockX();
+        int baseZ = chunk.getPos().getMinBlockZ();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        long[] next = {Long.MAX_VALUE};
+        for (int lx = 0; lx < 16; lx++) {
+            for (int lz = 0; lz < 16; lz++) {
+                int topY = chunk.getHeight(Heightmap.Types.WORLD_SURFACE, lx, lz);
+                cursor.set(baseX + lx, topY, baseZ + lz);
+                BlockState ground = BlockFreezer.groundBelowCanopy(chunk, cursor, topY);
+                if (ground == null || surfacePhases[Block.getId(ground)] == 0) continue;
+                BlockState result = advance(ground, cursor.getX(), cursor.getY(), cursor.getZ(), phase,
+                        surfacePhases, BlockFreezer::nextSurfaceState, next);
+                if (result != ground) level.setBlock(cursor.immutable(), result, MutationBuffer.flagsFor(ground, result));
+            }
+        }
+        reschedule(surfaceWheel, surfaceScheduled, key, next[0]);
+    }
+
+    /**
+     * Takes every step of the block's chain that is due, and lowers next[0] to the time
+     * of the first step that isn't. Returns the resulting state.
+     */
+    private static BlockState advance(BlockState state, int x, int y, int z, int phase,
+                                      byte[] phases, Step step, long[] next) {
+        BlockState current = state;
+        for (int i = 0; i < MAX_CHAIN_STEPS; i++) {
+            int required = phases[Block.getId(current)];
+            if (required == 0) break;
+            long due = dueTick(x, y, z, current, required);
+            if (due > now || required > phase) {
+                next[0] = Math.min(next[0], due);
+                break;
+            }
+            BlockState after = step.next(current, phase);
+            if (after == null) break;
+            current = after;
+        }
+        return current;
+    }
+
+    /** The apocalypse tick of this block's next step: a hashed point inside the enabling phase. */
+    private static long dueTick(int x, int y, int z, BlockState state, int phase) {
+        long start = PhaseManager.getPhaseStartDay(phase, settings.totalDays()) * TICKS_PER_DAY;
+        long end = PhaseManager.getPhaseStartDay(phase + 1, settings.totalDays()) * TICKS_PER_DAY;
+        long hash = HashCommon.mix(settings.seed() ^ BlockPos.asLong(x, y, z) * 0x9E3779B97F4A7C15L
+                ^ salts[Block.getId(state)]);
+        double fraction = (hash >>> 11) * 0x1.0p-53;
+        return start + (long) (fraction * Math.max(0L, end - start));
+    }
+
+    private static void reschedule(TimingWheel wheel, LongOpenHashSet scheduled, long key, long next) {
+        if (next == Long.MAX_VALUE) {
+            // Nothing left on a chain; a block change schedules it again
+            scheduled.remove(key);
+            return;
+        }
+        wheel.schedule(key, Math.max(next, now + QUANTUM));
+    }
+
+    /** Demand that keeps the lane's debt level with the work actually queued. */
+    private static double pendingDemand(MutationScheduler.Lane lane, int queued) {
+        return Math.max(0, queued - MutationScheduler.stats(lane).getDeferred());
+    }
+}
@@ -11,6 +11,8 @@ import net.minecraft.util.RandomSource;
 import net.minecraft.world.entity.MobSpawnType;
 import net.minecraft.world.level.block.state.BlockState;
 
+import java.util.List;
+
 public class FrostbittenSpawner {
 
     private FrostbittenSpawner() {}
@@ -20,8 +22,8 @@ public class FrostbittenSpawner {
         if (!FrozenDawnConfig.ENABLE_FROSTBITTEN.get()) return;
         if (currentPhase >= 6 && progress >= 0.92f) return;
 
-        long gameTick = level.getGameTime();
-        if (gameTick % 100 != 0) return; // Every 5 seconds
+        List<ServerPlayer> players = level.players();
+        if (players.isEmpty()) return;
 
         RandomSource random = level.random;
 
@@ -43,7 +45,12 @@ public class FrostbittenSpawner {
             groupSize = 2;
         }
 
-        for (ServerPlayer player : level.players()) {
+        // One attempt per player every 5 seconds, never thinned by the MSPT throttle;
+        // attempts that miss the time budget run next tick
+        int demand = level.getGameTime() % 100 == 0 ? players.size() : 0;
+        MutationScheduler.Run run = MutationScheduler.begin(MutationScheduler.Lane.FROSTBITTEN, demand);
+        while (run.next()) {
+            ServerPlayer player = players.get(run.nextIndex(players.size()));
             if (player.isSpectator()) continue;
             if (random.nextFloat() > spawnChance) continue;
 
@@ -82,6 +89,7 @@ public class FrostbittenSpawner {
                 FrozenDawn.LOGGER.info("[Frostbitten] Spawned group of {} near {} at phase {}", spawned, player.getName().getString(), currentPhase);
             }
         }
+        run.end();
     }
 
     private static BlockPos findSpawnPos(ServerLevel level, ServerPlayer player, RandomSource random) {
@@ -1,11 +1,14 @@
 package com.frozendawn.world;
 
 import com.frozendawn.init.ModBlocks;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.levelgen.Heightmap;
@@ -13,6 +16,10 @@ import net.minecraft.world.level.levelgen.Heightmap;
 /**
  * Handles Frozen Atmosphere deposit formation on the surface during phase 6 late.
  * Also handles block sublimation: removes deposits if temperature rises above -150C.
+ * Sublimation is event-driven: a heat source appearing or growing (ambient blocks via
+ * AmbientHeatRegistry, heaters and cores via HeatField) queues a check for the
+ * deposits in its reach, and a slow sweep catches warming nothing reports. Snow
+ * clearing visits the deposits known to DepositRegistry.
  *
  * Formation requires: phase 6, progress > 0.85, direct sky access, temp below -150C.
  */
@@ -27,101 +34,154 @@ public final class FrozenAtmosphereFormation {
     private static final int FORMATION_CHECKS = 16;
     private static final float FORMATION_CHANCE = 0.10f;
 
-    private static final int SUBLIMATION_CHECKS = 8;
+    private static final int SNOW_CLEARING_CHECKS = 4;
+    /**
+     * Runs between sweep checks of one chunk's deposits, for warming nothing reports
+     * (a colder phase undone by command or config, a room opened up).
+     */
+    private static final int SWEEP_RUNS = 600;
+
+    /** Deposits due a snow clearing visit this run (server thread only). */
+    private static final LongArrayList dueDeposits = new LongArrayList();
+    /** Deposits awaiting a sublimation check, in the order queued. */
+    private static final LongOpenHashSet pendingChecks = new LongOpenHashSet();
+    private static final LongArrayFIFOQueue pendingQueue = new LongArrayFIFOQueue();
 
     public static void tick(ServerLevel level, int phase, float progress, int currentDay, int totalDays) {
         RandomSource random = level.getRandom();
         boolean canForm = phase >= 6 && progress >= 0.85f;
-
-        for (ServerPlayer player : level.players()) {
-            BlockPos origin = player.blockPosition();
-            BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
-
-            // Surface formation (phase 6 late only)
-            if (canForm) {
-                for (int i = 0; i < FORMATION_CHECKS; i++) {
-                    int x = origin.getX() + random.nextInt(FORMATION_RADIUS * 2 + 1) - FORMATION_RADIUS;
-                    int z = origin.getZ() + random.nextInt(FORMATION_RADIUS * 2 + 1) - FORMATION_RADIUS;
-                    int surfaceY = level.getHeight(Heightmap.Types.WORLD_SURFACE, x, z);
-                    mutable.set(x, surfaceY, z);
-                    if (!level.isLoaded(mutable)) continue;
-
-                    // Must have sky access
-                    if (!level.canSeeSky(mutable)) continue;
-
-                    // Scan down through snow/air to find solid ground
-                    for (int dy = 0; dy <= 6; dy++) {
-                        mutable.set(x, surfaceY - dy, z);
-                        BlockState at = level.getBlockState(mutable);
-                        if (at.isAir() || at.is(Blocks.SNOW) || at.is(Blocks.SNOW_BLOCK)) continue;
-
-                        // Already a frozen atmosphere deposit here
-                        if (at.is(ModBlocks.FROZEN_ATMOSPHERE.get())) break;
-
-                        // Need a sturdy surface block below
-                        if (!at.isFaceSturdy(level, mutable, Direction.UP)) break;
-
-                        // Check the position above for placement
-                        BlockPos placePos = mutable.above();
-                        BlockState aboveState = level.getBlockState(placePos);
-                        if (!aboveState.isAir() && !aboveState.is(Blocks.SNOW)) break;
-
-                        float temp = TemperatureManager.getTemperatureAt(level, placePos, currentDay, totalDays);
-                        if (temp > SUBLIMATION_TEMP) break;
-                        if (random.nextFloat() >= FORMATION_CHANCE) break;
-
-                        // Clear snow and place deposit
-                        if (aboveState.is(Blocks.SNOW)) {
-                            level.destroyBlock(placePos, false);
-                        }
-                        level.setBlock(placePos,
-                                ModBlocks.FROZEN_ATMOSPHERE.get().defaultBlockState(), 3);
-                        clearSnowAround(level, placePos, 2);
-                        break;
-                    }
+        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+
+        // Surface formation (phase 6 late only)
+        if (canForm) {
+            long[] formationArea = SamplingArea.chunksNear(level, FORMATION_RADIUS);
+            if (formationArea.length > 0) {
+                MutationScheduler.Run formation = MutationScheduler.begin(MutationScheduler.Lane.ATMOSPHERE_FORMATION,
+                        SamplingArea.demand(formationArea, FORMATION_RADIUS, FORMATION_CHECKS));
+                while (formation.next()) {
+                    SurfaceSamples.Column column = SurfaceSamples.next(MutationScheduler.Lane.ATMOSPHERE_FORMATION,
+                            level, formationArea, random);
+                    if (column != null) form(level, column, mutable, random, currentDay, totalDays);
                 }
+                formation.end();
+            }
+        }
 
-                // Snow clearing: keep existing deposits visible
-                for (int i = 0; i < 4; i++) {
-                    int x = origin.getX() + random.nextInt(SUBLIMATION_RADIUS * 2 + 1) - SUBLIMATION_RADIUS;
-                    int z = origin.getZ() + random.nextInt(SUBLIMATION_RADIUS * 2 + 1) - SUBLIMATION_RADIUS;
-                    int surfaceY = level.getHeight(Heightmap.Types.WORLD_SURFACE, x, z);
-                    for (int dy = 0; dy <= 4; dy++) {
-                        mutable.set(x, surfaceY - dy, z);
-                        if (!level.isLoaded(mutable)) break;
-                        BlockState state = level.getBlockState(mutable);
-                        if (state.is(ModBlocks.FROZEN_ATMOSPHERE.get())) {
-                            clearSnowAround(level, mutable.immutable(), 1);
-                            break;
-                        }
-                        if (!state.isAir() && !state.is(Blocks.SNOW) && !state.is(Blocks.SNOW_BLOCK)) break;
-                    }
-                }
+        // Sublimation: deposits near a heat source that appeared or grew, plus the slow sweep
+        long[] depositArea = SamplingArea.chunksNear(level, SUBLIMATION_RADIUS);
+        long now = level.getGameTime();
+        for (long chunkKey : depositArea) {
+            if (DepositRegistry.isDue(chunkKey, now, SWEEP_RUNS)) {
+                dueDeposits.clear();
+                DepositRegistry.atmosphereIn(chunkKey, dueDeposits);
+                for (int i = 0; i < dueDeposits.size(); i++) queueCheck(dueDeposits.getLong(i));
+            }
+        }
+        if (!pendingChecks.isEmpty()) {
+            MutationScheduler.Run sublimation = MutationScheduler.begin(MutationScheduler.Lane.ATMOSPHERE_DEPOSITS,
+                    Math.max(0, pendingChecks.size()
+                            - MutationScheduler.stats(MutationScheduler.Lane.ATMOSPHERE_DEPOSITS).getDeferred()));
+            // A queue, not the set's iterator: removing a deposit may queue more checks
+            while (!pendingQueue.isEmpty() && sublimation.next()) {
+                long packed = pendingQueue.dequeueLong();
+                pendingChecks.remove(packed);
+                mutable.set(packed);
+                if (level.isLoaded(mutable)) sublimate(level, mutable, currentDay, totalDays);
             }
+            sublimation.end();
+        }
 
-            // Sublimation check: always runs — removes deposits if temperature is too high
-            for (int i = 0; i < SUBLIMATION_CHECKS; i++) {
-                int x = origin.getX() + random.nextInt(SUBLIMATION_RADIUS * 2 + 1) - SUBLIMATION_RADIUS;
-                int z = origin.getZ() + random.nextInt(SUBLIMATION_RADIUS * 2 + 1) - SUBLIMATION_RADIUS;
-                int surfaceY = level.getHeight(Heightmap.Types.WORLD_SURFACE, x, z);
+        // Snow clearing keeps deposits visible while they are forming, visiting the
+        // known deposits of the chunks due this run
+        if (!canForm) return;
+        dueDeposits.clear();
+        for (long chunkKey : depositArea) {
+            if (DepositRegistry.isDue(chunkKey, now, DepositRegistry.VISIT_RUNS)) {
+                DepositRegistry.atmosphereIn(chunkKey, dueDeposits);
+            }
+        }
+        if (dueDeposits.isEmpty()) return;
+        // Checks per deposit per visit: what random column probes would have landed on it since the last one
+        double clearingChecks = SamplingArea.perChunk(SUBLIMATION_RADIUS, SNOW_CLEARING_CHECKS)
+                * MutationScheduler.getDensity() / 256 * DepositRegistry.VISIT_RUNS;
+        for (int i = 0; i < dueDeposits.size(); i++) {
+            if (RandomTicks.probes(clearingChecks, random) == 0) continue;
+            mutable.set(dueDeposits.getLong(i));
+            if (level.isLoaded(mutable)) clearSnowAtDeposit(level, mutable);
+        }
+        dueDeposits.clear();
+    }
 
-                for (int dy = 0; dy <= 6; dy++) {
-                    mutable.set(x, surfaceY - dy, z);
-                    if (!level.isLoaded(mutable)) break;
+    /**
+     * A heat source appeared or changed at source, warming blocks up to radius away:
+     * the deposits in reach get a sublimation check on the next run. Called from block
+     * change and heat field hooks, so it only queues.
+     */
+    public static void onHeatChanged(Level level, BlockPos source, int radius) {
+        if (level.isClientSide() || level.dimension() != Level.OVERWORLD) return;
+        DepositRegistry.forEachAtmosphereWithin(source, radius, FrozenAtmosphereFormation::queueCheck);
+    }
 
-                    BlockState state = level.getBlockState(mutable);
-                    if (!state.is(ModBlocks.FROZEN_ATMOSPHERE.get())) {
-                        if (!state.isAir() && !state.is(Blocks.SNOW) && !state.is(Blocks.SNOW_BLOCK)) break;
-                        continue;
-                    }
+    public static void reset() {
+        pendingChecks.clear();
+        pendingQueue.clear();
+        dueDeposits.clear();
+    }
 
-                    float temp = TemperatureManager.getTemperatureAt(level, mutable, currentDay, totalDays);
-                    if (temp > SUBLIMATION_TEMP) {
-                        level.destroyBlock(mutable, false);
-                    }
-                    break;
-                }
-            }
+    private static void queueCheck(long packed) {
+        if (pendingChecks.add(packed)) pendingQueue.enqueue(packed);
+    }
+
+    private static void form(ServerLevel level, SurfaceSamples.Column column, BlockPos.MutableBlockPos mutable,
+                             RandomSource random, int currentDay, int totalDays) {
+        int surfaceY = column.height(Heightmap.Types.WORLD_SURFACE);
+
+        // Must have sky access
+        if (!level.canSeeSky(column.at(mutable, surfaceY))) return;
+
+        // Scan down through snow/air to find solid ground
+        for (int dy = 0; dy <= 6; dy++) {
+            column.at(mutable, surfaceY - dy);
+            BlockState at = column.state(surfaceY - dy);
+            if (at.isAir() || at.is(Blocks.SNOW) || at.is(Blocks.SNOW_BLOCK)) continue;
+
+            // Already a frozen atmosphere deposit here
+            if (at.is(ModBlocks.FROZEN_ATMOSPHERE.get())) return;
+
+            // Need a sturdy surface block below
+            if (!at.isFaceSturdy(level, mutable, Direction.UP)) return;
+
+            // Check the position above for placement
+            BlockPos placePos = mutable.above();
+            BlockState aboveState = column.state(placePos.getY());
+            if (!aboveState.isAir() && !aboveState.is(Blocks.SNOW)) return;
+
+            float temp = TemperatureManager.getTemperatureAt(level, placePos, currentDay, totalDays);
+            if (temp > SUBLIMATION_TEMP) return;
+            if (random.nextFloat() >= FORMATION_CHANCE) return;
+
+            // Place the deposit (over a snow layer, if there is one) and clear the snow around it
+            MutationBuffer.set(placePos, aboveState, ModBlocks.FROZEN_ATMOSPHERE.get().defaultBlockState());
+            clearSnowAround(level, placePos, 2);
+            return;
+        }
+    }
+
+    private static void clearSnowAtDeposit(ServerLevel level, BlockPos.MutableBlockPos mutable) {
+        if (!level.getBlockState(mutable).is(ModBlocks.FROZEN_ATMOSPHERE.get())) return;
+        if (!DepositRegistry.isExposed(level, mutable, 4)) return;
+        clearSnowAround(level, mutable.immutable(), 1);
+    }
+
+    /** Removes the deposit if it has got too warm. */
+    private static void sublimate(ServerLevel level, BlockPos.MutableBlockPos mutable, int currentDay, int totalDays) {
+        BlockState state = level.getBlockState(mutable);
+        if (!state.is(ModBlocks.FROZEN_ATMOSPHERE.get())) return;
+        if (!DepositRegistry.isExposed(level, mutable, 6)) return;
+
+        float temp = TemperatureManager.getTemperatureAt(level, mutable, currentDay, totalDays);
+        if (temp > SUBLIMATION_TEMP) {
+            level.destroyBlock(mutable, false);
         }
     }
 
@@ -133,7 +193,7 @@ public final class FrozenAtmosphereFormation {
                     check.set(center.getX() + dx, center.getY() + dy, center.getZ() + dz);
                     BlockState s = level.getBlockState(check);
                     if (s.is(Blocks.SNOW) || s.is(Blocks.SNOW_BLOCK)) {
-                        level.destroyBlock(check.immutable(), false);
+                        MutationBuffer.set(check.immutable(), s, Blocks.AIR.defaultBlockState());
                     }
                 }
             }
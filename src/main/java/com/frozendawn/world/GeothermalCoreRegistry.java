@@ -3,35 +3,46 @@ package com.frozendawn.world;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.Level;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
 
 /**
  * Tracks loaded Geothermal Core positions per level for efficient distance lookups.
- * Avoids O(r^3) block scanning for large radii (up to 32 blocks).
+ * Positions are bucketed by chunk; radius queries only touch cores in nearby chunks,
+ * so large core ranges (up to 32 blocks) stay cheap.
  */
 public final class GeothermalCoreRegistry {
 
-    private static final WeakHashMap<Level, Set<BlockPos>> cores = new WeakHashMap<>();
+    private static final WeakHashMap<Level, PositionIndex> cores = new WeakHashMap<>();
 
     private GeothermalCoreRegistry() {}
 
     public static void register(Level level, BlockPos pos) {
-        cores.computeIfAbsent(level, k -> new HashSet<>()).add(pos.immutable());
+        cores.computeIfAbsent(level, k -> new PositionIndex()).add(pos.asLong());
     }
 
     public static void unregister(Level level, BlockPos pos) {
-        Set<BlockPos> set = cores.get(level);
-        if (set != null) {
-            set.remove(pos);
-            if (set.isEmpty()) cores.remove(level);
+        PositionIndex index = cores.get(level);
+        if (index != null) {
+            index.remove(pos.asLong());
+            if (index.isEmpty()) cores.remove(level);
         }
     }
 
-    public static Set<BlockPos> getCores(Level level) {
-        Set<BlockPos> set = cores.get(level);
-        return set != null ? set : Collections.emptySet();
+    /** Visits every core within {@code radius} blocks of the center (packed positions). */
+    public static void forEachWithin(Level level, BlockPos center, int radius, LongConsumer action) {
+        PositionIndex index = cores.get(level);
+        if (index != null) index.forEachWithin(center, radius, action);
+    }
+
+    /** Returns true as soon as a core within {@code radius} blocks matches the predicate. */
+    public static boolean anyWithin(Level level, BlockPos center, int radius, LongPredicate predicate) {
+        PositionIndex index = cores.get(level);
+        return index != null && index.anyWithin(center, radius, predicate);
+    }
+
+    public static boolean anyWithin(Level level, BlockPos center, int radius) {
+        return anyWithin(level, center, radius, packed -> true);
     }
 }
@@ -0,0 +1,142 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+
+import java.util.WeakHashMap;
+
+/**
+ * Sparse additive warmth field for Thermal Heaters and Geothermal Cores.
+ *
+ * Each lit heater and loaded core stamps its warmth into every voxel within its
+ * radius when it lights, upgrades or changes shelter status, and removes the stamp
+ * when that changes. Reading the warmth at a position is then a single array lookup,
+ * no matter how many heaters overlap there.
+ *
+ * Values are stored per 16x16x16 section in half-degree units, so adding and removing
+ * stamps is exact and never drifts. Sections are dropped once no stamp covers them.
+ * Server thread only.
+ */
+public final class HeatField {
+
+    private static final WeakHashMap<Level, Field> fields = new WeakHashMap<>();
+
+    private HeatField() {}
+
+    /**
+     * Stamps warmth into every position within {@code radiusSq} (distSqr, block corners)
+     * of the source, replacing any stamp the source already had.
+     */
+    public static void stamp(Level level, BlockPos source, int radiusSq, float warmth) {
+        long key = source.asLong();
+        Field field = fields.computeIfAbsent(level, k -> new Field());
+        Stamp previous = field.stamps.get(key);
+        int units = Math.round(warmth * 2.0f);
+        if (previous != null) {
+            if (previous.radiusSq == radiusSq && previous.units == units) return;
+            field.apply(previous, -1);
+        }
+        if (units == 0 || radiusSq < 0) {
+            field.stamps.remove(key);
+        } else {
+            Stamp stamp = new Stamp(key, radiusSq, units);
+            field.stamps.put(key, stamp);
+            field.apply(stamp, 1);
+            FrozenAtmosphereFormation.onHeatChanged(level, source, (int) Math.ceil(Math.sqrt(radiusSq)));
+        }
+        if (field.stamps.isEmpty()) fields.remove(level);
+        int reachSq = Math.max(radiusSq, previous != null ? previous.radiusSq : -1);
+        if (reachSq >= 0) TemperatureManager.invalidateCache(level, source, (int) Math.ceil(Math.sqrt(reachSq)));
+    }
+
+    /** Removes the source's stamp, if any. */
+    public static void clear(Level level, BlockPos source) {
+        Field field = fields.get(level);
+        if (field == null) return;
+        Stamp previous = field.stamps.remove(source.asLong());
+        if (previous == null) return;
+        field.apply(previous, -1);
+        if (field.stamps.isEmpty()) fields.remove(level);
+        TemperatureManager.invalidateCache(level, source, (int) Math.ceil(Math.sqrt(previous.radiusSq)));
+    }
+
+    /** Returns the summed heater and core warmth at a position. */
+    public static float getWarmth(Level level, BlockPos pos) {
+        Field field = fields.get(level);
+        if (field == null) return 0.0f;
+        int[] values = field.sections.get(SectionPos.asLong(pos));
+        if (values == null) return 0.0f;
+        return values[SectionBitIndex.localIndex(pos.getX(), pos.getY(), pos.getZ())] * 0.5f;
+    }
+
+    private record Stamp(long center, int radiusSq, int units) {}
+
+    private static final class Field {
+        final Long2ObjectOpenHashMap<Stamp> stamps = new Long2ObjectOpenHashMap<>();
+        final Long2ObjectOpenHashMap<int[]> sections = new Long2ObjectOpenHashMap<>();
+        /** Number of stamps touching each section; the section is freed at zero. */
+        final Long2IntOpenHashMap sectionRefs = new Long2IntOpenHashMap();
+
+        /** Adds (sign = 1) or subtracts (sign = -1) a stamp over every voxel it covers. */
+        void apply(Stamp stamp, int sign) {
+            int cx = BlockPos.getX(stamp.center);
+            int cy = BlockPos.getY(stamp.center);
+            int cz = BlockPos.getZ(stamp.center);
+            int radius = (int) Math.floor(Math.sqrt(stamp.radiusSq));
+            int delta = stamp.units * sign;
+
+            for (int sx = (cx - radius) >> 4; sx <= (cx + radius) >> 4; sx++) {
+                for (int sy = (cy - radius) >> 4; sy <= (cy + radius) >> 4; sy++) {
+                    for (int sz = (cz - radius) >> 4; sz <= (cz + radius) >> 4; sz++) {
+                        applySection(stamp, sx, sy, sz, cx, cy, cz, radius, delta, sign);
+                    }
+                }
+            }
+        }
+
+        private void applySection(Stamp stamp, int sx, int sy, int sz, int cx, int cy, int cz,
+                                  int radius, int delta, int sign) {
+            int baseX = sx << 4, baseY = sy << 4, baseZ = sz << 4;
+            int x0 = Math.max(cx - radius, baseX), x1 = Math.min(cx + radius, baseX + 15);
+            int y0 = Math.max(cy - radius, baseY), y1 = Math.min(cy + radius, baseY + 15);
+            int z0 = Math.max(cz - radius, baseZ), z1 = Math.min(cz + radius, baseZ + 15);
+
+            // Skip sections the sphere only grazes by its bounding box
+            int nx = Math.max(x0 - cx, Math.min(0, x1 - cx));
+            int ny = Math.max(y0 - cy, Math.min(0, y1 - cy));
+            int nz = Math.max(z0 - cz, Math.min(0, z1 - cz));
+            if (nx * nx + ny * ny + nz * nz > stamp.radiusSq) return;
+
+            long key = SectionPos.asLong(sx, sy, sz);
+            int[] values = sections.get(key);
+            if (values == null) {
+                if (sign < 0) return;
+                values = new int[4096];
+                sections.put(key, values);
+            }
+
+            for (int y = y0; y <= y1; y++) {
+                int dy = y - cy;
+                for (int z = z0; z <= z1; z++) {
+                    int dz = z - cz;
+                    int rest = stamp.radiusSq - dy * dy - dz * dz;
+                    if (rest < 0) continue;
+                    int rowBase = ((y & 15) << 8) | ((z & 15) << 4);
+                    for (int x = x0; x <= x1; x++) {
+                        int dx = x - cx;
+                        if (dx * dx <= rest) values[rowBase | (x & 15)] += delta;
+                    }
+                }
+            }
+
+            int refs = sectionRefs.addTo(key, sign) + sign;
+            if (refs <= 0) {
+                sectionRefs.remove(key);
+                sections.remove(key);
+            }
+        }
+    }
+}
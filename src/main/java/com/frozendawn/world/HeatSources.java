@@ -0,0 +1,200 @@
+package com.frozendawn.world;
+
+import com.frozendawn.FrozenDawn;
+import com.frozendawn.block.ThermalHeaterBlock;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
+import net.minecraft.tags.TagKey;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.Property;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Data-driven heat source definitions, compiled into a flat lookup table indexed by
+ * BlockState id so the hot paths (chunk seeding, temperature queries) do a single
+ * array read per block instead of a chain of {@code state.is(...)} checks.
+ *
+ * Definitions live in {@code data/<namespace>/heat_sources/*.json}:
+ * <pre>
+ * {
+ *   "block": "minecraft:campfire",        // or "tag": "minecraft:campfires"
+ *   "properties": { "lit": "true" },      // optional, all must match
+ *   "warmth": 25.0,                       // degrees C added within range
+ *   "radius": 5.0,                        // reach in blocks (sheltered / normal)
+ *   "exposed_radius": 3.0                 // optional, reach in phase 5+ without a roof
+ * }
+ * </pre>
+ * Files are applied in resource-location order; later entries override earlier ones
+ * for the same state. The table is compiled once tags are bound (TagsUpdatedEvent),
+ * since tags are not yet resolvable while reload listeners run.
+ */
+public final class HeatSources {
+
+    public static final String DIRECTORY = "heat_sources";
+
+    private static final Codec<Definition> DEFINITION_CODEC = RecordCodecBuilder.create(instance ->
+            instance.group(
+                    ResourceLocation.CODEC.optionalFieldOf("block").forGetter(Definition::block),
+                    TagKey.codec(Registries.BLOCK).optionalFieldOf("tag").forGetter(Definition::tag),
+                    Codec.unboundedMap(Codec.STRING, Codec.STRING).optionalFieldOf("properties", Map.of())
+                            .forGetter(Definition::properties),
+                    Codec.FLOAT.fieldOf("warmth").forGetter(Definition::warmth),
+                    Codec.FLOAT.fieldOf("radius").forGetter(Definition::radius),
+                    Codec.FLOAT.optionalFieldOf("exposed_radius").forGetter(Definition::exposedRadius)
+            ).apply(instance, Definition::new));
+
+    private static volatile List<Definition> definitions = List.of();
+    private static volatile HeatSource[] table = new HeatSource[0];
+    private static volatile int generation = 0;
+    private static volatile int maxAmbientRadius = 0;
+
+    /** Cap on ambient reach so a bad datapack entry can't turn every query into a huge box scan. */
+    private static final int MAX_AMBIENT_RADIUS_CAP = 16;
+
+    private HeatSources() {}
+
+    /**
+     * Compiled heat source for one block state.
+     *
+     * @param radiusSq          max distance-squared reached normally
+     * @param exposedRadiusSq   max distance-squared in phase 5+ when not sheltered (-1 = no penalty)
+     * @param blockEntityManaged true for Thermal Heaters, whose block entity stamps the HeatField;
+     *                           these are excluded from the ambient block index
+     */
+    public record HeatSource(float warmth, float radius, int radiusSq, int exposedRadiusSq,
+                             boolean blockEntityManaged) {
+
+        public int radiusSq(boolean exposed) {
+            return exposed && exposedRadiusSq >= 0 ? exposedRadiusSq : radiusSq;
+        }
+    }
+
+    private record Definition(Optional<ResourceLocation> block, Optional<TagKey<Block>> tag,
+                              Map<String, String> properties, float warmth, float radius,
+                              Optional<Float> exposedRadius) {}
+
+    /** Returns the compiled heat source for a state, or null if it gives off no heat. */
+    @Nullable
+    public static HeatSource get(BlockState state) {
+        HeatSource[] current = table;
+        int id = Block.getId(state);
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /** Bumped every time the table is recompiled; block entities re-stamp when it changes. */
+    public static int getGeneration() {
+        return generation;
+    }
+
+    /** Largest reach of any ambient (non-block-entity) source, used as the index query radius. */
+    public static int getMaxAmbientRadius() {
+        return maxAmbientRadius;
+    }
+
+    /**
+     * Resolves the loaded definitions against the block registry and current tags.
+     * Call after tags are bound.
+     */
+    public static void compile() {
+        HeatSource[] compiled = new HeatSource[Block.BLOCK_STATE_REGISTRY.size()];
+        int entries = 0;
+        int ambientRadius = 0;
+        for (Definition def : definitions) {
+            HeatSource source = new HeatSource(def.warmth(), def.radius(),
+                    Math.round(def.radius() * def.radius()),
+                    def.exposedRadius().map(r -> Math.round(r * r)).orElse(-1),
+                    false);
+            for (Block block : resolveBlocks(def)) {
+                HeatSource forBlock = block instanceof ThermalHeaterBlock
+                        ? new HeatSource(source.warmth(), source.radius(), source.radiusSq(),
+                                source.exposedRadiusSq(), true)
+                        : source;
+                for (BlockState state : block.getStateDefinition().getPossibleStates()) {
+                    if (!matches(state, def.properties())) continue;
+                    compiled[Block.getId(state)] = forBlock;
+                    entries++;
+                    if (!forBlock.blockEntityManaged()) {
+                        ambientRadius = Math.max(ambientRadius, (int) Math.ceil(forBlock.radius()));
+                    }
+                }
+            }
+        }
+        table = compiled;
+        maxAmbientRadius = Math.min(ambientRadius, MAX_AMBIENT_RADIUS_CAP);
+        generation++;
+        TemperatureManager.invalidateCache();
+        FrozenDawn.LOGGER.info("Compiled {} heat source definitions into {} block states",
+                definitions.size(), entries);
+    }
+
+    private static List<Block> resolveBlocks(Definition def) {
+        List<Block> blocks = new ArrayList<>();
+        def.block().ifPresent(id -> BuiltInRegistries.BLOCK.getOptional(id).ifPresentOrElse(blocks::add,
+                () -> FrozenDawn.LOGGER.warn("Heat source references unknown block {}", id)));
+        def.tag().ifPresent(tag -> {
+            for (Holder<Block> holder : BuiltInRegistries.BLOCK.getTagOrEmpty(tag)) {
+                blocks.add(holder.value());
+            }
+        });
+        return blocks;
+    }
+
+    private static boolean matches(BlockState state, Map<String, String> properties) {
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            Property<?> property = state.getBlock().getStateDefinition().getProperty(entry.getKey());
+            if (property == null || !entry.getValue().equals(valueName(state, property))) return false;
+        }
+        return true;
+    }
+
+    private static <T extends Comparable<T>> String valueName(BlockState state, Property<T> property) {
+        return property.getName(state.getValue(property));
+    }
+
+    /** Reload listener for {@code heat_sources/*.json}. Parses only; compiling waits for tags. */
+    public static final class Loader extends SimpleJsonResourceReloadListener {
+
+        private static final Gson GSON = new GsonBuilder().create();
+
+        public Loader() {
+            super(GSON, DIRECTORY);
+        }
+
+        @Override
+        protected void apply(Map<ResourceLocation, JsonElement> files, ResourceManager resourceManager,
+                             ProfilerFiller profiler) {
+            List<Definition> parsed = new ArrayList<>();
+            for (Map.Entry<ResourceLocation, JsonElement> file : new TreeMap<>(files).entrySet()) {
+                DEFINITION_CODEC.parse(JsonOps.INSTANCE, file.getValue())
+                        .resultOrPartial(error -> FrozenDawn.LOGGER.error(
+                                "Invalid heat source {}: {}", file.getKey(), error))
+                        .filter(def -> {
+                            boolean valid = def.block().isPresent() || def.tag().isPresent();
+                            if (!valid) FrozenDawn.LOGGER.error(
+                                    "Heat source {} needs a \"block\" or \"tag\"", file.getKey());
+                            return valid;
+                        })
+                        .ifPresent(parsed::add);
+            }
+            definitions = List.copyOf(parsed);
+        }
+    }
+}
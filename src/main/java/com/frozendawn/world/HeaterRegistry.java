@@ -3,36 +3,46 @@ package com.frozendawn.world;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.Level;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
 
 /**
  * Tracks lit Thermal Heater positions per level for efficient distance lookups.
  * Registered when a heater lights up, unregistered when it burns out or is removed.
- * Eliminates O(r^3) block scanning in TemperatureManager.
+ * Positions are bucketed by chunk, so radius queries only touch nearby heaters.
  */
 public final class HeaterRegistry {
 
-    private static final WeakHashMap<Level, Set<BlockPos>> heaters = new WeakHashMap<>();
+    private static final WeakHashMap<Level, PositionIndex> heaters = new WeakHashMap<>();
 
     private HeaterRegistry() {}
 
     public static void register(Level level, BlockPos pos) {
-        heaters.computeIfAbsent(level, k -> new HashSet<>()).add(pos.immutable());
+        heaters.computeIfAbsent(level, k -> new PositionIndex()).add(pos.asLong());
     }
 
     public static void unregister(Level level, BlockPos pos) {
-        Set<BlockPos> set = heaters.get(level);
-        if (set != null) {
-            set.remove(pos);
-            if (set.isEmpty()) heaters.remove(level);
+        PositionIndex index = heaters.get(level);
+        if (index != null) {
+            index.remove(pos.asLong());
+            if (index.isEmpty()) heaters.remove(level);
         }
     }
 
-    public static Set<BlockPos> getHeaters(Level level) {
-        Set<BlockPos> set = heaters.get(level);
-        return set != null ? set : Collections.emptySet();
+    /** Visits every lit heater within {@code radius} blocks of the center (packed positions). */
+    public static void forEachWithin(Level level, BlockPos center, int radius, LongConsumer action) {
+        PositionIndex index = heaters.get(level);
+        if (index != null) index.forEachWithin(center, radius, action);
+    }
+
+    /** Returns true as soon as a lit heater within {@code radius} blocks matches the predicate. */
+    public static boolean anyWithin(Level level, BlockPos center, int radius, LongPredicate predicate) {
+        PositionIndex index = heaters.get(level);
+        return index != null && index.anyWithin(center, radius, predicate);
+    }
+
+    public static boolean anyWithin(Level level, BlockPos center, int radius) {
+        return anyWithin(level, center, radius, packed -> true);
     }
 }
@@ -0,0 +1,50 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.WeakHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Tracks which chunks are currently loaded per server level (packed ChunkPos longs),
+ * so indexes can be rebuilt in place after a datapack reload without touching
+ * vanilla's chunk map. Maintained by ChunkIndexHandler. Server thread only.
+ */
+public final class LoadedChunks {
+
+    private static final WeakHashMap<Level, LongOpenHashSet> chunks = new WeakHashMap<>();
+
+    private LoadedChunks() {}
+
+    public static void onLoad(Level level, ChunkPos pos) {
+        chunks.computeIfAbsent(level, k -> new LongOpenHashSet()).add(pos.toLong());
+    }
+
+    public static void onUnload(Level level, ChunkPos pos) {
+        LongOpenHashSet set = chunks.get(level);
+        if (set == null) return;
+        set.remove(pos.toLong());
+        if (set.isEmpty()) chunks.remove(level);
+    }
+
+    public static boolean isLoaded(Level level, long chunkPos) {
+        LongOpenHashSet set = chunks.get(level);
+        return set != null && set.contains(chunkPos);
+    }
+
+    public static int count(Level level) {
+        LongOpenHashSet set = chunks.get(level);
+        return set != null ? set.size() : 0;
+    }
+
+    /** Visits every loaded chunk of the level. Takes a snapshot, so the callback may load or unload chunks. */
+    public static void forEach(Level level, LongConsumer consumer) {
+        LongOpenHashSet set = chunks.get(level);
+        if (set == null) return;
+        for (long pos : set.toLongArray()) {
+            consumer.accept(pos);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.frozendawn.world;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gathers the loot of a multi-block removal (a collapsing tree) into as few full
+ * stacks as it fits in, spawned together at one point when the removal is done. A
+ * collapse of 64 logs and leaves then costs a handful of item entities instead of one
+ * per block, so entity load follows the number of trees coming down.
+ *
+ * Usage: begin, then collect each block before removing it without drops, then dropAt.
+ * Server thread only.
+ */
+public final class MergedDrops {
+
+    private static final List<ItemStack> stacks = new ArrayList<>();
+
+    private MergedDrops() {}
+
+    /** Starts a new pile, dropping anything left over from an unfinished one. */
+    static void begin() {
+        stacks.clear();
+    }
+
+    /** Adds what the block would drop if broken by the world (no tool, no entity). */
+    static void collect(ServerLevel level, BlockPos pos, BlockState state) {
+        for (ItemStack drop : Block.getDrops(state, level, pos, level.getBlockEntity(pos))) {
+            add(stacks, drop);
+        }
+    }
+
+    /** Spawns the pile at pos and clears it. */
+    static void dropAt(ServerLevel level, BlockPos pos) {
+        for (ItemStack stack : stacks) {
+            Block.popResource(level, pos, stack);
+        }
+        stacks.clear();
+    }
+
+    /** Tops up the pile's partial stacks of the same item, then starts a new stack with what's left. */
+    static void add(List<ItemStack> stacks, ItemStack drop) {
+        for (ItemStack stack : stacks) {
+            if (drop.isEmpty()) return;
+            if (stack.getCount() >= stack.getMaxStackSize() || !ItemStack.isSameItemSameComponents(stack, drop)) continue;
+            int moved = Math.min(drop.getCount(), stack.getMaxStackSize() - stack.getCount());
+            stack.grow(moved);
+            drop.shrink(moved);
+        }
+        if (!drop.isEmpty()) stacks.add(drop);
+    }
+}
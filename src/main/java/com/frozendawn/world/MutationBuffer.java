@@ -0,0 +1,131 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the world systems' block changes during a tick and applies them together at
+ * the end of it, with the lightest update flags each change allows.
+ *
+ * Each change carries the state it expects to replace. Anything that changed the block
+ * in between (a player, another system, an earlier change in the same buffer) makes it
+ * stale and it is dropped, so two probes hitting one block in a tick apply once.
+ *
+ * Flags: changes between states of one block (snow layers, crystal age) skip neighbour
+ * and shape updates (UPDATE_CLIENTS | UPDATE_KNOWN_SHAPE). So do swaps between full
+ * blocks (stone to frozen stone) when every neighbour is air or a full block, since
+ * nothing there can depend on which block it rests on. Anything else uses UPDATE_ALL:
+ * fluids start flowing, redstone reacts, and plants or snow layers on grass turning
+ * into dead grass pop off if they can't stay. Client packets need no extra work:
+ * ChunkHolder already gathers a tick's changes per section and sends one section update
+ * packet for each.
+ *
+ * Changes are applied in the order queued. The world systems only run in the overworld,
+ * so the buffer belongs to whichever level is flushed. Server thread only.
+ */
+public final class MutationBuffer {
+
+    private static final LongArrayList positions = new LongArrayList();
+    private static final List<BlockState> expected = new ArrayList<>();
+    private static final List<BlockState> targets = new ArrayList<>();
+
+    private static int lastApplied;
+    private static int lastStale;
+    private static int lastMinimal;
+
+    private MutationBuffer() {}
+
+    /** Queues a change from expected to state, applied at the end of the tick. */
+    static void set(BlockPos pos, BlockState expectedState, BlockState state) {
+        positions.add(pos.asLong());
+        expected.add(expectedState);
+        targets.add(state);
+    }
+
+    /** Applies everything queued this tick. Call once after the world systems have run. */
+    public static void flush(ServerLevel level) {
+        int applied = 0;
+        int stale = 0;
+        int minimal = 0;
+        LevelChunk chunk = null;
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        BlockPos.MutableBlockPos neighbor = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < positions.size(); i++) {
+            cursor.set(positions.getLong(i));
+            int chunkX = cursor.getX() >> 4;
+            int chunkZ = cursor.getZ() >> 4;
+            if (chunk == null || chunk.getPos().x != chunkX || chunk.getPos().z != chunkZ) {
+                chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+                if (chunk == null) {
+                    stale++;
+                    continue;
+                }
+            }
+            BlockState oldState = expected.get(i);
+            if (chunk.getBlockState(cursor) != oldState) {
+                stale++;
+                continue;
+            }
+            BlockState newState = targets.get(i);
+            int flags = flagsFor(level, cursor, neighbor, oldState, newState);
+            if (flags != Block.UPDATE_ALL) minimal++;
+            level.setBlock(cursor.immutable(), newState, flags);
+            applied++;
+        }
+        positions.clear();
+        expected.clear();
+        targets.clear();
+        lastApplied = applied;
+        lastStale = stale;
+        lastMinimal = minimal;
+    }
+
+    /** The update flags a change needs: see the class comment. */
+    static int flagsFor(ServerLevel level, BlockPos pos, BlockPos.MutableBlockPos neighbor,
+                        BlockState oldState, BlockState newState) {
+        if (!oldState.getFluidState().isEmpty() || !newState.getFluidState().isEmpty()) return Block.UPDATE_ALL;
+        if (oldState.isSignalSource() || newState.isSignalSource()) return Block.UPDATE_ALL;
+        if (oldState.getBlock() == newState.getBlock()) return Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE;
+        if (!isFullBlock(oldState) || !isFullBlock(newState)) return Block.UPDATE_ALL;
+        for (Direction dir : Direction.values()) {
+            BlockState next = level.getBlockState(neighbor.setWithOffset(pos, dir));
+            if (!next.isAir() && !isFullBlock(next)) return Block.UPDATE_ALL;
+        }
+        return Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE;
+    }
+
+    private static boolean isFullBlock(BlockState state) {
+        return state.isCollisionShapeFullBlock(EmptyBlockGetter.INSTANCE, BlockPos.ZERO);
+    }
+
+    public static int getLastApplied() {
+        return lastApplied;
+    }
+
+    public static int getLastStale() {
+        return lastStale;
+    }
+
+    /** Changes in the last flush that skipped neighbour updates. */
+    public static int getLastMinimal() {
+        return lastMinimal;
+    }
+
+    public static void reset() {
+        positions.clear();
+        expected.clear();
+        targets.clear();
+        lastApplied = 0;
+        lastStale = 0;
+        lastMinimal = 0;
+    }
+}
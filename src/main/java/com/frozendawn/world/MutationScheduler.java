@@ -0,0 +1,242 @@
+package com.frozendawn.world;
+
+import com.frozendawn.config.FrozenDawnConfig;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Time budget for the world mutation systems (freezing, decay, snow, crystals, spawns).
+ *
+ * Each system states its demand for the tick in work units (usually one random sample
+ * of its SamplingArea) and then pulls units through a Run until the demand is met or
+ * its slice of the tick budget runs out. Units left over carry into the lane's next
+ * run as debt, capped at a few runs' worth so a long stall can't snowball.
+ *
+ * A lane may be begun more than once in a tick (a system splitting its work, or two
+ * systems sharing a lane); later runs add their demand and share the time slice that
+ * the first one started.
+ *
+ * Demand is scaled by a density factor taken from the server's average tick time: full
+ * density up to the configured throttle MSPT, falling linearly to MIN_DENSITY at 50 ms.
+ * Everything is random sampling, so thinner sampling just slows the apocalypse down a
+ * little on a struggling server instead of adding to the lag. Lanes whose units are not
+ * samples (Frostbitten spawn attempts) keep full density and are only bounded by time.
+ *
+ * Server thread only.
+ */
+public final class MutationScheduler {
+
+    /** Work lanes and their share of the per-tick budget. Shares sum to 1. */
+    public enum Lane {
+        FREEZER_SURFACE("block_freezer.surface", 0.20),
+        FREEZER_VOLUME("block_freezer.volume", 0.15),
+        VEGETATION_SURFACE("vegetation.surface", 0.10),
+        VEGETATION_TREES("vegetation.trees", 0.20),
+        SNOW("snow", 0.10),
+        ACHERONITE_FORMATION("acheronite.formation", 0.03),
+        ACHERONITE_GROWTH("acheronite.growth", 0.04),
+        ATMOSPHERE_FORMATION("frozen_atmosphere.formation", 0.03),
+        ATMOSPHERE_DEPOSITS("frozen_atmosphere.deposits", 0.02),
+        /** Spawn attempts are not samples: thinning them would stretch the 5-second cadence. */
+        FROSTBITTEN("frostbitten", 0.03, false),
+        CATCH_UP("chunk_catch_up", 0.10);
+
+        private final String id;
+        private final double share;
+        private final boolean throttled;
+
+        Lane(String id, double share) {
+            this(id, share, true);
+        }
+
+        Lane(String id, double share, boolean throttled) {
+            this.id = id;
+            this.share = share;
+            this.throttled = throttled;
+        }
+
+        public String id() {
+            return id;
+        }
+    }
+
+    /** Lowest sampling density at 50 ms/tick. */
+    private static final double MIN_DENSITY = 0.1;
+    private static final double FULL_TICK_MS = 50.0;
+    /** Debt is capped at this many runs' worth of demand; anything beyond is dropped. */
+    private static final int MAX_CARRY_RUNS = 3;
+    /** Units between clock reads; System.nanoTime is cheap but not free. */
+    private static final int CLOCK_STRIDE = 8;
+
+    private static final Map<Lane, Run> runs = new EnumMap<>(Lane.class);
+    private static double density = 1.0;
+    private static long tickBudgetNanos;
+    /** The server tick lanes are running in, so a lane can tell a new tick from a second run in the same one. */
+    private static long tick = -1;
+
+    static {
+        for (Lane lane : Lane.values()) runs.put(lane, new Run(lane));
+    }
+
+    private MutationScheduler() {}
+
+    /** Reads the server's MSPT and the configured budget. Call once per tick before any lane runs. */
+    public static void beginTick(MinecraftServer server) {
+        beginTick(server.getAverageTickTimeNanos() / 1_000_000.0, FrozenDawnConfig.THROTTLE_MSPT.get(),
+                FrozenDawnConfig.WORLD_TICK_BUDGET_MICROS.get() * 1000L, server.getTickCount());
+    }
+
+    /** beginTick with the MSPT, throttle and budget already read. */
+    static void beginTick(double mspt, double throttleMs, long budgetNanos, long serverTick) {
+        density = densityAt(mspt, throttleMs);
+        tickBudgetNanos = budgetNanos;
+        tick = serverTick;
+    }
+
+    /** Full density up to the throttle MSPT, falling linearly to MIN_DENSITY at 50 ms. */
+    static double densityAt(double mspt, double throttleMs) {
+        if (mspt <= throttleMs) return 1.0;
+        double t = Math.min(1.0, (mspt - throttleMs) / Math.max(1.0, FULL_TICK_MS - throttleMs));
+        return 1.0 - t * (1.0 - MIN_DENSITY);
+    }
+
+    /**
+     * Ties runs made while the level ticks (random-tick mode), before this tick's
+     * beginTick, to the current server tick, so they and the runs after them share each
+     * lane's time slice. Density and budget are the ones beginTick last read.
+     */
+    public static void syncTick(MinecraftServer server) {
+        tick = server.getTickCount();
+    }
+
+    /**
+     * Adds this tick's demand (scaled by density on throttled lanes) to the lane's debt and starts its clock,
+     * or keeps the clock running if the lane already ran this tick. Pass 0 to only work
+     * off carried-over debt.
+     */
+    public static Run begin(Lane lane, double demand) {
+        Run run = runs.get(lane);
+        run.start(lane.throttled ? demand * density : demand, (long) (tickBudgetNanos * lane.share), tick);
+        return run;
+    }
+
+    public static double getDensity() {
+        return density;
+    }
+
+    public static Run stats(Lane lane) {
+        return runs.get(lane);
+    }
+
+    public static void reset() {
+        for (Run run : runs.values()) run.clear();
+        density = 1.0;
+    }
+
+    /** One lane's work for the current tick, plus its running totals. */
+    public static final class Run {
+        private final Lane lane;
+        private double debt;
+        /** Whole demand of the last tick that had any; the debt cap follows it. */
+        private double peakDemand;
+        /** Demand added by this tick's runs so far. */
+        private double tickDemand;
+        private int cursor;
+        private long deadline;
+        private int ran;
+        /** Units of this tick already added to the totals by an earlier end(). */
+        private int recorded;
+        private long startedTick = -1;
+
+        private int lastRan;
+        private long totalRan;
+        private long totalDropped;
+
+        private Run(Lane lane) {
+            this.lane = lane;
+        }
+
+        private void start(double demand, long budgetNanos, long tick) {
+            if (startedTick != tick) {
+                if (tickDemand > 0) peakDemand = tickDemand;
+                startedTick = tick;
+                tickDemand = 0;
+                ran = 0;
+                recorded = 0;
+                deadline = System.nanoTime() + budgetNanos;
+            }
+            tickDemand += demand;
+            debt += demand;
+            double cap = Math.max(peakDemand, tickDemand) * MAX_CARRY_RUNS;
+            if (debt > cap) {
+                totalDropped += (long) (debt - cap);
+                debt = cap;
+            }
+        }
+
+        /** Claims the next unit. False once the debt is paid or the lane's time slice is spent. */
+        public boolean next() {
+            if (debt < 1.0) return false;
+            if (ran % CLOCK_STRIDE == 0 && ran > 0 && System.nanoTime() >= deadline) return false;
+            debt -= 1.0;
+            ran++;
+            return true;
+        }
+
+        /**
+         * Round-robin index into n targets (usually players). The cursor persists across
+         * ticks, so deferred units resume where the last run stopped.
+         */
+        public int nextIndex(int n) {
+            return Math.floorMod(cursor++, n);
+        }
+
+        /** Drops the debt carried from earlier runs, for work that no longer exists. */
+        public void clearDebt() {
+            debt = 0;
+        }
+
+        /** Records the run's totals. Call after the last next(). */
+        public void end() {
+            lastRan = ran;
+            totalRan += ran - recorded;
+            recorded = ran;
+        }
+
+        private void clear() {
+            debt = 0;
+            peakDemand = 0;
+            tickDemand = 0;
+            cursor = 0;
+            ran = 0;
+            recorded = 0;
+            startedTick = -1;
+            lastRan = 0;
+            totalRan = 0;
+            totalDropped = 0;
+        }
+
+        public Lane lane() {
+            return lane;
+        }
+
+        /** Units carried into the next run. */
+        public int getDeferred() {
+            return (int) debt;
+        }
+
+        public int getLastRan() {
+            return lastRan;
+        }
+
+        public long getTotalRan() {
+            return totalRan;
+        }
+
+        public long getTotalDropped() {
+            return totalDropped;
+        }
+    }
+}
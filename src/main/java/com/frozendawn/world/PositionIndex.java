@@ -0,0 +1,133 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Chunk-bucketed set of block positions, stored as packed longs (BlockPos.asLong).
+ * Radius queries only visit the chunk columns overlapping the query sphere,
+ * so lookup cost scales with nearby entries rather than the whole level.
+ *
+ * Not thread-safe — server thread only.
+ */
+final class PositionIndex {
+
+    private final Long2ObjectOpenHashMap<LongOpenHashSet> buckets = new Long2ObjectOpenHashMap<>();
+    private int size;
+
+    boolean add(long packedPos) {
+        long chunkKey = chunkKey(packedPos);
+        LongOpenHashSet bucket = buckets.get(chunkKey);
+        if (bucket == null) {
+            bucket = new LongOpenHashSet(4);
+            buckets.put(chunkKey, bucket);
+        }
+        if (bucket.add(packedPos)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    boolean remove(long packedPos) {
+        long chunkKey = chunkKey(packedPos);
+        LongOpenHashSet bucket = buckets.get(chunkKey);
+        if (bucket == null || !bucket.remove(packedPos)) return false;
+        if (bucket.isEmpty()) buckets.remove(chunkKey);
+        size--;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Visits every entry within {@code radius} blocks (distSqr, block corners) of the center. */
+    void forEachWithin(BlockPos center, int radius, LongConsumer action) {
+        anyWithin(center, radius, packed -> {
+            action.accept(packed);
+            return false;
+        });
+    }
+
+    /**
+     * Visits entries within {@code radius} blocks of the center until the predicate returns true.
+     *
+     * @return true if the predicate matched an entry (iteration stopped early)
+     */
+    boolean anyWithin(BlockPos center, int radius, LongPredicate predicate) {
+        if (size == 0) return false;
+        int cx = center.getX();
+        int cy = center.getY();
+        int cz = center.getZ();
+        long radiusSq = (long) radius * radius;
+        int minChunkX = SectionPos.blockToSectionCoord(cx - radius);
+        int maxChunkX = SectionPos.blockToSectionCoord(cx + radius);
+        int minChunkZ = SectionPos.blockToSectionCoord(cz - radius);
+        int maxChunkZ = SectionPos.blockToSectionCoord(cz + radius);
+
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                LongOpenHashSet bucket = buckets.get(ChunkPos.asLong(chunkX, chunkZ));
+                if (bucket == null) continue;
+                LongIterator it = bucket.iterator();
+                while (it.hasNext()) {
+                    long packed = it.nextLong();
+                    long dx = BlockPos.getX(packed) - cx;
+                    long dy = BlockPos.getY(packed) - cy;
+                    long dz = BlockPos.getZ(packed) - cz;
+                    if (dx * dx + dy * dy + dz * dz <= radiusSq && predicate.test(packed)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Appends the entries in one chunk column to out (a copy, so callers may modify the index). */
+    void copyChunk(long chunkKey, LongArrayList out) {
+        LongOpenHashSet bucket = buckets.get(chunkKey);
+        if (bucket != null) out.addAll(bucket);
+    }
+
+    /** Drops every entry in one chunk column (on chunk unload). */
+    void removeChunk(long chunkKey) {
+        LongOpenHashSet bucket = buckets.remove(chunkKey);
+        if (bucket != null) size -= bucket.size();
+    }
+
+    void clear() {
+        buckets.clear();
+        size = 0;
+    }
+
+    /** Visits every entry in the index. */
+    void forEach(LongConsumer action) {
+        for (Long2ObjectMap.Entry<LongOpenHashSet> entry : buckets.long2ObjectEntrySet()) {
+            LongIterator it = entry.getValue().iterator();
+            while (it.hasNext()) {
+                action.accept(it.nextLong());
+            }
+        }
+    }
+
+    private static long chunkKey(long packedPos) {
+        return ChunkPos.asLong(
+                SectionPos.blockToSectionCoord(BlockPos.getX(packedPos)),
+                SectionPos.blockToSectionCoord(BlockPos.getZ(packedPos)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.frozendawn.world;
+
+import com.frozendawn.config.FrozenDawnConfig;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+/**
+ * Random-tick mode: freezing and vegetation decay probe each chunk while vanilla
+ * random-ticks it (ServerLevelMixin, at the end of ServerLevel.tickChunk) instead of
+ * running their own sampling loops. The chunk is already loaded and in hand, so the
+ * probes skip the area collection, heightmap lookups through the level and isLoaded
+ * checks, and cover every chunk within simulation distance.
+ *
+ * Vanilla's own picks can't be reused as they are: sections of plain water or logs are
+ * never random-ticked, and three picks per section would freeze the world within a
+ * day. Each system instead takes its own picks in the chunk at the density its
+ * sampling passes would have given it, scaled by the randomTickSpeed gamerule (so 0
+ * stops the world changing, as it stops crops).
+ *
+ * The probes run under the same MutationScheduler lanes as the sampling passes. All
+ * the chunks ticked in one server tick draw on one time slice per lane; probes a chunk
+ * couldn't fit carry over as lane debt and are taken in the chunks ticked after it.
+ *
+ * The systems still work out their stage in their regular tick, which skips the
+ * sampling when this mode is on. Tree decay isn't sampled (it visits TreeRegistry's
+ * trees), so it runs the same in both modes. Server thread only.
+ */
+public final class RandomTicks {
+
+    /** Vanilla's default randomTickSpeed, at which the densities match the sampling passes. */
+    private static final int DEFAULT_SPEED = 3;
+    /** The sampling passes run every other tick. */
+    private static final int RUN_INTERVAL = 2;
+
+    private RandomTicks() {}
+
+    /** Called by ServerLevelMixin for every chunk ServerLevel.tickChunk handles. */
+    public static void tickChunk(ServerLevel level, LevelChunk chunk, int randomTickSpeed) {
+        if (randomTickSpeed <= 0 || level.dimension() != Level.OVERWORLD) return;
+        if (!FrozenDawnConfig.RANDOM_TICK_MODE.get()) return;
+        MutationScheduler.syncTick(level.getServer());
+        BlockFreezer.randomTickChunk(level, chunk, randomTickSpeed);
+        VegetationDecay.randomTickChunk(level, chunk, randomTickSpeed);
+    }
+
+    /**
+     * Factor turning a system's checks per player square per run into probes per chunk
+     * per game tick, before density (MutationScheduler.begin applies it).
+     */
+    static double probeScale(int radius, int randomTickSpeed) {
+        return SamplingArea.perChunk(radius, 1) * randomTickSpeed / (DEFAULT_SPEED * RUN_INTERVAL);
+    }
+
+    /** A whole number of probes with the given expectation: the fraction is rounded at random. */
+    static int probes(double expected, RandomSource random) {
+        int whole = (int) expected;
+        return random.nextDouble() < expected - whole ? whole + 1 : whole;
+    }
+}
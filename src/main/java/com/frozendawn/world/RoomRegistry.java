@@ -0,0 +1,316 @@
+package com.frozendawn.world;
+
+import com.frozendawn.init.ModBlocks;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.DoorBlock;
+import net.minecraft.world.level.block.TrapDoorBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.WeakHashMap;
+
+/**
+ * Room (habitat) detection backed by flood-filled air volumes.
+ *
+ * The first enclosure or shelter query at a position flood-fills the connected air
+ * around it, up to MAX_ROOM_VOLUME cells. A fill that closes off is a sealed room: it
+ * gets a room ID, every cell is recorded per chunk, and all later queries inside it
+ * are a map lookup. A fill that escapes (too big, reaches an unloaded chunk) is
+ * recorded as an open region, and the old roof/wall probes are cached per cell in it.
+ *
+ * Any block change on or next to a recorded cell drops that room (via BlockChangeBus,
+ * which sees every chunk write); the next query re-fills it. A probe result is only
+ * cached when every air cell the probe passes through belongs to the region, so the
+ * same invalidation covers it. Callers that keep their own copy of a verdict (heaters,
+ * player temperatures) can watch the room or region and hear when it is dropped.
+ *
+ * Works on both logical sides; each side keeps its own map so the client and the
+ * integrated server never share state.
+ */
+public final class RoomRegistry {
+
+    /** Largest air volume still treated as a sealed room. */
+    public static final int MAX_ROOM_VOLUME = 2048;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final byte ENCLOSED_KNOWN = 1;
+    private static final byte ENCLOSED = 2;
+    private static final byte ROOF_KNOWN = 4;
+    private static final byte ROOF = 8;
+
+    private static final WeakHashMap<Level, Rooms> serverRooms = new WeakHashMap<>();
+    private static final WeakHashMap<Level, Rooms> clientRooms = new WeakHashMap<>();
+
+    private RoomRegistry() {}
+
+    /** Enclosed = inside a sealed room, or roof within 4 and a wall within 10 on every side. */
+    public static boolean isEnclosed(Level level, BlockPos pos) {
+        return query(level, pos, ENCLOSED_KNOWN, ENCLOSED);
+    }
+
+    /** Sheltered = inside a sealed room, or a roof within 4 blocks overhead. */
+    public static boolean isSheltered(Level level, BlockPos pos) {
+        return query(level, pos, ROOF_KNOWN, ROOF);
+    }
+
+    /** Returns the ID of the sealed room containing this position, or 0 if there is none. */
+    public static int getRoomId(Level level, BlockPos pos) {
+        if (blocksAir(level, pos)) return 0;
+        Rooms rooms = rooms(level);
+        Region region = rooms.regionAt(pos.asLong());
+        if (region == null) region = rooms.fill(level, pos);
+        return region.sealed ? region.id : 0;
+    }
+
+    /**
+     * Runs onDrop once when the sealed room or open region containing pos is dropped (a
+     * block in or around it changed, or its chunk unloaded). Only looks up an existing
+     * region; returns false without watching if pos is not inside one.
+     */
+    public static boolean watchRoom(Level level, BlockPos pos, Runnable onDrop) {
+        Rooms rooms = map(level).get(level);
+        if (rooms == null) return false;
+        Region region = rooms.regionAt(pos.asLong());
+        if (region == null) return false;
+        if (region.dropWatchers == null) region.dropWatchers = new ArrayList<>(1);
+        if (!region.dropWatchers.contains(onDrop)) region.dropWatchers.add(onDrop);
+        return true;
+    }
+
+    /** Drops any room containing or bordering the changed position. */
+    public static void onBlockChanged(Level level, BlockPos pos) {
+        Rooms rooms = map(level).get(level);
+        if (rooms == null) return;
+        long key = pos.asLong();
+        rooms.removeAt(level, key);
+        for (Direction dir : DIRECTIONS) {
+            rooms.removeAt(level, BlockPos.offset(key, dir));
+        }
+    }
+
+    public static void onChunkUnload(Level level, ChunkPos chunkPos) {
+        Rooms rooms = map(level).get(level);
+        if (rooms == null) return;
+        Long2IntOpenHashMap cells = rooms.cellsByChunk.get(chunkPos.toLong());
+        if (cells == null) return;
+        for (int id : new IntOpenHashSet(cells.values())) {
+            rooms.remove(level, id);
+        }
+    }
+
+    /** True if the block seals air: full solid blocks, insulated glass, and closed doors/trapdoors. */
+    static boolean blocksAir(Level level, BlockPos pos) {
+        BlockState state = level.getBlockState(pos);
+        if (state.isSolidRender(level, pos) || state.is(ModBlocks.INSULATED_GLASS.get())) return true;
+        if (state.getBlock() instanceof DoorBlock || state.getBlock() instanceof TrapDoorBlock) {
+            return !state.getValue(BlockStateProperties.OPEN);
+        }
+        return state.isCollisionShapeFullBlock(level, pos);
+    }
+
+    private static boolean query(Level level, BlockPos pos, byte knownBit, byte valueBit) {
+        boolean enclosure = knownBit == ENCLOSED_KNOWN;
+        if (blocksAir(level, pos)) {
+            return enclosure ? TemperatureManager.probeEnclosed(level, pos) : TemperatureManager.probeRoof(level, pos);
+        }
+
+        Rooms rooms = rooms(level);
+        long key = pos.asLong();
+        Region region = rooms.regionAt(key);
+        if (region == null) {
+            // Open sky with no roof overhead can't be enclosed or sheltered; skip the fill
+            if (level.canSeeSky(pos) && !TemperatureManager.probeRoof(level, pos)) return false;
+            region = rooms.fill(level, pos);
+        }
+        if (region.sealed) return true;
+
+        byte verdict = region.verdicts.get(key);
+        if ((verdict & knownBit) != 0) return (verdict & valueBit) != 0;
+
+        boolean result = enclosure ? TemperatureManager.probeEnclosed(level, pos) : TemperatureManager.probeRoof(level, pos);
+        if (probeStaysInside(rooms, level, pos, region.id, enclosure)) {
+            verdict |= knownBit;
+            if (result) verdict |= valueBit;
+            region.verdicts.put(key, verdict);
+        }
+        return result;
+    }
+
+    /**
+     * True if every air cell the roof (and, for enclosure, wall) probe passes through
+     * is part of the region. The block each ray stops at is then adjacent to a region
+     * cell, so any change the probe depends on drops the region and its cached verdict.
+     */
+    private static boolean probeStaysInside(Rooms rooms, Level level, BlockPos pos, int regionId, boolean walls) {
+        if (!rayStaysInside(rooms, level, pos, Direction.UP, 4, regionId)) return false;
+        if (!walls) return true;
+        for (Direction dir : Direction.Plane.HORIZONTAL) {
+            if (!rayStaysInside(rooms, level, pos, dir, 10, regionId)) return false;
+        }
+        return true;
+    }
+
+    private static boolean rayStaysInside(Rooms rooms, Level level, BlockPos pos, Direction dir, int length, int regionId) {
+        BlockPos.MutableBlockPos cursor = pos.mutable();
+        for (int i = 1; i <= length; i++) {
+            cursor.move(dir);
+            BlockState state = level.getBlockState(cursor);
+            if (state.isSolidRender(level, cursor) || state.is(ModBlocks.INSULATED_GLASS.get())) return true;
+            if (rooms.idAt(cursor.asLong()) != regionId) return false;
+        }
+        return true;
+    }
+
+    private static WeakHashMap<Level, Rooms> map(Level level) {
+        return level.isClientSide() ? clientRooms : serverRooms;
+    }
+
+    private static Rooms rooms(Level level) {
+        return map(level).computeIfAbsent(level, k -> new Rooms());
+    }
+
+    private static final class Region {
+        final int id;
+        final boolean sealed;
+        final long[] cells;
+        /** Cached roof/wall probe results per cell (open regions only). */
+        final Long2ByteOpenHashMap verdicts = new Long2ByteOpenHashMap();
+        /** Run when the region is dropped (see watchRoom); null until something watches. */
+        List<Runnable> dropWatchers;
+
+        Region(int id, boolean sealed, long[] cells) {
+            this.id = id;
+            this.sealed = sealed;
+            this.cells = cells;
+        }
+    }
+
+    private static final class Rooms {
+        final Int2ObjectOpenHashMap<Region> regions = new Int2ObjectOpenHashMap<>();
+        /** Room ID per air cell, bucketed by chunk (packed ChunkPos → packed BlockPos → ID). */
+        final Long2ObjectOpenHashMap<Long2IntOpenHashMap> cellsByChunk = new Long2ObjectOpenHashMap<>();
+        int nextId = 1;
+
+        Region regionAt(long pos) {
+            int id = idAt(pos);
+            return id != 0 ? regions.get(id) : null;
+        }
+
+        int idAt(long pos) {
+            Long2IntOpenHashMap cells = cellsByChunk.get(chunkKey(pos));
+            return cells != null ? cells.get(pos) : 0;
+        }
+
+        void removeAt(Level level, long pos) {
+            int id = idAt(pos);
+            if (id != 0) remove(level, id);
+        }
+
+        void remove(Level level, int id) {
+            Region region = regions.remove(id);
+            if (region == null) return;
+            // A sealed room shelters every cell in it, and the ambient sources inside it from
+            // wind, so its reach is its bounds plus the widest ambient source; an open
+            // region's cached verdicts only fed the temperatures of its own cells
+            if (region.sealed) {
+                int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+                int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+                for (long cell : region.cells) {
+                    minX = Math.min(minX, BlockPos.getX(cell));
+                    minY = Math.min(minY, BlockPos.getY(cell));
+                    minZ = Math.min(minZ, BlockPos.getZ(cell));
+                    maxX = Math.max(maxX, BlockPos.getX(cell));
+                    maxY = Math.max(maxY, BlockPos.getY(cell));
+                    maxZ = Math.max(maxZ, BlockPos.getZ(cell));
+                }
+                int reach = HeatSources.getMaxAmbientRadius();
+                TemperatureManager.invalidateCache(level, minX - reach, minY - reach, minZ - reach,
+                        maxX + reach, maxY + reach, maxZ + reach);
+            } else {
+                TemperatureManager.invalidateCache(level, region.cells);
+            }
+            for (long cell : region.cells) {
+                long chunk = chunkKey(cell);
+                Long2IntOpenHashMap cells = cellsByChunk.get(chunk);
+                if (cells == null) continue;
+                cells.remove(cell);
+                if (cells.isEmpty()) cellsByChunk.remove(chunk);
+            }
+            if (region.dropWatchers != null) {
+                for (Runnable watcher : region.dropWatchers) watcher.run();
+            }
+        }
+
+        /**
+         * Flood-fills the air connected to start. Stops as soon as the fill proves the
+         * space open: too many cells, world bounds, an unloaded chunk, or a cell that
+         * already belongs to a known open region.
+         */
+        Region fill(Level level, BlockPos start) {
+            LongOpenHashSet visited = new LongOpenHashSet();
+            LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+            BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+            int minY = level.getMinBuildHeight();
+            int maxY = level.getMaxBuildHeight();
+            boolean sealed = true;
+
+            visited.add(start.asLong());
+            queue.enqueue(start.asLong());
+            search:
+            while (!queue.isEmpty()) {
+                long cell = queue.dequeueLong();
+                for (Direction dir : DIRECTIONS) {
+                    long next = BlockPos.offset(cell, dir);
+                    if (visited.contains(next)) continue;
+                    int y = BlockPos.getY(next);
+                    cursor.set(next);
+                    if (y < minY || y >= maxY || !level.isLoaded(cursor)) {
+                        sealed = false;
+                        break search;
+                    }
+                    if (blocksAir(level, cursor)) continue;
+                    Region other = regionAt(next);
+                    if (other != null) {
+                        // A sealed room can't border this air unless it's stale; an open one means we're open too
+                        if (other.sealed) {
+                            remove(level, other.id);
+                        } else {
+                            sealed = false;
+                            break search;
+                        }
+                    }
+                    if (visited.size() >= MAX_ROOM_VOLUME) {
+                        sealed = false;
+                        break search;
+                    }
+                    visited.add(next);
+                    queue.enqueue(next);
+                }
+            }
+
+            Region region = new Region(nextId++, sealed, visited.toLongArray());
+            regions.put(region.id, region);
+            for (long cell : region.cells) {
+                cellsByChunk.computeIfAbsent(chunkKey(cell), k -> new Long2IntOpenHashMap()).put(cell, region.id);
+            }
+            return region;
+        }
+
+        private static long chunkKey(long pos) {
+            return ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4);
+        }
+    }
+}
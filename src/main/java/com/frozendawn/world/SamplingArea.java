@@ -0,0 +1,92 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * The area the world systems simulate: the union of loaded chunks within some radius
+ * of any player, deduplicated so overlapping players share one area.
+ *
+ * Systems budget their samples per chunk of this area rather than per player, so
+ * twenty players in one base cost (and change the world) about as much as one player
+ * there, and cost grows with the simulated area instead of the player count. Densities
+ * are still written as "checks per player square" (the (2r+1)² box a lone player used
+ * to sample); demand() converts that to the same density over the union.
+ *
+ * Areas are cached per radius for the current tick. Server thread only.
+ */
+public final class SamplingArea {
+
+    private static final Int2ObjectOpenHashMap<long[]> cache = new Int2ObjectOpenHashMap<>();
+    private static ServerLevel cachedLevel;
+    private static long cachedTick = Long.MIN_VALUE;
+
+    private SamplingArea() {}
+
+    /** Packed ChunkPos of every loaded chunk within radius blocks (rounded up to chunks) of a player. */
+    public static long[] chunksNear(ServerLevel level, int radius) {
+        long tick = level.getGameTime();
+        if (level != cachedLevel || tick != cachedTick) {
+            cache.clear();
+            cachedLevel = level;
+            cachedTick = tick;
+        }
+        long[] chunks = cache.get(radius);
+        if (chunks == null) {
+            chunks = collect(level, chunkRadius(radius));
+            cache.put(radius, chunks);
+        }
+        return chunks;
+    }
+
+    /**
+     * Samples to take over the area so its density matches a lone player taking
+     * checksPerPlayer samples in their own square of the given radius.
+     */
+    public static double demand(long[] chunks, int radius, int checksPerPlayer) {
+        return perChunk(radius, checksPerPlayer) * chunks.length;
+    }
+
+    /** demand() for a single chunk of the area. */
+    public static double perChunk(int radius, int checksPerPlayer) {
+        int side = 2 * chunkRadius(radius) + 1;
+        return (double) checksPerPlayer / (side * side);
+    }
+
+    /** Sets out's X and Z to a uniformly random column of the area. Y is left unchanged. */
+    public static void randomColumn(long[] chunks, RandomSource random, BlockPos.MutableBlockPos out) {
+        long chunk = chunks[random.nextInt(chunks.length)];
+        out.setX((ChunkPos.getX(chunk) << 4) + random.nextInt(16));
+        out.setZ((ChunkPos.getZ(chunk) << 4) + random.nextInt(16));
+    }
+
+    public static void reset() {
+        cache.clear();
+        cachedLevel = null;
+        cachedTick = Long.MIN_VALUE;
+    }
+
+    private static int chunkRadius(int radius) {
+        return (radius + 15) >> 4;
+    }
+
+    private static long[] collect(ServerLevel level, int chunkRadius) {
+        LongOpenHashSet union = new LongOpenHashSet();
+        for (ServerPlayer player : level.players()) {
+            int cx = player.getBlockX() >> 4;
+            int cz = player.getBlockZ() >> 4;
+            for (int dx = -chunkRadius; dx <= chunkRadius; dx++) {
+                for (int dz = -chunkRadius; dz <= chunkRadius; dz++) {
+                    long key = ChunkPos.asLong(cx + dx, cz + dz);
+                    if (LoadedChunks.isLoaded(level, key)) union.add(key);
+                }
+            }
+        }
+        return union.toLongArray();
+    }
+}
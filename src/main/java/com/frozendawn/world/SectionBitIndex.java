@@ -0,0 +1,142 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Sparse set of block positions stored as one 4096-bit mask per 16x16x16 section.
+ * Suited to dense, fixed-position sources (lava pools, magma, fire): memory is bounded
+ * at 512 bytes per occupied section, and box queries read one 16-bit row per (y, z)
+ * instead of one block state per position.
+ *
+ * Bit layout matches vanilla section indexing: (y << 8) | (z << 4) | x.
+ * Not thread-safe — server thread only.
+ */
+final class SectionBitIndex {
+
+    private static final int WORDS_PER_SECTION = 4096 / 64;
+
+    private final Long2ObjectOpenHashMap<long[]> sections = new Long2ObjectOpenHashMap<>();
+
+    static int localIndex(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    /** Allocates an empty mask for building a section in bulk (see {@link #putSection}). */
+    static long[] newMask() {
+        return new long[WORDS_PER_SECTION];
+    }
+
+    boolean add(BlockPos pos) {
+        long key = SectionPos.asLong(
+                SectionPos.blockToSectionCoord(pos.getX()),
+                SectionPos.blockToSectionCoord(pos.getY()),
+                SectionPos.blockToSectionCoord(pos.getZ()));
+        long[] bits = sections.get(key);
+        if (bits == null) {
+            bits = newMask();
+            sections.put(key, bits);
+        }
+        int index = localIndex(pos.getX(), pos.getY(), pos.getZ());
+        long bit = 1L << (index & 63);
+        if ((bits[index >>> 6] & bit) != 0) return false;
+        bits[index >>> 6] |= bit;
+        return true;
+    }
+
+    boolean remove(BlockPos pos) {
+        long key = SectionPos.asLong(
+                SectionPos.blockToSectionCoord(pos.getX()),
+                SectionPos.blockToSectionCoord(pos.getY()),
+                SectionPos.blockToSectionCoord(pos.getZ()));
+        long[] bits = sections.get(key);
+        if (bits == null) return false;
+        int index = localIndex(pos.getX(), pos.getY(), pos.getZ());
+        long bit = 1L << (index & 63);
+        if ((bits[index >>> 6] & bit) == 0) return false;
+        bits[index >>> 6] &= ~bit;
+        if (isEmpty(bits)) sections.remove(key);
+        return true;
+    }
+
+    boolean contains(BlockPos pos) {
+        long[] bits = sections.get(SectionPos.asLong(
+                SectionPos.blockToSectionCoord(pos.getX()),
+                SectionPos.blockToSectionCoord(pos.getY()),
+                SectionPos.blockToSectionCoord(pos.getZ())));
+        if (bits == null) return false;
+        int index = localIndex(pos.getX(), pos.getY(), pos.getZ());
+        return (bits[index >>> 6] & (1L << (index & 63))) != 0;
+    }
+
+    /** Replaces a whole section's mask. An empty or null mask clears the section. */
+    void putSection(long sectionKey, long[] bits) {
+        if (bits == null || isEmpty(bits)) {
+            sections.remove(sectionKey);
+        } else {
+            sections.put(sectionKey, bits);
+        }
+    }
+
+    /** Drops every section of a chunk column (on chunk unload). */
+    void removeChunk(int chunkX, int chunkZ, int minSectionY, int maxSectionY) {
+        for (int sy = minSectionY; sy <= maxSectionY; sy++) {
+            sections.remove(SectionPos.asLong(chunkX, sy, chunkZ));
+        }
+    }
+
+    boolean isEmpty() {
+        return sections.isEmpty();
+    }
+
+    /**
+     * Visits set positions inside the inclusive box until the predicate returns true.
+     *
+     * @return true if the predicate matched a position (iteration stopped early)
+     */
+    boolean anyInBox(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, LongPredicate predicate) {
+        if (sections.isEmpty()) return false;
+        for (int sx = minX >> 4; sx <= maxX >> 4; sx++) {
+            int baseX = sx << 4;
+            int lx0 = Math.max(minX, baseX) - baseX;
+            int lx1 = Math.min(maxX, baseX + 15) - baseX;
+            int rowMask = ((1 << (lx1 + 1)) - 1) & ~((1 << lx0) - 1);
+            for (int sz = minZ >> 4; sz <= maxZ >> 4; sz++) {
+                int baseZ = sz << 4;
+                int lz0 = Math.max(minZ, baseZ) - baseZ;
+                int lz1 = Math.min(maxZ, baseZ + 15) - baseZ;
+                for (int sy = minY >> 4; sy <= maxY >> 4; sy++) {
+                    long[] bits = sections.get(SectionPos.asLong(sx, sy, sz));
+                    if (bits == null) continue;
+                    int baseY = sy << 4;
+                    int ly0 = Math.max(minY, baseY) - baseY;
+                    int ly1 = Math.min(maxY, baseY + 15) - baseY;
+                    for (int ly = ly0; ly <= ly1; ly++) {
+                        for (int lz = lz0; lz <= lz1; lz++) {
+                            int rowIndex = (ly << 8) | (lz << 4);
+                            int row = (int) (bits[rowIndex >>> 6] >>> (rowIndex & 63)) & rowMask;
+                            while (row != 0) {
+                                int lx = Integer.numberOfTrailingZeros(row);
+                                row &= row - 1;
+                                if (predicate.test(BlockPos.asLong(baseX + lx, baseY + ly, baseZ + lz))) {
+                                    return true;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isEmpty(long[] bits) {
+        for (long word : bits) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+}
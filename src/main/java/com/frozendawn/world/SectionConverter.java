@@ -0,0 +1,101 @@
+package com.frozendawn.world;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.lighting.LightEngine;
+
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Rewrites many blocks of one chunk section in a single pass, for section-wide
+ * freezing steps (a frozen lake packing down, an ore body freezing).
+ *
+ * Writes go straight into the section and skip what setBlock would do per block:
+ * neighbour updates, shape updates, onPlace/onRemove, fluid ticks. That is only safe
+ * for swaps between plain full blocks without block entities, such as ice to packed
+ * ice or magma to obsidian. Fluids must not be mapped here: water or lava turning solid
+ * has to update the fluid next to it, so callers leave them to setBlock.
+ * What still has to happen is done here: heightmaps are updated, light is rechecked
+ * only where emission or opacity differs, and each change goes to ChunkHolder, which
+ * batches a section's changes into one section update packet per tick. Changes are
+ * also reported to BlockChangeBus so rooms, heat sources and watermarks stay correct.
+ *
+ * The palette itself can't be remapped in place: it is private, and resizes and
+ * global palettes share entries between states. The rewrite therefore reads all
+ * 4096 entries, but does no world lookups and fires no updates.
+ */
+final class SectionConverter {
+
+    private SectionConverter() {}
+
+    /** A mapping that may depend on where the block is (section-local coordinates). */
+    @FunctionalInterface
+    interface PositionalMapping {
+        BlockState apply(int x, int y, int z, BlockState state);
+    }
+
+    /** Counts the blocks in a section the mapping would change. */
+    static int countConvertible(LevelChunkSection section, UnaryOperator<BlockState> mapping) {
+        if (section.hasOnlyAir()) return 0;
+        int[] total = {0};
+        section.getStates().count((state, count) -> {
+            BlockState next = mapping.apply(state);
+            if (next != null && next != state) total[0] += count;
+        });
+        return total[0];
+    }
+
+    /**
+     * Replaces every block in the section for which the mapping returns a different
+     * state (null = leave as is). Server thread only.
+     *
+     * @return the number of blocks changed
+     */
+    static int convert(ServerLevel level, LevelChunk chunk, int sectionIndex, UnaryOperator<BlockState> mapping) {
+        return convert(level, chunk, sectionIndex, (x, y, z, state) -> mapping.apply(state));
+    }
+
+    /** Same as {@link #convert(ServerLevel, LevelChunk, int, UnaryOperator)} with a per-position mapping. */
+    static int convert(ServerLevel level, LevelChunk chunk, int sectionIndex, PositionalMapping mapping) {
+        LevelChunkSection section = chunk.getSection(sectionIndex);
+        if (section.hasOnlyAir()) return 0;
+
+        ServerChunkCache chunkSource = level.getChunkSource();
+        int baseX = chunk.getPos().getMinBlockX();
+        int baseY = SectionPos.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(sectionIndex));
+        int baseZ = chunk.getPos().getMinBlockZ();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int changed = 0;
+
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    BlockState oldState = section.getBlockState(x, y, z);
+                    BlockState newState = mapping.apply(x, y, z, oldState);
+                    if (newState == null || newState == oldState) continue;
+
+                    section.setBlockState(x, y, z, newState, false);
+                    pos.set(baseX + x, baseY + y, baseZ + z);
+                    for (Map.Entry<Heightmap.Types, Heightmap> heightmap : chunk.getHeightmaps()) {
+                        heightmap.getValue().update(x, pos.getY(), z, newState);
+                    }
+                    if (LightEngine.hasDifferentLightProperties(chunk, pos, oldState, newState)) {
+                        chunkSource.getLightEngine().checkBlock(pos);
+                    }
+                    chunkSource.blockChanged(pos);
+                    BlockChangeBus.onBlockChanged(level, pos, oldState, newState);
+                    changed++;
+                }
+            }
+        }
+        if (changed > 0) chunk.setUnsaved(true);
+        return changed;
+    }
+}
@@ -0,0 +1,70 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+/**
+ * Immutable copies of overworld chunk sections' block states, for CandidatePipeline's
+ * jobs to read (on worker threads with offThreadSampling) while the server thread keeps
+ * changing the live sections. A copy being dropped is also how a job's section counts
+ * learn that the section changed.
+ *
+ * A copy is taken the first time a section is asked for and reused until a block in
+ * it changes (via BlockChangeBus) or its chunk unloads, so quiet sections are copied
+ * once however often they are sampled. Copies are never written to after they're
+ * taken, which is what makes sharing them with workers safe.
+ *
+ * The cache is server thread only; the copies themselves may be read from any thread.
+ */
+public final class SectionSnapshots {
+
+    private static final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> cache = new Long2ObjectOpenHashMap<>();
+
+    private SectionSnapshots() {}
+
+    /** The cached copy of a section's states, taking one if needed. Null for an all-air section. */
+    static PalettedContainer<BlockState> get(LevelChunk chunk, int sectionIndex) {
+        LevelChunkSection section = chunk.getSection(sectionIndex);
+        if (section.hasOnlyAir()) return null;
+        long key = SectionPos.asLong(chunk.getPos().x, chunk.getSectionYFromSectionIndex(sectionIndex), chunk.getPos().z);
+        PalettedContainer<BlockState> snapshot = cache.get(key);
+        if (snapshot == null) {
+            snapshot = section.getStates().copy();
+            cache.put(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    /** True if the copy is still the section's current one (nothing in it has changed since). */
+    static boolean isCurrent(long sectionKey, PalettedContainer<BlockState> snapshot) {
+        return cache.get(sectionKey) == snapshot;
+    }
+
+    /** BlockChangeBus listener: the section's copy is out of date. */
+    static void onBlockChanged(Level level, BlockPos pos) {
+        if (cache.isEmpty() || level.dimension() != Level.OVERWORLD) return;
+        cache.remove(SectionPos.asLong(pos));
+    }
+
+    public static void onChunkUnload(Level level, ChunkPos pos) {
+        if (cache.isEmpty() || level.dimension() != Level.OVERWORLD) return;
+        for (int sy = level.getMinSection(); sy < level.getMaxSection(); sy++) {
+            cache.remove(SectionPos.asLong(pos.x, sy, pos.z));
+        }
+    }
+
+    public static int size() {
+        return cache.size();
+    }
+
+    public static void reset() {
+        cache.clear();
+    }
+}
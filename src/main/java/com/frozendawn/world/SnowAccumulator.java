@@ -5,7 +5,6 @@ import com.frozendawn.init.ModBlocks;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.SnowLayerBlock;
@@ -43,7 +42,8 @@ public final class SnowAccumulator {
         double rate = FrozenDawnConfig.SNOW_ACCUMULATION_RATE.get();
         int interval = rate > 0 ? Math.max(1, (int) (baseInterval / rate)) : baseInterval;
 
-        if (level.getServer().getTickCount() % interval != 0) return;
+        long[] area = SamplingArea.chunksNear(level, RADIUS);
+        if (area.length == 0) return;
 
         int checksPerPlayer = switch (phase) {
             case 2 -> BASE_CHECKS_PER_PLAYER;
@@ -53,57 +53,55 @@ public final class SnowAccumulator {
         };
 
         RandomSource random = level.getRandom();
-
-        for (ServerPlayer player : level.players()) {
-            BlockPos origin = player.blockPosition();
-            BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
-
-            for (int i = 0; i < checksPerPlayer; i++) {
-                int x = origin.getX() + random.nextInt(RADIUS * 2 + 1) - RADIUS;
-                int z = origin.getZ() + random.nextInt(RADIUS * 2 + 1) - RADIUS;
-
-                int surfaceY = level.getHeight(Heightmap.Types.MOTION_BLOCKING, x, z);
-                mutable.set(x, surfaceY, z);
-
-                if (!level.isLoaded(mutable)) continue;
-                if (!level.canSeeSky(mutable)) continue;
-
-                BlockPos snowPos = mutable.immutable();
-                BlockState at = level.getBlockState(snowPos);
-
-                // Increment existing snow layer — snow sits AT snowPos (not below)
-                // because snow layers have noCollission and don't affect MOTION_BLOCKING heightmap
-                if (at.is(Blocks.SNOW)) {
-                    int layers = at.getValue(SnowLayerBlock.LAYERS);
-                    int maxLayers = switch (phase) {
-                        case 2, 3 -> 2;
-                        case 4 -> 4;
-                        default -> 7; // phase 5: grows to 7 then converts
-                    };
-                    if (layers < maxLayers) {
-                        level.setBlock(snowPos, at.setValue(SnowLayerBlock.LAYERS, layers + 1), 3);
-                    } else if (phase >= 5) {
-                        // Convert to snow block, cap at MAX_SNOW_BLOCK_DEPTH
-                        int snowDepth = countSnowBlocksBelow(level, snowPos);
-                        if (snowDepth < MAX_SNOW_BLOCK_DEPTH) {
-                            level.setBlock(snowPos, Blocks.SNOW_BLOCK.defaultBlockState(), 3);
-                        }
+        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+
+        // New work arrives every interval; between intervals the run only works off carried-over debt
+        double demand = level.getServer().getTickCount() % interval == 0
+                ? SamplingArea.demand(area, RADIUS, checksPerPlayer) : 0;
+        MutationScheduler.Run run = MutationScheduler.begin(MutationScheduler.Lane.SNOW, demand);
+        while (run.next()) {
+            SurfaceSamples.Column column = SurfaceSamples.next(MutationScheduler.Lane.SNOW, level, area, random);
+            if (column == null) continue;
+            column.at(mutable, column.height(Heightmap.Types.MOTION_BLOCKING));
+            if (!level.canSeeSky(mutable)) continue;
+
+            BlockPos snowPos = mutable.immutable();
+            BlockState at = column.state(snowPos.getY());
+
+            // Increment existing snow layer — snow sits AT snowPos (not below)
+            // because snow layers have noCollission and don't affect MOTION_BLOCKING heightmap
+            if (at.is(Blocks.SNOW)) {
+                int layers = at.getValue(SnowLayerBlock.LAYERS);
+                int maxLayers = switch (phase) {
+                    case 2, 3 -> 2;
+                    case 4 -> 4;
+                    default -> 7; // phase 5: grows to 7 then converts
+                };
+                if (layers < maxLayers) {
+                    MutationBuffer.set(snowPos, at, at.setValue(SnowLayerBlock.LAYERS, layers + 1));
+                } else if (phase >= 5) {
+                    // Convert to snow block, cap at MAX_SNOW_BLOCK_DEPTH
+                    int snowDepth = countSnowBlocksBelow(level, snowPos);
+                    if (snowDepth < MAX_SNOW_BLOCK_DEPTH) {
+                        MutationBuffer.set(snowPos, at, Blocks.SNOW_BLOCK.defaultBlockState());
                     }
-                    continue;
                 }
+                continue;
+            }
 
-                // Place new snow layer on a suitable surface
-                BlockPos belowPos = snowPos.below();
-                if (at.isAir() && canPlaceSnowOn(level, belowPos)) {
-                    // Dirt path reverts to dirt when covered (vanilla behavior)
-                    if (level.getBlockState(belowPos).is(Blocks.DIRT_PATH)) {
-                        level.setBlock(belowPos, Blocks.DIRT.defaultBlockState(), 3);
-                    }
-                    level.setBlock(snowPos, Blocks.SNOW.defaultBlockState()
-                            .setValue(SnowLayerBlock.LAYERS, 1), 3);
+            // Place new snow layer on a suitable surface
+            BlockPos belowPos = snowPos.below();
+            BlockState below = column.top(Heightmap.Types.MOTION_BLOCKING);
+            if (at.isAir() && canPlaceSnowOn(level, belowPos, below)) {
+                // Dirt path reverts to dirt when covered (vanilla behavior)
+                if (below.is(Blocks.DIRT_PATH)) {
+                    MutationBuffer.set(belowPos, below, Blocks.DIRT.defaultBlockState());
                 }
+                MutationBuffer.set(snowPos, at, Blocks.SNOW.defaultBlockState()
+                        .setValue(SnowLayerBlock.LAYERS, 1));
             }
         }
+        run.end();
     }
 
     /** Count consecutive snow blocks below this position. */
@@ -117,10 +115,8 @@ public final class SnowAccumulator {
         return depth;
     }
 
-    /** Check if snow can be placed on the block at belowPos. */
-    private static boolean canPlaceSnowOn(ServerLevel level, BlockPos belowPos) {
-        BlockState below = level.getBlockState(belowPos);
-
+    /** Check if snow can be placed on below, the block at belowPos. */
+    private static boolean canPlaceSnowOn(ServerLevel level, BlockPos belowPos, BlockState below) {
         // Skip ice — snow breaks on it
         if (below.is(Blocks.ICE) || below.is(Blocks.PACKED_ICE)
                 || below.is(Blocks.BLUE_ICE) || below.is(Blocks.FROSTED_ICE)) {
@@ -129,7 +125,7 @@ public final class SnowAccumulator {
 
         // Don't bury acheronite crystals — check block below and nearby
         if (below.is(ModBlocks.ACHERONITE_CRYSTAL.get())) return false;
-        if (hasCrystalNearby(level, belowPos, 2)) return false;
+        if (DepositRegistry.hasCrystalNear(belowPos, 2)) return false;
 
         // Dirt path has a lowered top face (15/16) so isFaceSturdy returns false,
         // but snow should still accumulate on it
@@ -137,20 +133,4 @@ public final class SnowAccumulator {
 
         return below.isFaceSturdy(level, belowPos, Direction.UP);
     }
-
-    /** Check if there's an acheronite crystal within the given horizontal radius. */
-    private static boolean hasCrystalNearby(ServerLevel level, BlockPos pos, int radius) {
-        BlockPos.MutableBlockPos check = new BlockPos.MutableBlockPos();
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dz = -radius; dz <= radius; dz++) {
-                for (int dy = -1; dy <= 1; dy++) {
-                    check.set(pos.getX() + dx, pos.getY() + dy, pos.getZ() + dz);
-                    if (level.getBlockState(check).is(ModBlocks.ACHERONITE_CRYSTAL.get())) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
-    }
 }
@@ -0,0 +1,61 @@
+package com.frozendawn.world;
+
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.BitSet;
+import java.util.function.Predicate;
+
+/**
+ * A fixed set of block states compiled into a bitset indexed by BlockState id.
+ * Membership is one bit test, and {@link #mayBeIn} asks a section's palette whether
+ * any member could be present, so scans can skip whole 16x16x16 sections without
+ * reading a single block.
+ *
+ * The bitset is built on first use, once the block registry is frozen.
+ */
+final class StateMask {
+
+    private final Predicate<BlockState> predicate;
+    private volatile BitSet bits;
+
+    StateMask(Predicate<BlockState> predicate) {
+        this.predicate = predicate;
+    }
+
+    boolean contains(BlockState state) {
+        return bits().get(Block.getId(state));
+    }
+
+    /**
+     * False if the section definitely holds none of these states. Single-value and
+     * small palettes answer exactly; sections on the global palette always say maybe.
+     */
+    boolean mayBeIn(LevelChunkSection section) {
+        if (section.hasOnlyAir()) return false;
+        return section.getStates().maybeHas(this::contains);
+    }
+
+    /** Exact version of mayBeIn: counts the section's states when the palette can't rule them out. */
+    boolean isIn(LevelChunkSection section) {
+        if (!mayBeIn(section)) return false;
+        boolean[] found = {false};
+        section.getStates().count((state, count) -> {
+            if (contains(state)) found[0] = true;
+        });
+        return found[0];
+    }
+
+    private BitSet bits() {
+        BitSet current = bits;
+        if (current == null) {
+            current = new BitSet(Block.BLOCK_STATE_REGISTRY.size());
+            for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+                if (predicate.test(state)) current.set(Block.getId(state));
+            }
+            bits = current;
+        }
+        return current;
+    }
+}
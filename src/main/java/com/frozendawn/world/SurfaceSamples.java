@@ -0,0 +1,321 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The one source of random surface columns for the surface systems (freezing,
+ * vegetation decay, snow, crystal and deposit formation).
+ *
+ * Each tick has a shared pool of columns, drawn uniformly over the widest area any
+ * surface system samples (POOL_RADIUS around the players) and filled in lazily as the
+ * systems ask for them. A pool column resolves its chunk once, with a single
+ * getChunkNow, and reads each heightmap and top block at most once, whichever system
+ * asks first. Each system walks the pool in its own random order (a random start and
+ * odd stride over a power-of-two pool, so it never sees a column twice in a tick) and
+ * takes the columns that fall in its area. Every system thus gets uniform, independent
+ * columns of its own area, while the columns two systems happen to share cost one
+ * lookup. A system whose area is a small part of the pool's, or that finds nothing of
+ * its area in the next few pool columns, draws a private column instead.
+ *
+ * Cached heights and top states are those seen when the column was first read. The
+ * systems queue their changes in MutationBuffer, which drops any change whose block has
+ * moved on, so a column read earlier in the tick can't make them overwrite anything.
+ *
+ * Counters give samples per lane, how many fell in unloaded chunks and how many were
+ * served from a column another lane had already taken, per second, across all the
+ * surface systems (see /frozendawn perf).
+ *
+ * A Column is valid until the next sample. Server thread only.
+ */
+public final class SurfaceSamples {
+
+    private static final Heightmap.Types[] TYPES = Heightmap.Types.values();
+    /** Covers the radius of every surface system; areas reaching further are not in the pool. */
+    private static final int POOL_RADIUS = 64;
+    /** Pool columns per chunk of the pool area, before rounding up to a power of two. */
+    private static final int COLUMNS_PER_CHUNK = 16;
+    private static final int MAX_POOL = 1 << 14;
+    /** Pool columns a system looks at for one sample before drawing a private one. */
+    private static final int TRIES = 8;
+    /** Areas under 1/SMALL_AREA_SHARE of the pool area always draw their own columns. */
+    private static final int SMALL_AREA_SHARE = 4;
+    /** Counters roll over once a second; the systems run on alternating ticks. */
+    private static final int WINDOW_TICKS = 20;
+
+    private static final Column column = new Column();
+
+    // Pool of the current tick; entries past filled are drawn on first use
+    private static ServerLevel poolLevel;
+    private static long poolTick = Long.MIN_VALUE;
+    private static long[] poolArea = new long[0];
+    private static int poolSize;
+    private static int filled;
+    private static LevelChunk[] chunks = new LevelChunk[0];
+    private static int[] xs = new int[0];
+    private static int[] zs = new int[0];
+    private static int[] heights = new int[0];
+    private static BlockState[] tops = new BlockState[0];
+    /** Lanes that took each column, one bit per lane ordinal. */
+    private static int[] takenBy = new int[0];
+    /** Membership sets of the areas the systems passed this tick. */
+    private static final Map<long[], LongOpenHashSet> areaSets = new IdentityHashMap<>();
+
+    // Each lane's walk through this tick's pool
+    private static final int[] walkStart = new int[MutationScheduler.Lane.values().length];
+    private static final int[] walkStride = new int[walkStart.length];
+    private static final int[] walked = new int[walkStart.length];
+    private static final long[] walkTick = new long[walkStart.length];
+
+    private static final int[] samples = new int[walkStart.length];
+    private static final int[] unloaded = new int[samples.length];
+    private static final int[] shared = new int[samples.length];
+    private static int heightmapReads;
+    private static final int[] lastSamples = new int[samples.length];
+    private static final int[] lastUnloaded = new int[samples.length];
+    private static final int[] lastShared = new int[samples.length];
+    private static int lastHeightmapReads;
+    private static long window = Long.MIN_VALUE;
+
+    static {
+        Arrays.fill(walkTick, Long.MIN_VALUE);
+    }
+
+    private SurfaceSamples() {}
+
+    /** One sampled column of a loaded chunk. Heightmaps and top states are read on first use. */
+    public static final class Column {
+        private LevelChunk chunk;
+        private int x;
+        private int z;
+        /** Where this column's values sit in heights/tops: the pool's arrays, or its own. */
+        private int[] heights;
+        private BlockState[] tops;
+        private int offset;
+        private final int[] ownHeights = new int[TYPES.length];
+        private final BlockState[] ownTops = new BlockState[TYPES.length];
+        private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        private Column() {}
+
+        private Column set(LevelChunk chunk, int x, int z) {
+            Arrays.fill(ownHeights, Integer.MIN_VALUE);
+            Arrays.fill(ownTops, null);
+            return view(chunk, x, z, ownHeights, ownTops, 0);
+        }
+
+        private Column view(LevelChunk chunk, int x, int z, int[] heights, BlockState[] tops, int offset) {
+            this.chunk = chunk;
+            this.x = x;
+            this.z = z;
+            this.heights = heights;
+            this.tops = tops;
+            this.offset = offset;
+            return this;
+        }
+
+        public LevelChunk chunk() {
+            return chunk;
+        }
+
+        public int x() {
+            return x;
+        }
+
+        public int z() {
+            return z;
+        }
+
+        /** The first free Y above the heightmap, as Level.getHeight gives it. */
+        public int height(Heightmap.Types type) {
+            int i = offset + type.ordinal();
+            int height = heights[i];
+            if (height == Integer.MIN_VALUE) {
+                height = chunk.getHeight(type, x & 15, z & 15) + 1;
+                heights[i] = height;
+                heightmapReads++;
+            }
+            return height;
+        }
+
+        /** The block the heightmap rests on (the one just below height). */
+        public BlockState top(Heightmap.Types type) {
+            int i = offset + type.ordinal();
+            BlockState top = tops[i];
+            if (top == null) {
+                top = state(height(type) - 1);
+                tops[i] = top;
+            }
+            return top;
+        }
+
+        /** The block at y in this column. */
+        public BlockState state(int y) {
+            return chunk.getBlockState(cursor.set(x, y, z));
+        }
+
+        /** Sets pos to this column at the given Y and returns it. */
+        public BlockPos.MutableBlockPos at(BlockPos.MutableBlockPos pos, int y) {
+            return pos.set(x, y, z);
+        }
+    }
+
+    /**
+     * A uniformly random column of the area for the given lane, or null if it fell in a
+     * chunk that is no longer loaded. The area must lie within POOL_RADIUS of the players.
+     */
+    public static Column next(MutationScheduler.Lane lane, ServerLevel level, long[] area, RandomSource random) {
+        roll(level.getGameTime());
+        preparePool(level);
+        int l = lane.ordinal();
+        samples[l]++;
+        if (walkTick[l] != poolTick) {
+            walkTick[l] = poolTick;
+            walkStart[l] = random.nextInt(poolSize);
+            walkStride[l] = random.nextInt(poolSize) | 1;
+            walked[l] = 0;
+        }
+
+        // Areas much smaller than the pool's would miss on most pool columns
+        boolean pooled = area.length * SMALL_AREA_SHARE >= poolArea.length;
+        LongOpenHashSet members = !pooled || area == poolArea ? null
+                : areaSets.computeIfAbsent(area, LongOpenHashSet::new);
+        for (int tries = 0; pooled && tries < TRIES && walked[l] < poolSize; tries++) {
+            int i = (walkStart[l] + walked[l]++ * walkStride[l]) & (poolSize - 1);
+            fill(i, level, random);
+            if (members != null && !members.contains(ChunkPos.asLong(xs[i] >> 4, zs[i] >> 4))) continue;
+            if ((takenBy[i] & ~(1 << l)) != 0) shared[l]++;
+            takenBy[i] |= 1 << l;
+            if (chunks[i] == null) {
+                unloaded[l]++;
+                return null;
+            }
+            return column.view(chunks[i], xs[i], zs[i], heights, tops, i * TYPES.length);
+        }
+
+        // Nothing of this area in the pool columns tried: a column of its own
+        long chunkKey = area[random.nextInt(area.length)];
+        int x = (ChunkPos.getX(chunkKey) << 4) + random.nextInt(16);
+        int z = (ChunkPos.getZ(chunkKey) << 4) + random.nextInt(16);
+        LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(chunkKey), ChunkPos.getZ(chunkKey));
+        if (chunk == null) {
+            unloaded[l]++;
+            return null;
+        }
+        return column.set(chunk, x, z);
+    }
+
+    /** The column at x, z of a chunk the caller already holds (random-tick mode). Not pooled or counted. */
+    public static Column of(LevelChunk chunk, int x, int z) {
+        return column.set(chunk, x, z);
+    }
+
+    /** Samples the lane drew over the last full second. */
+    public static int getSamples(MutationScheduler.Lane lane) {
+        return lastSamples[lane.ordinal()];
+    }
+
+    /** Samples the lane drew over the last full second that fell in unloaded chunks. */
+    public static int getUnloaded(MutationScheduler.Lane lane) {
+        return lastUnloaded[lane.ordinal()];
+    }
+
+    /** Samples the lane took over the last full second from a column another lane had taken that tick. */
+    public static int getShared(MutationScheduler.Lane lane) {
+        return lastShared[lane.ordinal()];
+    }
+
+    /** Heightmap values read over the last full second, across all lanes. */
+    public static int getHeightmapReads() {
+        return lastHeightmapReads;
+    }
+
+    public static void reset() {
+        Arrays.fill(samples, 0);
+        Arrays.fill(unloaded, 0);
+        Arrays.fill(shared, 0);
+        Arrays.fill(lastSamples, 0);
+        Arrays.fill(lastUnloaded, 0);
+        Arrays.fill(lastShared, 0);
+        Arrays.fill(walkTick, Long.MIN_VALUE);
+        heightmapReads = 0;
+        lastHeightmapReads = 0;
+        window = Long.MIN_VALUE;
+        poolLevel = null;
+        poolTick = Long.MIN_VALUE;
+        poolArea = new long[0];
+        poolSize = 0;
+        filled = 0;
+        Arrays.fill(chunks, null);
+        Arrays.fill(tops, null);
+        areaSets.clear();
+        column.set(null, 0, 0);
+    }
+
+    /** Starts a new pool on the first sample of a tick. */
+    private static void preparePool(ServerLevel level) {
+        long tick = level.getGameTime();
+        if (level == poolLevel && tick == poolTick) return;
+        poolLevel = level;
+        poolTick = tick;
+        poolArea = SamplingArea.chunksNear(level, POOL_RADIUS);
+        poolSize = Math.min(MAX_POOL, Math.max(16, Integer.highestOneBit(
+                Math.max(1, poolArea.length * COLUMNS_PER_CHUNK - 1)) << 1));
+        if (chunks.length < poolSize) {
+            chunks = new LevelChunk[poolSize];
+            xs = new int[poolSize];
+            zs = new int[poolSize];
+            heights = new int[poolSize * TYPES.length];
+            tops = new BlockState[poolSize * TYPES.length];
+            takenBy = new int[poolSize];
+        }
+        // Drop last tick's chunk and state references
+        Arrays.fill(chunks, 0, filled, null);
+        Arrays.fill(tops, 0, filled * TYPES.length, null);
+        filled = 0;
+        areaSets.clear();
+    }
+
+    /** Draws pool columns up to and including i. */
+    private static void fill(int i, ServerLevel level, RandomSource random) {
+        for (; filled <= i; filled++) {
+            if (poolArea.length == 0) {
+                chunks[filled] = null;
+                continue;
+            }
+            long chunkKey = poolArea[random.nextInt(poolArea.length)];
+            xs[filled] = (ChunkPos.getX(chunkKey) << 4) + random.nextInt(16);
+            zs[filled] = (ChunkPos.getZ(chunkKey) << 4) + random.nextInt(16);
+            chunks[filled] = level.getChunkSource().getChunkNow(ChunkPos.getX(chunkKey), ChunkPos.getZ(chunkKey));
+            Arrays.fill(heights, filled * TYPES.length, (filled + 1) * TYPES.length, Integer.MIN_VALUE);
+            takenBy[filled] = 0;
+        }
+    }
+
+    private static void roll(long gameTime) {
+        long current = gameTime / WINDOW_TICKS;
+        if (current == window) return;
+        boolean consecutive = current == window + 1;
+        window = current;
+        for (int i = 0; i < samples.length; i++) {
+            lastSamples[i] = consecutive ? samples[i] : 0;
+            lastUnloaded[i] = consecutive ? unloaded[i] : 0;
+            lastShared[i] = consecutive ? shared[i] : 0;
+            samples[i] = 0;
+            unloaded[i] = 0;
+            shared[i] = 0;
+        }
+        lastHeightmapReads = consecutive ? heightmapReads : 0;
+        heightmapReads = 0;
+    }
+}
@@ -0,0 +1,114 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.minecraft.core.SectionPos;
+
+/**
+ * Fixed-size, direct-mapped cache of recent temperature results for one level,
+ * keyed by packed BlockPos. A slot holds the newest result that hashed to it and
+ * is valid only while it is younger than the caller's window and was computed with
+ * the same inputs (day, total days, quick scan) and the same heat generation.
+ *
+ * The heat generation of a position is the newer of the level's and its section's.
+ * A heat source, core or sealed room change moves the sections within its reach, so a
+ * furnace toggling at one base leaves cached results everywhere else valid. The level's
+ * moves when the global generation (config, heat source table) has moved since the
+ * level last looked. Both take their values from one counter, so a position's
+ * generation only ever moves to a value no entry was stored with.
+ *
+ * No allocation per lookup or store. Server thread only.
+ */
+final class TemperatureCache {
+
+    private static final int SIZE = 4096;
+    private static final int MASK = SIZE - 1;
+    /** Section generations kept before they are folded into one level-wide move. */
+    private static final int MAX_SECTIONS = 4096;
+
+    private final long[] keys = new long[SIZE];
+    private final long[] times = new long[SIZE];
+    private final int[] generations = new int[SIZE];
+    private final long[] inputs = new long[SIZE];
+    private final float[] values = new float[SIZE];
+    private final boolean[] used = new boolean[SIZE];
+    /** Packed SectionPos → generation, for sections moved since the level's generation. */
+    private final Long2IntOpenHashMap sectionGenerations = new Long2IntOpenHashMap();
+    /** Last value handed out; every move takes the next one. */
+    private int counter;
+    private int generation;
+    /** Global generation this level's generation last took in. */
+    private int globalGeneration;
+
+    /** Packs the non-positional inputs of a query so a slot can be checked in one compare. */
+    static long inputs(int currentDay, int totalDays, boolean quickScan) {
+        return ((long) currentDay << 32) | ((long) totalDays << 1) | (quickScan ? 1L : 0L);
+    }
+
+    /**
+     * The heat generation at pos (packed BlockPos). The level's generation is moved on
+     * first if the global one changed since the last call.
+     */
+    int generation(int global, long pos) {
+        if (global != globalGeneration) {
+            globalGeneration = global;
+            invalidate();
+        }
+        return Math.max(generation, sectionGenerations.get(SectionPos.blockToSection(pos)));
+    }
+
+    /** Moves the level's heat generation on, so every entry stops matching. */
+    void invalidate() {
+        generation = ++counter;
+        sectionGenerations.clear();
+    }
+
+    /**
+     * Moves the heat generation of every section overlapping the box (block coordinates,
+     * inclusive) on, so the entries stored in them stop matching.
+     */
+    void invalidate(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        if (sectionGenerations.size() >= MAX_SECTIONS) {
+            invalidate();
+            return;
+        }
+        int moved = ++counter;
+        for (int sx = minX >> 4; sx <= maxX >> 4; sx++) {
+            for (int sy = minY >> 4; sy <= maxY >> 4; sy++) {
+                for (int sz = minZ >> 4; sz <= maxZ >> 4; sz++) {
+                    sectionGenerations.put(SectionPos.asLong(sx, sy, sz), moved);
+                }
+            }
+        }
+    }
+
+    /** Returns the cached value, or NaN on a miss. */
+    float get(long pos, long inputs, int generation, long now, int window) {
+        int slot = slot(pos);
+        if (!used[slot] || keys[slot] != pos || this.inputs[slot] != inputs
+                || generations[slot] != generation || now - times[slot] >= window) {
+            return Float.NaN;
+        }
+        return values[slot];
+    }
+
+    void put(long pos, long inputs, int generation, long now, float value) {
+        int slot = slot(pos);
+        used[slot] = true;
+        keys[slot] = pos;
+        this.inputs[slot] = inputs;
+        generations[slot] = generation;
+        times[slot] = now;
+        values[slot] = value;
+    }
+
+    /** Drops the entry for pos, if the slot holds it. */
+    void evict(long pos) {
+        int slot = slot(pos);
+        if (keys[slot] == pos) used[slot] = false;
+    }
+
+    private static int slot(long pos) {
+        long h = pos * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 52) & MASK;
+    }
+}
@@ -1,18 +1,14 @@
 package com.frozendawn.world;
 
-import com.frozendawn.block.GeothermalCoreBlockEntity;
-import com.frozendawn.block.ThermalHeaterBlock;
-import com.frozendawn.block.ThermalHeaterBlockEntity;
 import com.frozendawn.config.FrozenDawnConfig;
 import com.frozendawn.init.ModBlocks;
 import com.frozendawn.phase.PhaseManager;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+
+import java.util.WeakHashMap;
 
 /**
  * Calculates temperature at any world position.
@@ -25,10 +21,19 @@ public final class TemperatureManager {
 
     private TemperatureManager() {}
 
-    /** Max radius for non-heater heat sources (soul campfire = 6). */
-    private static final int AMBIENT_HEAT_RADIUS = 6;
     private static final int MOB_HEAT_RADIUS = 3;
 
+    /** Recent results per level; see getTemperatureAt. Server side only. */
+    private static final WeakHashMap<Level, TemperatureCache> caches = new WeakHashMap<>();
+    /**
+     * Bumped when something every level depends on changes (config, heat source table).
+     * Each level's cache keeps its own generations on top, per section, for its heat
+     * sources, cores and sealed rooms.
+     */
+    private static volatile int generation = 0;
+    private static long cacheHits = 0;
+    private static long cacheMisses = 0;
+
     /**
      * Full-precision temperature check (used for players).
      */
@@ -39,6 +44,11 @@ public final class TemperatureManager {
     /**
      * Get the effective temperature at a position, accounting for all modifiers.
      *
+     * Server-side results are cached per position for temperatureCacheTicks, so
+     * neighbouring crops, growth passes and players querying the same spot within a
+     * few ticks only pay once. Any heat source, core or room change invalidates the
+     * cache immediately within its reach, and a config change everywhere.
+     *
      * @param quickScan  If true, uses reduced heat scan radius and exits on first heat source found.
      *                   Use for mobs where exact best-warmth isn't needed.
      */
@@ -46,6 +56,71 @@ public final class TemperatureManager {
         // Clamp inputs to prevent bad interpolation from corrupted world data
         currentDay = Math.max(0, currentDay);
         totalDays = Math.max(1, totalDays);
+
+        int window = FrozenDawnConfig.TEMPERATURE_CACHE_TICKS.get();
+        if (window <= 0 || level.isClientSide()) {
+            return computeTemperature(level, pos, currentDay, totalDays, quickScan);
+        }
+        TemperatureCache cache = caches.computeIfAbsent(level, k -> new TemperatureCache());
+        long key = pos.asLong();
+        long inputs = TemperatureCache.inputs(currentDay, totalDays, quickScan);
+        int gen = cache.generation(generation, key);
+        long now = level.getGameTime();
+        float cached = cache.get(key, inputs, gen, now, window);
+        if (!Float.isNaN(cached)) {
+            cacheHits++;
+            return cached;
+        }
+        cacheMisses++;
+        float temp = computeTemperature(level, pos, currentDay, totalDays, quickScan);
+        cache.put(key, inputs, gen, now, temp);
+        return temp;
+    }
+
+    /** Drops every cached temperature result in every level (config or heat source table changed). */
+    public static void invalidateCache() {
+        generation++;
+    }
+
+    /**
+     * Drops the level's cached temperature results within the box (block coordinates,
+     * inclusive), rounded out to whole sections: a heat source, core or sealed room
+     * changed and this is as far as it reaches.
+     */
+    public static void invalidateCache(Level level, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        TemperatureCache cache = caches.get(level);
+        if (cache != null) cache.invalidate(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /** Drops the level's cached temperature results within radius blocks (any axis) of center. */
+    public static void invalidateCache(Level level, BlockPos center, int radius) {
+        invalidateCache(level, center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
+    /** Drops the cached results at the given positions (packed BlockPos) of one level. */
+    public static void invalidateCache(Level level, long[] positions) {
+        TemperatureCache cache = caches.get(level);
+        if (cache == null) return;
+        for (long pos : positions) {
+            cache.evict(pos);
+        }
+    }
+
+    /** The heat generation at pos; changes whenever the cached temperature there may have changed. Server side only. */
+    public static int getGeneration(Level level, BlockPos pos) {
+        return caches.computeIfAbsent(level, k -> new TemperatureCache()).generation(generation, pos.asLong());
+    }
+
+    public static long getCacheHits() {
+        return cacheHits;
+    }
+
+    public static long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    private static float computeTemperature(Level level, BlockPos pos, int currentDay, int totalDays, boolean quickScan) {
         float phaseTemp = PhaseManager.getTemperatureOffset(currentDay, totalDays);
         float depthTemp = PhaseManager.getDepthModifier(pos.getY())
                 * FrozenDawnConfig.GEOTHERMAL_STRENGTH.get().floatValue();
@@ -57,37 +132,29 @@ public final class TemperatureManager {
     }
 
     /**
-     * Shelter modifier: +5C if there's a solid block or insulated glass overhead (roof).
-     * Simple check: scan upward up to 4 blocks for a solid block or insulated glass.
+     * Shelter modifier: +5C if there's a roof overhead (solid block or insulated glass
+     * within 4 blocks) or the position is inside a sealed room.
      */
     public static float getShelterModifier(Level level, BlockPos pos) {
-        for (int dy = 1; dy <= 4; dy++) {
-            BlockPos above = pos.above(dy);
-            BlockState aboveState = level.getBlockState(above);
-            if (aboveState.isSolidRender(level, above) || aboveState.is(ModBlocks.INSULATED_GLASS.get())) {
-                return 5.0f;
-            }
-        }
-        return 0.0f;
+        return isSheltered(level, pos) ? 5.0f : 0.0f;
     }
 
     /**
-     * Returns true if the position is in an enclosed room: roof within 4 blocks
-     * above AND a solid wall in each cardinal direction within 10 blocks.
+     * Returns true if the position is in an enclosed room: inside a sealed room
+     * (see RoomRegistry), or roof within 4 blocks above AND a solid wall in each
+     * cardinal direction within 10 blocks.
      * A single floating block won't qualify — actual walls + ceiling required.
      */
     public static boolean isEnclosed(Level level, BlockPos pos) {
-        // Roof check
-        boolean hasRoof = false;
-        for (int dy = 1; dy <= 4; dy++) {
-            BlockPos above = pos.above(dy);
-            BlockState state = level.getBlockState(above);
-            if (state.isSolidRender(level, above) || state.is(ModBlocks.INSULATED_GLASS.get())) {
-                hasRoof = true;
-                break;
-            }
-        }
-        if (!hasRoof) return false;
+        return RoomRegistry.isEnclosed(level, pos);
+    }
+
+    /**
+     * Raw roof + wall probe behind isEnclosed, for positions outside a sealed room.
+     * RoomRegistry caches the result per position.
+     */
+    static boolean probeEnclosed(Level level, BlockPos pos) {
+        if (!probeRoof(level, pos)) return false;
 
         // Wall check: solid block in each cardinal direction within 10 blocks
         for (Direction dir : Direction.Plane.HORIZONTAL) {
@@ -107,141 +174,71 @@ public final class TemperatureManager {
 
     /**
      * Heat source modifier: sums warmth from all nearby heat sources (stacking).
-     * Thermal heaters use HeaterRegistry (O(n) where n = lit heaters).
-     * Other heat sources (campfires, lava, etc.) use a small block scan (radius 6).
+     * Thermal heaters and geothermal cores are pre-stamped into HeatField (one lookup).
+     * Other heat sources (campfires, lava, etc.) use AmbientHeatRegistry, with reach
+     * and warmth taken from the compiled HeatSources table.
      *
      * @param quickScan  Reduced radius + early exit on first heat found (for mobs)
      */
     public static float getHeatSourceModifier(Level level, BlockPos pos, int currentDay, int totalDays, boolean quickScan) {
-        float totalWarmth = 0.0f;
-        int phase = PhaseManager.getPhase(currentDay, totalDays);
-
-        // --- Registered thermal heaters (no block scan needed) ---
-        for (BlockPos heaterPos : HeaterRegistry.getHeaters(level)) {
-            int distSq = (int) pos.distSqr(heaterPos);
-            BlockState state = level.getBlockState(heaterPos);
-            boolean sheltered = false;
-            BlockEntity heaterBE = level.getBlockEntity(heaterPos);
-            if (heaterBE instanceof ThermalHeaterBlockEntity thbe) {
-                sheltered = thbe.getCachedSheltered();
-            }
-            float warmth = getHeaterHeat(state, distSq, phase, sheltered);
-            if (warmth > 0) {
-                totalWarmth += warmth;
-                if (quickScan) return totalWarmth;
-            }
-        }
-
-        // --- Ambient heat sources: campfires, furnaces, lava, fire (small radius scan) ---
-        int radius = quickScan ? MOB_HEAT_RADIUS : AMBIENT_HEAT_RADIUS;
-        BlockPos.MutableBlockPos checkPos = new BlockPos.MutableBlockPos();
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dy = -radius; dy <= radius; dy++) {
-                for (int dz = -radius; dz <= radius; dz++) {
-                    int distSq = dx * dx + dy * dy + dz * dz;
-                    checkPos.set(pos.getX() + dx, pos.getY() + dy, pos.getZ() + dz);
-                    BlockState state = level.getBlockState(checkPos);
-                    float warmth = getAmbientHeat(state, distSq);
-                    if (warmth > 0) {
-                        totalWarmth += warmth;
-                        if (quickScan) return totalWarmth;
-                    }
-                }
-            }
-        }
-
-        // --- Registered geothermal cores (range up to 32, beyond block scan radius) ---
-        for (BlockPos corePos : GeothermalCoreRegistry.getCores(level)) {
-            double distSq = pos.distSqr(corePos);
-            float coreRange, coreTemp;
-
-            BlockEntity be = level.getBlockEntity(corePos);
-            if (be instanceof GeothermalCoreBlockEntity core) {
-                coreRange = core.getEffectiveRange();
-                coreTemp = core.getEffectiveTemp();
-            } else {
-                coreRange = GeothermalCoreBlockEntity.BASE_RANGE;
-                coreTemp = GeothermalCoreBlockEntity.BASE_TEMP;
-            }
+        // --- Thermal heaters + geothermal cores: stamped when they light, upgrade or change shelter ---
+        float totalWarmth = HeatField.getWarmth(level, pos);
+        if (quickScan && totalWarmth > 0) return totalWarmth;
 
-            // Above Y=0: halve effectiveness
-            if (corePos.getY() >= 0) {
-                coreRange /= 2;
-                coreTemp /= 2;
-            }
-
-            if (distSq <= coreRange * coreRange) {
-                totalWarmth += coreTemp;
-                if (quickScan) return totalWarmth;
+        // --- Ambient heat sources: campfires, furnaces, lava, fire (indexed per section) ---
+        int phase = PhaseManager.getPhase(currentDay, totalDays);
+        int radius = quickScan ? MOB_HEAT_RADIUS : HeatSources.getMaxAmbientRadius();
+        float[] ambientWarmth = {0.0f};
+        BlockPos.MutableBlockPos sourcePos = new BlockPos.MutableBlockPos();
+        AmbientHeatRegistry.anyInBox(level, pos, radius, packed -> {
+            sourcePos.set(packed);
+            HeatSources.HeatSource source = HeatSources.get(level.getBlockState(sourcePos));
+            if (source == null || source.blockEntityManaged()) return false;
+            int distSq = (int) pos.distSqr(sourcePos);
+            if (distSq > source.radiusSq()) return false;
+            // Wind exposure only matters for sources that define a reduced exposed reach
+            if (phase >= 5 && source.exposedRadiusSq() >= 0 && distSq > source.exposedRadiusSq()
+                    && !isSheltered(level, sourcePos)) {
+                return false;
             }
-        }
+            ambientWarmth[0] += source.warmth();
+            return quickScan;
+        });
+        return totalWarmth + ambientWarmth[0];
+    }
 
-        return totalWarmth;
+    /**
+     * Returns the warmth a lit thermal heater stamps into the HeatField, or 0 if the
+     * state has no heat source definition (e.g. an unlit heater).
+     */
+    public static float getHeaterWarmth(BlockState state) {
+        HeatSources.HeatSource source = HeatSources.get(state);
+        return source != null ? source.warmth() : 0.0f;
     }
 
     /**
-     * Returns warmth from a registered thermal heater at the given distance-squared.
-     * In phase 5+, exposed heaters (no roof) have 60% radius (distSq × 0.36).
+     * Returns a thermal heater's reach as a max distance-squared.
+     * In phase 5+, exposed heaters (no roof) use their "exposed_radius" (60% by default).
      * This ensures Diamond exposed (r≈8.4) > Base enclosed (r=7).
      *
      * @param sheltered  Cached shelter status from the heater's block entity.
      */
-    private static float getHeaterHeat(BlockState state, int distSq, int phase, boolean sheltered) {
-        if (state.is(ModBlocks.THERMAL_HEATER.get()) && state.getValue(ThermalHeaterBlock.LIT)) {
-            int maxDistSq = (phase >= 5 && !sheltered) ? 18 : 49;
-            return distSq <= maxDistSq ? 35.0f : 0.0f;
-        }
-        if (state.is(ModBlocks.IRON_THERMAL_HEATER.get()) && state.getValue(ThermalHeaterBlock.LIT)) {
-            int maxDistSq = (phase >= 5 && !sheltered) ? 29 : 81;
-            return distSq <= maxDistSq ? 50.0f : 0.0f;
-        }
-        if (state.is(ModBlocks.GOLD_THERMAL_HEATER.get()) && state.getValue(ThermalHeaterBlock.LIT)) {
-            int maxDistSq = (phase >= 5 && !sheltered) ? 44 : 121;
-            return distSq <= maxDistSq ? 65.0f : 0.0f;
-        }
-        if (state.is(ModBlocks.DIAMOND_THERMAL_HEATER.get()) && state.getValue(ThermalHeaterBlock.LIT)) {
-            int maxDistSq = (phase >= 5 && !sheltered) ? 71 : 196;
-            return distSq <= maxDistSq ? 80.0f : 0.0f;
-        }
-        return 0.0f;
+    public static int getHeaterRadiusSq(BlockState state, int phase, boolean sheltered) {
+        HeatSources.HeatSource source = HeatSources.get(state);
+        if (source == null) return -1;
+        return source.radiusSq(phase >= 5 && !sheltered);
     }
 
     /**
-     * Returns warmth from ambient (non-heater) heat sources at the given distance-squared.
+     * Check if a position has a roof overhead (or is inside a sealed room).
+     * Used to determine if wind exposure shrinks heater radius in phase 5+.
      */
-    private static float getAmbientHeat(BlockState state, int distSq) {
-        if (state.is(Blocks.CAMPFIRE) && state.getValue(BlockStateProperties.LIT)) {
-            return distSq <= 25 ? 25.0f : 0.0f;
-        }
-        if (state.is(Blocks.SOUL_CAMPFIRE) && state.getValue(BlockStateProperties.LIT)) {
-            return distSq <= 36 ? 28.0f : 0.0f;
-        }
-        if ((state.is(Blocks.FURNACE) || state.is(Blocks.BLAST_FURNACE) || state.is(Blocks.SMOKER))
-                && state.getValue(BlockStateProperties.LIT)) {
-            return distSq <= 9 ? 15.0f : 0.0f;
-        }
-        if (state.is(Blocks.LAVA)) {
-            return distSq <= 16 ? 30.0f : 0.0f;
-        }
-        if (state.is(Blocks.MAGMA_BLOCK)) {
-            return distSq <= 4 ? 10.0f : 0.0f;
-        }
-        if (state.is(Blocks.FIRE) || state.is(Blocks.SOUL_FIRE)) {
-            return distSq <= 9 ? 20.0f : 0.0f;
-        }
-        // Acheronite block: passive warmth aura (radius 3, +10C)
-        if (state.is(ModBlocks.ACHERONITE_BLOCK.get())) {
-            return distSq <= 9 ? 10.0f : 0.0f;
-        }
-        return 0.0f;
+    public static boolean isSheltered(Level level, BlockPos pos) {
+        return RoomRegistry.isSheltered(level, pos);
     }
 
-    /**
-     * Check if a heater has a roof overhead — reuses shelter detection logic.
-     * Scan upward up to 4 blocks for a solid block or insulated glass.
-     * Used to determine if wind exposure halves heater radius in phase 5+.
-     */
-    public static boolean isSheltered(Level level, BlockPos pos) {
+    /** Raw roof probe: scan upward up to 4 blocks for a solid block or insulated glass. */
+    static boolean probeRoof(Level level, BlockPos pos) {
         for (int dy = 1; dy <= 4; dy++) {
             BlockPos above = pos.above(dy);
             BlockState aboveState = level.getBlockState(above);
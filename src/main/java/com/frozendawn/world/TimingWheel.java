@@ -0,0 +1,159 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel of long keys, for events scheduled anywhere from one tick
+ * to years ahead.
+ *
+ * Four levels of 64 slots: level 0 holds keys due within 64 ticks at one-tick
+ * resolution, level 1 within 4096 ticks at 64-tick resolution, and so on. When the
+ * clock crosses a level's slot boundary, that slot's keys are redistributed to the
+ * levels below, so each key is handled O(levels) times however far out it was
+ * scheduled. Keys beyond the top level wait in an overflow list. Advancing skips over
+ * empty stretches a whole slot at a time, so big clock jumps are cheap.
+ *
+ * Not thread-safe.
+ */
+final class TimingWheel {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final LongArrayList[][] keys = new LongArrayList[LEVELS][SLOTS];
+    private final LongArrayList[][] dues = new LongArrayList[LEVELS][SLOTS];
+    private final int[] counts = new int[LEVELS];
+    private final LongArrayList overflowKeys = new LongArrayList();
+    private final LongArrayList overflowDues = new LongArrayList();
+    /** Everything due at or before this tick has fired. */
+    private long time;
+
+    TimingWheel(long now) {
+        this.time = now;
+    }
+
+    long time() {
+        return time;
+    }
+
+    int size() {
+        int size = overflowKeys.size();
+        for (int count : counts) size += count;
+        return size;
+    }
+
+    /** Schedules a key. Keys due now or in the past fire on the next advance. */
+    void schedule(long key, long due) {
+        place(key, Math.max(due, time + 1));
+    }
+
+    /**
+     * Moves the clock to now, passing every key that came due to the consumer in due
+     * order. The consumer must not schedule into this wheel.
+     */
+    void advance(long now, LongConsumer fire) {
+        while (time < now) {
+            int lowest = lowestOccupiedLevel();
+            if (lowest < 0) {
+                time = now;
+                return;
+            }
+            // Nothing can fire before the next boundary of the lowest occupied level
+            if (lowest > 0) {
+                long span = 1L << (BITS * lowest);
+                long boundary = Math.floorDiv(time, span) * span + span;
+                if (boundary > now) {
+                    time = now;
+                    return;
+                }
+                time = boundary - 1;
+            }
+            time++;
+            if ((time & ((1L << (BITS * (LEVELS - 1))) - 1)) == 0) {
+                cascadeOverflow();
+            }
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((time & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((time >>> (BITS * level)) & MASK));
+                }
+            }
+            fireSlot((int) (time & MASK), fire);
+        }
+    }
+
+    /** Drops every key and restarts the clock. */
+    void clear(long now) {
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if (keys[level][slot] != null) {
+                    keys[level][slot].clear();
+                    dues[level][slot].clear();
+                }
+            }
+            counts[level] = 0;
+        }
+        overflowKeys.clear();
+        overflowDues.clear();
+        time = now;
+    }
+
+    /** Files a key by how far ahead it is due; due must be at least the current time. */
+    private void place(long key, long due) {
+        long delta = due - time;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (BITS * (level + 1))) {
+                int slot = (int) ((due >>> (BITS * level)) & MASK);
+                if (keys[level][slot] == null) {
+                    keys[level][slot] = new LongArrayList();
+                    dues[level][slot] = new LongArrayList();
+                }
+                keys[level][slot].add(key);
+                dues[level][slot].add(due);
+                counts[level]++;
+                return;
+            }
+        }
+        overflowKeys.add(key);
+        overflowDues.add(due);
+    }
+
+    private int lowestOccupiedLevel() {
+        for (int level = 0; level < LEVELS; level++) {
+            if (counts[level] > 0) return level;
+        }
+        return overflowKeys.isEmpty() ? -1 : LEVELS - 1;
+    }
+
+    private void cascade(int level, int slot) {
+        LongArrayList slotKeys = keys[level][slot];
+        if (slotKeys == null || slotKeys.isEmpty()) return;
+        long[] k = slotKeys.toLongArray();
+        long[] d = dues[level][slot].toLongArray();
+        slotKeys.clear();
+        dues[level][slot].clear();
+        counts[level] -= k.length;
+        for (int i = 0; i < k.length; i++) place(k[i], d[i]);
+    }
+
+    private void cascadeOverflow() {
+        if (overflowKeys.isEmpty()) return;
+        long[] k = overflowKeys.toLongArray();
+        long[] d = overflowDues.toLongArray();
+        overflowKeys.clear();
+        overflowDues.clear();
+        for (int i = 0; i < k.length; i++) place(k[i], d[i]);
+    }
+
+    private void fireSlot(int slot, LongConsumer fire) {
+        LongArrayList slotKeys = keys[0][slot];
+        if (slotKeys == null || slotKeys.isEmpty()) return;
+        counts[0] -= slotKeys.size();
+        for (int i = 0; i < slotKeys.size(); i++) fire.accept(slotKeys.getLong(i));
+        slotKeys.clear();
+        dues[0][slot].clear();
+    }
+}
@@ -0,0 +1,279 @@
+package com.frozendawn.world;
+
+import com.frozendawn.init.ModBlocks;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Overworld trees, found as connected components of log and leaf blocks when a chunk
+ * loads, so VegetationDecay can visit trees instead of probing the tree zone at random.
+ *
+ * A tree here is one component clipped to its chunk and to the tree zone (Y 50-129):
+ * a tree straddling a chunk border is two trees, one per chunk, which keeps every
+ * chunk's trees independent of its neighbours' load state. Each tree keeps its bounds
+ * and the blocks decay can still act on (live and dead logs and leaves; frozen ones
+ * only connect). Members are dropped lazily once they turn into something else, and a
+ * tree with none left is forgotten. A tree block placed in a chunk marks it for a
+ * rescan (saplings growing, players building), done a few chunks per tick. Rescanned
+ * trees keep the visit times of the tree they were part of, so their decay goes on
+ * at the same pace.
+ *
+ * Runtime only: rebuilt from the blocks on every load. Server thread only.
+ */
+public final class TreeRegistry {
+
+    /** Dirty chunks rescanned per call to rescanDirty. */
+    private static final int RESCANS_PER_TICK = 4;
+
+    /** Blocks that connect a tree: anything collapseTree removes. */
+    private static volatile StateMask treeBlocks = newTreeBlocks();
+    /** Blocks decay can still act on; the rest of a tree only connects it. */
+    private static volatile StateMask decaying = newDecaying();
+
+    private static final Long2ObjectOpenHashMap<List<Tree>> trees = new Long2ObjectOpenHashMap<>();
+    private static final LongOpenHashSet dirty = new LongOpenHashSet();
+    private static int treeCount;
+
+    /** Reusable flood fill state (server thread only). */
+    private static final LongArrayFIFOQueue fillQueue = new LongArrayFIFOQueue();
+    private static final LongOpenHashSet fillVisited = new LongOpenHashSet();
+
+    private TreeRegistry() {}
+
+    /** One tree: its bounds and its decaying blocks, packed as (y << 8) | (z << 4) | x within the chunk. */
+    static final class Tree {
+        final long chunk;
+        final BoundingBox bounds;
+        private final int[] members;
+        private int size;
+        /** Game tick of the next visit, and of the last one (0 = never visited). */
+        long due;
+        long lastVisit;
+
+        private Tree(long chunk, BoundingBox bounds, int[] members) {
+            this.chunk = chunk;
+            this.bounds = bounds;
+            this.members = members;
+            this.size = members.length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /** Sets pos to the i-th member (0 <= i < size). */
+        void member(int i, BlockPos.MutableBlockPos pos) {
+            int packed = members[i];
+            pos.set((ChunkPos.getX(chunk) << 4) + (packed & 15), packed >> 8, (ChunkPos.getZ(chunk) << 4) + ((packed >> 4) & 15));
+        }
+
+        /** Forgets the i-th member; the last member takes its index. */
+        void removeMember(int i) {
+            members[i] = members[--size];
+        }
+    }
+
+    static boolean isTreeBlock(BlockState state) {
+        return treeBlocks.contains(state);
+    }
+
+    static boolean isDecaying(BlockState state) {
+        return decaying.contains(state);
+    }
+
+    /** The chunk's trees (live list; empty if it has none). */
+    static List<Tree> treesIn(long chunkKey) {
+        List<Tree> list = trees.get(chunkKey);
+        return list != null ? list : List.of();
+    }
+
+    /** Forgets a tree whose members are all gone. */
+    static void remove(Tree tree) {
+        List<Tree> list = trees.get(tree.chunk);
+        if (list == null || !list.remove(tree)) return;
+        treeCount--;
+        if (list.isEmpty()) trees.remove(tree.chunk);
+    }
+
+    public static void onChunkLoad(Level level, LevelChunk chunk) {
+        if (level.dimension() != Level.OVERWORLD) return;
+        scan(chunk);
+    }
+
+    public static void onChunkUnload(Level level, ChunkPos pos) {
+        if (level.dimension() != Level.OVERWORLD) return;
+        forget(pos.toLong());
+        dirty.remove(pos.toLong());
+    }
+
+    /** BlockChangeBus listener: a newly placed tree block means the chunk's trees changed. */
+    static void onBlockChanged(Level level, BlockPos pos, BlockState oldState, BlockState newState) {
+        if (level.dimension() != Level.OVERWORLD) return;
+        if (pos.getY() < VegetationDecay.TREE_ZONE_MIN_Y || pos.getY() > VegetationDecay.TREE_ZONE_MAX_Y) return;
+        if (!isDecaying(newState) || isTreeBlock(oldState)) return;
+        dirty.add(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+    }
+
+    /** Rescans a few chunks that had tree blocks placed in them. */
+    static void rescanDirty(Level level) {
+        if (dirty.isEmpty()) return;
+        LongIterator it = dirty.iterator();
+        for (int n = 0; n < RESCANS_PER_TICK && it.hasNext(); n++) {
+            long key = it.nextLong();
+            it.remove();
+            LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(key), ChunkPos.getZ(key));
+            if (chunk != null) scan(chunk);
+        }
+    }
+
+    /** Block tags may have changed what counts as a tree; rebuild the masks. */
+    public static void onTagsUpdated() {
+        treeBlocks = newTreeBlocks();
+        decaying = newDecaying();
+    }
+
+    /** Re-scans a loaded chunk from scratch, e.g. after a tag reload. */
+    public static void reseedChunk(Level level, LevelChunk chunk) {
+        if (level.dimension() != Level.OVERWORLD) return;
+        scan(chunk);
+    }
+
+    public static int getTreeCount() {
+        return treeCount;
+    }
+
+    public static int getChunkCount() {
+        return trees.size();
+    }
+
+    public static void reset() {
+        trees.clear();
+        dirty.clear();
+        treeCount = 0;
+    }
+
+    /**
+     * Replaces the chunk's trees with the components found in its tree zone sections.
+     * A tree found inside the bounds of one the chunk had takes over its visit times.
+     */
+    private static void scan(LevelChunk chunk) {
+        long chunkKey = chunk.getPos().toLong();
+        List<Tree> previous = trees.get(chunkKey);
+        forget(chunkKey);
+        int minY = Math.max(VegetationDecay.TREE_ZONE_MIN_Y, chunk.getMinBuildHeight());
+        int maxY = Math.min(VegetationDecay.TREE_ZONE_MAX_Y, chunk.getMaxBuildHeight() - 1);
+        if (minY > maxY) return;
+        StateMask connects = treeBlocks;
+        int baseX = chunk.getPos().getMinBlockX();
+        int baseZ = chunk.getPos().getMinBlockZ();
+        List<Tree> found = null;
+        fillVisited.clear();
+        for (int index = chunk.getSectionIndex(minY); index <= chunk.getSectionIndex(maxY); index++) {
+            LevelChunkSection section = chunk.getSection(index);
+            if (!decaying.mayBeIn(section)) continue;
+            PalettedContainer<BlockState> states = section.getStates();
+            int sectionBaseY = SectionPos.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(index));
+            for (int y = Math.max(minY, sectionBaseY); y <= Math.min(maxY, sectionBaseY + 15); y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (!decaying.contains(states.get(x, y - sectionBaseY, z))) continue;
+                        long start = BlockPos.asLong(baseX + x, y, baseZ + z);
+                        if (!fillVisited.add(start)) continue;
+                        Tree tree = fill(chunk, chunkKey, start, minY, maxY, connects);
+                        if (tree == null) continue;
+                        if (found == null) found = new ArrayList<>();
+                        found.add(tree);
+                    }
+                }
+            }
+        }
+        fillVisited.clear();
+        if (found == null) return;
+        if (previous != null) {
+            BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+            for (Tree tree : found) {
+                tree.member(0, cursor);
+                for (Tree old : previous) {
+                    if (!old.bounds.isInside(cursor)) continue;
+                    tree.due = old.due;
+                    tree.lastVisit = old.lastVisit;
+                    break;
+                }
+            }
+        }
+        trees.put(chunkKey, found);
+        treeCount += found.size();
+    }
+
+    /** Flood-fills one component from start (already marked visited), within the chunk and Y range. */
+    private static Tree fill(LevelChunk chunk, long chunkKey, long start, int minY, int maxY, StateMask connects) {
+        IntArrayList members = new IntArrayList();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        int minX = Integer.MAX_VALUE, minBy = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxBy = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        int chunkX = ChunkPos.getX(chunkKey);
+        int chunkZ = ChunkPos.getZ(chunkKey);
+        fillQueue.clear();
+        fillQueue.enqueue(start);
+        while (!fillQueue.isEmpty()) {
+            long packed = fillQueue.dequeueLong();
+            cursor.set(packed);
+            BlockState state = chunk.getBlockState(cursor);
+            if (isDecaying(state)) {
+                members.add(cursor.getY() << 8 | (cursor.getZ() & 15) << 4 | (cursor.getX() & 15));
+            }
+            minX = Math.min(minX, cursor.getX());
+            minBy = Math.min(minBy, cursor.getY());
+            minZ = Math.min(minZ, cursor.getZ());
+            maxX = Math.max(maxX, cursor.getX());
+            maxBy = Math.max(maxBy, cursor.getY());
+            maxZ = Math.max(maxZ, cursor.getZ());
+            for (Direction dir : Direction.values()) {
+                long neighbor = BlockPos.offset(packed, dir);
+                int ny = BlockPos.getY(neighbor);
+                if (ny < minY || ny > maxY) continue;
+                if (BlockPos.getX(neighbor) >> 4 != chunkX || BlockPos.getZ(neighbor) >> 4 != chunkZ) continue;
+                if (fillVisited.contains(neighbor)) continue;
+                cursor.set(neighbor);
+                if (!connects.contains(chunk.getBlockState(cursor))) continue;
+                fillVisited.add(neighbor);
+                fillQueue.enqueue(neighbor);
+            }
+        }
+        if (members.isEmpty()) return null;
+        return new Tree(chunkKey, new BoundingBox(minX, minBy, minZ, maxX, maxBy, maxZ), members.toIntArray());
+    }
+
+    private static void forget(long chunkKey) {
+        List<Tree> removed = trees.remove(chunkKey);
+        if (removed != null) treeCount -= removed.size();
+    }
+
+    private static StateMask newTreeBlocks() {
+        return new StateMask(state -> state.is(BlockTags.LOGS) || state.is(BlockTags.LEAVES)
+                || state.is(ModBlocks.DEAD_LOG.get()) || state.is(ModBlocks.FROZEN_LOG.get())
+                || state.is(ModBlocks.DEAD_LEAVES.get()) || state.is(ModBlocks.FROZEN_LEAVES.get()));
+    }
+
+    private static StateMask newDecaying() {
+        return new StateMask(state -> state.is(BlockTags.LOGS) || state.is(BlockTags.LEAVES)
+                || state.is(ModBlocks.DEAD_LOG.get()) || state.is(ModBlocks.DEAD_LEAVES.get()));
+    }
+}
@@ -2,24 +2,25 @@ package com.frozendawn.world;
 
 import com.frozendawn.config.FrozenDawnConfig;
 import com.frozendawn.init.ModBlocks;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.tags.BlockTags;
 import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.CropBlock;
 import net.minecraft.world.level.block.DoublePlantBlock;
 import net.minecraft.world.level.block.RotatedPillarBlock;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.properties.DoubleBlockHalf;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.levelgen.Heightmap;
 
-import java.util.ArrayDeque;
-import java.util.HashSet;
-import java.util.Queue;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Handles vegetation death driven by apocalypse phase:
@@ -33,22 +34,43 @@ import java.util.Set;
  *
  * Phase 3+: Trees collapse via flood-fill.
  * Phase 5: Trees snap at a random height, leaving stumps.
+ *
+ * Surface plants are found by random column probes; chunks with nothing left to decay
+ * are skipped via ChunkWatermarks, and with randomTickMode on the probes are taken per
+ * chunk from vanilla's random ticking (see RandomTicks). Trees are visited one by one
+ * from TreeRegistry in either mode.
  */
 public final class VegetationDecay {
 
     private VegetationDecay() {}
 
     private static final int BASE_SURFACE_CHECKS = 16;
+    /** Tree checks are still stated as random probes of the tree zone, per player square. */
     private static final int BASE_VOLUME_CHECKS = 16;
     private static final int RADIUS = 64;
+    static final int TREE_ZONE_MIN_Y = 50;
+    static final int TREE_ZONE_MAX_Y = 129;
     private static final int MAX_COLLAPSE_BLOCKS = 64;
     private static final int MAX_SNAP_BLOCKS = 128;
+    /** Average ticks between visits to one tree. */
+    private static final int TREE_VISIT_INTERVAL = 100;
+    /** A tree back near a player after a long time only makes up this many ticks. */
+    private static final int MAX_VISIT_GAP = TREE_VISIT_INTERVAL * 2;
 
     /** Reusable collections for flood-fill operations (server thread only). */
-    private static final Queue<BlockPos> fillQueue = new ArrayDeque<>();
-    private static final Set<BlockPos> fillVisited = new HashSet<>();
+    private static final LongArrayFIFOQueue fillQueue = new LongArrayFIFOQueue();
+    private static final LongOpenHashSet fillVisited = new LongOpenHashSet();
+    private static final List<TreeRegistry.Tree> dueTrees = new ArrayList<>();
+
+    /** Everything the passes need to know about the current phase, worked out once per tick. */
+    private record Stage(int phase, int stage, StateMask surfaceMask, int surfaceChecks) {
+    }
+
+    /** The stage the random-tick hook works with, or null when it has nothing to do. */
+    private static Stage randomTickStage;
 
     public static void tick(ServerLevel level, int phase) {
+        randomTickStage = null;
         if (phase < 2) return;
         if (!FrozenDawnConfig.ENABLE_VEGETATION_DECAY.get()) return;
 
@@ -67,82 +89,232 @@ public final class VegetationDecay {
             default -> BASE_VOLUME_CHECKS * 20; // phase 5: 320 checks/player/tick
         };
 
+        int stageId = 1 + phase;
+        StateMask surfaceMask = ChunkWatermarks.stage(ChunkWatermarks.Pass.VEGETATION_SURFACE, stageId,
+                state -> decaysOnSurface(state, phase));
+        Stage stage = new Stage(phase, stageId, surfaceMask, surfaceChecks);
+        // Random-tick mode: the surface probes come from vanilla's chunk ticking instead
+        boolean randomTicks = FrozenDawnConfig.RANDOM_TICK_MODE.get();
+        if (randomTicks) randomTickStage = stage;
+
+        long[] area = SamplingArea.chunksNear(level, RADIUS);
+        if (area.length == 0) return;
         RandomSource random = level.getRandom();
+        decayTrees(level, area, phase, volumeChecks, random);
+        if (randomTicks) return;
+
+        long[] surfaceArea = ChunkWatermarks.openChunks(level, area, ChunkWatermarks.Pass.VEGETATION_SURFACE, stageId);
+        if (surfaceArea.length > 0) {
+            MutationScheduler.Run surface = MutationScheduler.begin(MutationScheduler.Lane.VEGETATION_SURFACE,
+                    SamplingArea.demand(surfaceArea, RADIUS, surfaceChecks));
+            while (surface.next()) {
+                SurfaceSamples.Column column = SurfaceSamples.next(MutationScheduler.Lane.VEGETATION_SURFACE,
+                        level, surfaceArea, random);
+                if (column != null) probeSurface(level, column, stage);
+            }
+            surface.end();
+        }
+    }
 
-        for (ServerPlayer player : level.players()) {
-            BlockPos origin = player.blockPosition();
-            BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+    /**
+     * Random-tick mode: called for each chunk vanilla random-ticks, after its own block
+     * ticks. Probes the chunk at the density the sampling passes would have given it,
+     * scaled by randomTickSpeed relative to the default of 3, under the surface lane.
+     */
+    public static void randomTickChunk(ServerLevel level, LevelChunk chunk, int randomTickSpeed) {
+        Stage stage = randomTickStage;
+        if (stage == null) return;
+        RandomSource random = level.getRandom();
+        int baseX = chunk.getPos().getMinBlockX();
+        int baseZ = chunk.getPos().getMinBlockZ();
+        if (ChunkWatermarks.isComplete(chunk, ChunkWatermarks.Pass.VEGETATION_SURFACE, 0, stage.stage())) return;
+        MutationScheduler.Run surface = MutationScheduler.begin(MutationScheduler.Lane.VEGETATION_SURFACE,
+                stage.surfaceChecks() * RandomTicks.probeScale(RADIUS, randomTickSpeed));
+        while (surface.next()) {
+            probeSurface(level, SurfaceSamples.of(chunk, baseX + random.nextInt(16), baseZ + random.nextInt(16)), stage);
+        }
+        surface.end();
+    }
+
+    /** One surface probe of a sampled column: its top block. */
+    private static void probeSurface(ServerLevel level, SurfaceSamples.Column column, Stage stage) {
+        LevelChunk chunk = column.chunk();
+        BlockState state = column.top(Heightmap.Types.WORLD_SURFACE);
+        if (!stage.surfaceMask().contains(state)) {
+            ChunkWatermarks.miss(chunk, ChunkWatermarks.Pass.VEGETATION_SURFACE, 0, stage.stage(),
+                    () -> surfaceFinished(chunk, stage.surfaceMask()));
+            return;
+        }
+        ChunkWatermarks.hit(chunk, ChunkWatermarks.Pass.VEGETATION_SURFACE, 0);
+        decaySurface(level, new BlockPos(column.x(), column.height(Heightmap.Types.WORLD_SURFACE) - 1, column.z()),
+                state, stage.phase());
+    }
 
-            for (int i = 0; i < surfaceChecks; i++) {
-                int x = origin.getX() + random.nextInt(RADIUS * 2 + 1) - RADIUS;
-                int z = origin.getZ() + random.nextInt(RADIUS * 2 + 1) - RADIUS;
-                int surfaceY = level.getHeight(Heightmap.Types.WORLD_SURFACE, x, z) - 1;
-                mutable.set(x, surfaceY, z);
-                if (!level.isLoaded(mutable)) continue;
+    /**
+     * Tree pass: every TreeRegistry tree near a player is visited about every
+     * TREE_VISIT_INTERVAL ticks and takes as many decay checks as random probes of the
+     * tree zone would have landed on its blocks since its last visit. Cost follows the
+     * number of trees, not the volume searched for them.
+     */
+    private static void decayTrees(ServerLevel level, long[] area, int phase, int treeChecks, RandomSource random) {
+        TreeRegistry.rescanDirty(level);
+        long now = level.getGameTime();
+        dueTrees.clear();
+        for (long chunkKey : area) {
+            for (TreeRegistry.Tree tree : TreeRegistry.treesIn(chunkKey)) {
+                if (tree.due <= now) dueTrees.add(tree);
+            }
+        }
+        if (dueTrees.isEmpty()) return;
+        // Chance per block per game tick of a tree zone probe (the pass runs every other tick)
+        double perBlock = SamplingArea.perChunk(RADIUS, treeChecks) * MutationScheduler.getDensity()
+                / (2.0 * (TREE_ZONE_MAX_Y - TREE_ZONE_MIN_Y + 1) * 256);
+        MutationScheduler.Run run = MutationScheduler.begin(MutationScheduler.Lane.VEGETATION_TREES,
+                Math.max(0, dueTrees.size()
+                        - MutationScheduler.stats(MutationScheduler.Lane.VEGETATION_TREES).getDeferred()));
+        // Start at a random tree so deferred visits don't always fall on the same ones
+        int offset = random.nextInt(dueTrees.size());
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < dueTrees.size() && run.next(); i++) {
+            visitTree(level, dueTrees.get((offset + i) % dueTrees.size()), now, perBlock, phase, random, cursor);
+        }
+        run.end();
+        dueTrees.clear();
+    }
 
-                BlockPos pos = mutable.immutable();
-                decaySurface(level, pos, level.getBlockState(pos), phase);
+    private static void visitTree(ServerLevel level, TreeRegistry.Tree tree, long now, double perBlock, int phase,
+                                  RandomSource random, BlockPos.MutableBlockPos cursor) {
+        // The first visit only starts the tree's clock
+        long elapsed = tree.lastVisit == 0 ? 0 : Math.min(now - tree.lastVisit, MAX_VISIT_GAP);
+        tree.lastVisit = now;
+        tree.due = now + TREE_VISIT_INTERVAL / 2 + random.nextInt(TREE_VISIT_INTERVAL);
+        LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(tree.chunk), ChunkPos.getZ(tree.chunk));
+        if (chunk == null) return;
+        for (int n = RandomTicks.probes(perBlock * tree.size() * elapsed, random); n > 0 && tree.size() > 0; n--) {
+            int i = random.nextInt(tree.size());
+            tree.member(i, cursor);
+            BlockState state = chunk.getBlockState(cursor);
+            if (!TreeRegistry.isDecaying(state)) {
+                tree.removeMember(i);
+                continue;
             }
+            decayVolume(level, cursor.immutable(), state, phase, random);
+        }
+        if (tree.size() == 0) TreeRegistry.remove(tree);
+    }
 
-            for (int i = 0; i < volumeChecks; i++) {
-                int x = origin.getX() + random.nextInt(RADIUS * 2 + 1) - RADIUS;
-                int z = origin.getZ() + random.nextInt(RADIUS * 2 + 1) - RADIUS;
-                // Focus Y-range on tree zone (50-130) instead of entire world height
-                int y = 50 + random.nextInt(80);
-                mutable.set(x, y, z);
-                if (!level.isLoaded(mutable)) continue;
+    /** Drops the random-tick stage. */
+    public static void reset() {
+        randomTickStage = null;
+    }
 
-                BlockPos pos = mutable.immutable();
-                decayVolume(level, pos, level.getBlockState(pos), phase, random);
+    /** Verifies a chunk for the surface pass: no column's top block is something it can decay. */
+    private static boolean surfaceFinished(LevelChunk chunk, StateMask mask) {
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        int baseX = chunk.getPos().getMinBlockX();
+        int baseZ = chunk.getPos().getMinBlockZ();
+        for (int lx = 0; lx < 16; lx++) {
+            for (int lz = 0; lz < 16; lz++) {
+                cursor.set(baseX + lx, chunk.getHeight(Heightmap.Types.WORLD_SURFACE, lx, lz), baseZ + lz);
+                if (mask.contains(chunk.getBlockState(cursor))) return false;
             }
         }
+        return true;
+    }
+
+    /** True if decaySurface can change this state at the given phase. */
+    private static boolean decaysOnSurface(BlockState state, int phase) {
+        if (state.is(BlockTags.FLOWERS) || state.is(Blocks.SHORT_GRASS) || state.is(Blocks.FERN)
+                || state.is(Blocks.TALL_GRASS) || state.is(Blocks.LARGE_FERN) || state.is(BlockTags.SAPLINGS)) {
+            return phase >= 2;
+        }
+        return (state.getBlock() instanceof CropBlock || state.is(Blocks.DEAD_BUSH)) && phase >= 3;
+    }
+
+    /**
+     * Where decaySurface leaves a top block after enough checks at this phase, for
+     * ChunkCatchUp (null = unchanged). Halves of a double plant map separately: the
+     * lower half becomes the dead bush, the upper half air.
+     */
+    static BlockState settledSurfaceState(BlockState state, int phase) {
+        if (!decaysOnSurface(state, phase)) return null;
+        // Dead bushes and crops are gone from phase 3, so every plant ends as air
+        if (phase >= 3) return Blocks.AIR.defaultBlockState();
+        if (state.getBlock() instanceof DoublePlantBlock
+                && state.getValue(DoublePlantBlock.HALF) == DoubleBlockHalf.UPPER) {
+            return Blocks.AIR.defaultBlockState();
+        }
+        return Blocks.DEAD_BUSH.defaultBlockState();
+    }
+
+    /**
+     * Where decayVolume leaves a tree block after enough checks at this phase, for
+     * ChunkCatchUp (null = unchanged). Leaves fall and logs freeze in place; the random
+     * collapses and snaps aren't replayed. Phase 2 leaf death is too sparse to settle.
+     */
+    static BlockState settledTreeState(BlockState state, int phase) {
+        if (phase < 3) return null;
+        if (state.is(BlockTags.LEAVES) || state.is(ModBlocks.DEAD_LEAVES.get())) return Blocks.AIR.defaultBlockState();
+        if (!state.is(BlockTags.LOGS) && !state.is(ModBlocks.DEAD_LOG.get())) return null;
+        Direction.Axis axis = state.hasProperty(RotatedPillarBlock.AXIS)
+                ? state.getValue(RotatedPillarBlock.AXIS)
+                : Direction.Axis.Y;
+        BlockState settled = (phase >= 4 ? ModBlocks.FROZEN_LOG.get() : ModBlocks.DEAD_LOG.get()).defaultBlockState();
+        return settled.setValue(RotatedPillarBlock.AXIS, axis);
     }
 
     private static void decaySurface(ServerLevel level, BlockPos pos, BlockState state, int phase) {
         if (state.is(BlockTags.FLOWERS) && phase >= 2) {
             if (state.getBlock() instanceof DoublePlantBlock) {
-                boolean isUpper = state.getValue(DoublePlantBlock.HALF) == DoubleBlockHalf.UPPER;
-                BlockPos upperPos = isUpper ? pos : pos.above();
-                BlockPos lowerPos = isUpper ? pos.below() : pos;
-                level.setBlock(upperPos, Blocks.AIR.defaultBlockState(), 3);
-                level.setBlock(lowerPos, Blocks.DEAD_BUSH.defaultBlockState(), 3);
+                killDoublePlant(level, pos, state);
             } else {
-                level.setBlock(pos, Blocks.DEAD_BUSH.defaultBlockState(), 3);
+                MutationBuffer.set(pos, state, Blocks.DEAD_BUSH.defaultBlockState());
             }
             return;
         }
 
         if ((state.is(Blocks.SHORT_GRASS) || state.is(Blocks.FERN)) && phase >= 2) {
-            level.setBlock(pos, Blocks.DEAD_BUSH.defaultBlockState(), 3);
+            MutationBuffer.set(pos, state, Blocks.DEAD_BUSH.defaultBlockState());
             return;
         }
 
         if ((state.is(Blocks.TALL_GRASS) || state.is(Blocks.LARGE_FERN)) && phase >= 2) {
             if (state.getBlock() instanceof DoublePlantBlock) {
-                boolean isUpper = state.getValue(DoublePlantBlock.HALF) == DoubleBlockHalf.UPPER;
-                BlockPos upperPos = isUpper ? pos : pos.above();
-                BlockPos lowerPos = isUpper ? pos.below() : pos;
-                level.setBlock(upperPos, Blocks.AIR.defaultBlockState(), 3);
-                level.setBlock(lowerPos, Blocks.DEAD_BUSH.defaultBlockState(), 3);
+                killDoublePlant(level, pos, state);
             }
             return;
         }
 
         if (state.is(BlockTags.SAPLINGS) && phase >= 2) {
-            level.setBlock(pos, Blocks.DEAD_BUSH.defaultBlockState(), 3);
+            MutationBuffer.set(pos, state, Blocks.DEAD_BUSH.defaultBlockState());
             return;
         }
 
         if (state.getBlock() instanceof CropBlock && phase >= 3) {
-            level.setBlock(pos, Blocks.AIR.defaultBlockState(), 3);
+            MutationBuffer.set(pos, state, Blocks.AIR.defaultBlockState());
             return;
         }
 
         if (state.is(Blocks.DEAD_BUSH) && phase >= 3) {
-            level.setBlock(pos, Blocks.AIR.defaultBlockState(), 3);
+            MutationBuffer.set(pos, state, Blocks.AIR.defaultBlockState());
         }
     }
 
+    /**
+     * Turns a double plant into a dead bush. The lower half goes first: replacing it
+     * already removes the upper half through its shape update, and the queued upper
+     * change is then dropped as stale.
+     */
+    private static void killDoublePlant(ServerLevel level, BlockPos pos, BlockState state) {
+        boolean isUpper = state.getValue(DoublePlantBlock.HALF) == DoubleBlockHalf.UPPER;
+        BlockPos upperPos = isUpper ? pos : pos.above();
+        BlockPos lowerPos = isUpper ? pos.below() : pos;
+        BlockState upper = isUpper ? state : level.getBlockState(upperPos);
+        BlockState lower = isUpper ? level.getBlockState(lowerPos) : state;
+        MutationBuffer.set(lowerPos, lower, Blocks.DEAD_BUSH.defaultBlockState());
+        MutationBuffer.set(upperPos, upper, Blocks.AIR.defaultBlockState());
+    }
+
     private static void decayVolume(ServerLevel level, BlockPos pos, BlockState state, int phase, RandomSource random) {
         // --- Leaf decay chain: gradual, phase-dependent chance ---
         if (state.is(BlockTags.LEAVES)) {
@@ -153,7 +325,7 @@ public final class VegetationDecay {
                 default -> 0.80f; // phase 5: rapid defoliation
             };
             if (random.nextFloat() < leafDeathChance) {
-                level.setBlock(pos, ModBlocks.DEAD_LEAVES.get().defaultBlockState(), 3);
+                MutationBuffer.set(pos, state, ModBlocks.DEAD_LEAVES.get().defaultBlockState());
             }
             return;
         }
@@ -166,7 +338,7 @@ public final class VegetationDecay {
                 default -> 0.60f;
             };
             if (random.nextFloat() < fallChance) {
-                level.setBlock(pos, Blocks.AIR.defaultBlockState(), 3);
+                MutationBuffer.set(pos, state, Blocks.AIR.defaultBlockState());
             }
             return;
         }
@@ -176,8 +348,8 @@ public final class VegetationDecay {
             Direction.Axis axis = state.hasProperty(RotatedPillarBlock.AXIS)
                     ? state.getValue(RotatedPillarBlock.AXIS)
                     : Direction.Axis.Y;
-            level.setBlock(pos, ModBlocks.DEAD_LOG.get().defaultBlockState()
-                    .setValue(RotatedPillarBlock.AXIS, axis), 3);
+            MutationBuffer.set(pos, state, ModBlocks.DEAD_LOG.get().defaultBlockState()
+                    .setValue(RotatedPillarBlock.AXIS, axis));
             return;
         }
 
@@ -203,48 +375,48 @@ public final class VegetationDecay {
             // Otherwise just freeze in phase 4+
             if (phase >= 4) {
                 Direction.Axis axis = state.getValue(RotatedPillarBlock.AXIS);
-                level.setBlock(pos, ModBlocks.FROZEN_LOG.get().defaultBlockState()
-                        .setValue(RotatedPillarBlock.AXIS, axis), 3);
+                MutationBuffer.set(pos, state, ModBlocks.FROZEN_LOG.get().defaultBlockState()
+                        .setValue(RotatedPillarBlock.AXIS, axis));
             }
         }
     }
 
     /**
      * Collapse a dead tree: flood-fill from the given log position,
-     * removing all connected tree blocks. Drops items naturally.
+     * removing all connected tree blocks. The drops land merged at the
+     * start log (see MergedDrops), or per block with mergeCollapseDrops off.
      */
     private static void collapseTree(ServerLevel level, BlockPos start) {
+        boolean merge = FrozenDawnConfig.MERGE_COLLAPSE_DROPS.get();
+        if (merge) MergedDrops.begin();
         fillQueue.clear();
         fillVisited.clear();
-        fillQueue.add(start);
-        fillVisited.add(start);
+        long startKey = start.asLong();
+        fillQueue.enqueue(startKey);
+        fillVisited.add(startKey);
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
         int removed = 0;
 
         while (!fillQueue.isEmpty() && removed < MAX_COLLAPSE_BLOCKS) {
-            BlockPos current = fillQueue.poll();
-            BlockState state = level.getBlockState(current);
-
-            boolean isTreeBlock = state.is(ModBlocks.DEAD_LOG.get())
-                    || state.is(ModBlocks.FROZEN_LOG.get())
-                    || state.is(ModBlocks.DEAD_LEAVES.get())
-                    || state.is(ModBlocks.FROZEN_LEAVES.get())
-                    || state.is(BlockTags.LEAVES)
-                    || state.is(BlockTags.LOGS);
-
-            if (!isTreeBlock && !current.equals(start)) continue;
+            long current = fillQueue.dequeueLong();
+            BlockState state = level.getBlockState(cursor.set(current));
+            if (!TreeRegistry.isTreeBlock(state) && current != startKey) continue;
 
-            level.destroyBlock(current, true);
+            BlockPos pos = BlockPos.of(current);
+            if (merge) MergedDrops.collect(level, pos, state);
+            level.destroyBlock(pos, !merge);
             removed++;
 
             if (fillVisited.size() > MAX_COLLAPSE_BLOCKS * 8) break;
             for (Direction dir : Direction.values()) {
-                BlockPos neighbor = current.relative(dir);
-                if (!fillVisited.contains(neighbor) && level.isLoaded(neighbor)) {
+                long neighbor = BlockPos.offset(current, dir);
+                if (!fillVisited.contains(neighbor) && level.isLoaded(cursor.set(neighbor))) {
                     fillVisited.add(neighbor);
-                    fillQueue.add(neighbor);
+                    fillQueue.enqueue(neighbor);
                 }
             }
         }
+        if (merge) MergedDrops.dropAt(level, start);
     }
 
     /**
@@ -259,45 +431,39 @@ public final class VegetationDecay {
         // Then destroy everything above by scanning upward and outward
         fillQueue.clear();
         fillVisited.clear();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
         int removed = 0;
 
         // Start from the block above the snap point
-        BlockPos above = snapPoint.above();
-        fillQueue.add(above);
+        long above = snapPoint.above().asLong();
+        fillQueue.enqueue(above);
         fillVisited.add(above);
-        fillVisited.add(snapPoint); // don't go back down through snap point
+        fillVisited.add(snapPoint.asLong()); // don't go back down through snap point
 
         while (!fillQueue.isEmpty() && removed < MAX_SNAP_BLOCKS) {
-            BlockPos current = fillQueue.poll();
-            BlockState state = level.getBlockState(current);
-
-            boolean isTreeBlock = state.is(ModBlocks.DEAD_LOG.get())
-                    || state.is(ModBlocks.FROZEN_LOG.get())
-                    || state.is(ModBlocks.DEAD_LEAVES.get())
-                    || state.is(ModBlocks.FROZEN_LEAVES.get())
-                    || state.is(BlockTags.LEAVES)
-                    || state.is(BlockTags.LOGS);
-
-            if (!isTreeBlock) continue;
+            long current = fillQueue.dequeueLong();
+            BlockState state = level.getBlockState(cursor.set(current));
+            if (!TreeRegistry.isTreeBlock(state)) continue;
 
-            level.destroyBlock(current, false); // no drops — they shatter
+            level.destroyBlock(BlockPos.of(current), false); // no drops — they shatter
             removed++;
 
             if (fillVisited.size() > MAX_SNAP_BLOCKS * 8) break;
             // Spread upward and sideways (not downward past snap point)
             for (Direction dir : Direction.values()) {
                 if (dir == Direction.DOWN) continue; // don't go below snap
-                BlockPos neighbor = current.relative(dir);
-                if (!fillVisited.contains(neighbor) && level.isLoaded(neighbor)) {
+                long neighbor = BlockPos.offset(current, dir);
+                if (!fillVisited.contains(neighbor) && level.isLoaded(cursor.set(neighbor))) {
                     fillVisited.add(neighbor);
-                    fillQueue.add(neighbor);
+                    fillQueue.enqueue(neighbor);
                 }
             }
             // Also check directly below for branches that extend down from canopy
-            BlockPos below = current.below();
-            if (!fillVisited.contains(below) && level.isLoaded(below) && current.getY() > snapPoint.getY()) {
+            long below = BlockPos.offset(current, Direction.DOWN);
+            if (!fillVisited.contains(below) && level.isLoaded(cursor.set(below))
+                    && BlockPos.getY(current) > snapPoint.getY()) {
                 fillVisited.add(below);
-                fillQueue.add(below);
+                fillQueue.enqueue(below);
             }
         }
     }
@@ -0,0 +1,51 @@
+package com.frozendawn.world;
+
+import net.minecraft.core.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DepositRegistryTest {
+
+    private static final BlockPos POS = new BlockPos(-7, 70, 15);
+
+    @Test
+    void findsCrystalsAnywhereInTheBox() {
+        for (int dx = -2; dx <= 2; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -2; dz <= 2; dz++) {
+                    PositionIndex crystals = new PositionIndex();
+                    crystals.add(POS.offset(dx, dy, dz).asLong());
+                    assertTrue(DepositRegistry.hasCrystalNear(crystals, POS, 2), dx + " " + dy + " " + dz);
+                }
+            }
+        }
+    }
+
+    @Test
+    void ignoresCrystalsOutsideTheBoxEvenWhenClose() {
+        BlockPos[] outside = {POS.offset(3, 0, 0), POS.offset(0, 2, 0), POS.offset(0, -2, 0), POS.offset(-3, 1, -2)};
+        for (BlockPos crystal : outside) {
+            PositionIndex crystals = new PositionIndex();
+            crystals.add(crystal.asLong());
+            assertFalse(DepositRegistry.hasCrystalNear(crystals, POS, 2), crystal.toString());
+        }
+    }
+
+    @Test
+    void radiusZeroOnlyCoversTheColumn() {
+        PositionIndex crystals = new PositionIndex();
+        crystals.add(POS.below().asLong());
+        assertTrue(DepositRegistry.hasCrystalNear(crystals, POS, 0));
+
+        PositionIndex beside = new PositionIndex();
+        beside.add(POS.east().asLong());
+        assertFalse(DepositRegistry.hasCrystalNear(beside, POS, 0));
+    }
+
+    @Test
+    void emptyIndexHasNoCrystals() {
+        assertFalse(DepositRegistry.hasCrystalNear(new PositionIndex(), POS, 2));
+    }
+}
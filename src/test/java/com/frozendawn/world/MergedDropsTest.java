@@ -0,0 +1,71 @@
+package com.frozendawn.world;
+
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MergedDropsTest {
+
+    @Test
+    void topsUpPartialStacksBeforeStartingNewOnes() {
+        List<ItemStack> stacks = new ArrayList<>();
+        MergedDrops.add(stacks, new ItemStack(Items.OAK_LOG, 40));
+        MergedDrops.add(stacks, new ItemStack(Items.OAK_LOG, 40));
+
+        assertEquals(2, stacks.size());
+        assertEquals(64, stacks.get(0).getCount());
+        assertEquals(16, stacks.get(1).getCount());
+    }
+
+    @Test
+    void keepsDifferentItemsApart() {
+        List<ItemStack> stacks = new ArrayList<>();
+        MergedDrops.add(stacks, new ItemStack(Items.OAK_LOG, 3));
+        MergedDrops.add(stacks, new ItemStack(Items.STICK, 2));
+        MergedDrops.add(stacks, new ItemStack(Items.OAK_LOG, 1));
+
+        assertEquals(2, stacks.size());
+        assertTrue(stacks.get(0).is(Items.OAK_LOG));
+        assertEquals(4, stacks.get(0).getCount());
+        assertTrue(stacks.get(1).is(Items.STICK));
+        assertEquals(2, stacks.get(1).getCount());
+    }
+
+    @Test
+    void skipsFullStacks() {
+        List<ItemStack> stacks = new ArrayList<>();
+        MergedDrops.add(stacks, new ItemStack(Items.APPLE, 64));
+        MergedDrops.add(stacks, new ItemStack(Items.APPLE, 5));
+        MergedDrops.add(stacks, new ItemStack(Items.APPLE, 5));
+
+        assertEquals(2, stacks.size());
+        assertEquals(64, stacks.get(0).getCount());
+        assertEquals(10, stacks.get(1).getCount());
+    }
+
+    @Test
+    void unstackableItemsEachKeepTheirOwnStack() {
+        List<ItemStack> stacks = new ArrayList<>();
+        MergedDrops.add(stacks, new ItemStack(Items.IRON_SWORD));
+        MergedDrops.add(stacks, new ItemStack(Items.IRON_SWORD));
+
+        assertEquals(2, stacks.size());
+    }
+
+    @Test
+    void ignoresEmptyDrops() {
+        List<ItemStack> stacks = new ArrayList<>();
+        MergedDrops.add(stacks, ItemStack.EMPTY);
+        assertTrue(stacks.isEmpty());
+
+        MergedDrops.add(stacks, new ItemStack(Items.STICK, 64));
+        MergedDrops.add(stacks, new ItemStack(Items.STICK, 0));
+        assertEquals(1, stacks.size());
+    }
+}
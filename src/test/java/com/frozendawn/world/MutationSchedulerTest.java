@@ -0,0 +1,108 @@
+package com.frozendawn.world;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MutationSchedulerTest {
+
+    /** Far more than any test needs, so only demand and debt limit a run. */
+    private static final long AMPLE_BUDGET = 1_000_000_000_000L;
+
+    @BeforeEach
+    void reset() {
+        MutationScheduler.reset();
+    }
+
+    @Test
+    void densityFallsLinearlyFromTheThrottleToFiftyMs() {
+        assertEquals(1.0, MutationScheduler.densityAt(20, 40), 1e-9);
+        assertEquals(1.0, MutationScheduler.densityAt(40, 40), 1e-9);
+        assertEquals(0.55, MutationScheduler.densityAt(45, 40), 1e-9);
+        assertEquals(0.1, MutationScheduler.densityAt(50, 40), 1e-9);
+        assertEquals(0.1, MutationScheduler.densityAt(120, 40), 1e-9);
+        assertEquals(1.0, MutationScheduler.densityAt(50, 50), 1e-9);
+    }
+
+    @Test
+    void throttledLanesScaleDemandByDensity() {
+        MutationScheduler.beginTick(45, 40, AMPLE_BUDGET, 1);
+        assertEquals(55, drain(MutationScheduler.Lane.SNOW, 100));
+    }
+
+    @Test
+    void frostbittenAttemptsKeepFullDensity() {
+        MutationScheduler.beginTick(50, 40, AMPLE_BUDGET, 1);
+        assertEquals(3, drain(MutationScheduler.Lane.FROSTBITTEN, 3));
+    }
+
+    @Test
+    void fractionalDemandCarriesUntilItMakesAUnit() {
+        MutationScheduler.beginTick(45, 40, AMPLE_BUDGET, 1);
+        assertEquals(0, drain(MutationScheduler.Lane.SNOW, 1));
+        MutationScheduler.beginTick(45, 40, AMPLE_BUDGET, 2);
+        assertEquals(1, drain(MutationScheduler.Lane.SNOW, 1));
+    }
+
+    @Test
+    void spentTimeSliceDefersTheRestToTheNextTick() {
+        MutationScheduler.beginTick(0, 40, 0, 1);
+        int ran = drain(MutationScheduler.Lane.SNOW, 20);
+        MutationScheduler.Run run = MutationScheduler.stats(MutationScheduler.Lane.SNOW);
+        assertEquals(20 - ran, run.getDeferred());
+
+        MutationScheduler.beginTick(0, 40, AMPLE_BUDGET, 2);
+        assertEquals(20 - ran, drain(MutationScheduler.Lane.SNOW, 0));
+        assertEquals(20, run.getTotalRan());
+        assertEquals(0, run.getDeferred());
+    }
+
+    @Test
+    void debtIsCappedAtThreeRunsOfDemand() {
+        MutationScheduler.Run run = MutationScheduler.stats(MutationScheduler.Lane.SNOW);
+        for (int tick = 1; tick <= 4; tick++) {
+            MutationScheduler.beginTick(0, 40, AMPLE_BUDGET, tick);
+            MutationScheduler.begin(MutationScheduler.Lane.SNOW, 20).end();
+        }
+        assertEquals(60, run.getDeferred());
+        assertEquals(20, run.getTotalDropped());
+    }
+
+    @Test
+    void secondRunInATickAddsItsDemandToTheFirst() {
+        MutationScheduler.beginTick(0, 40, AMPLE_BUDGET, 1);
+        assertEquals(10, drain(MutationScheduler.Lane.SNOW, 10));
+        assertEquals(10, drain(MutationScheduler.Lane.SNOW, 10));
+
+        MutationScheduler.Run run = MutationScheduler.stats(MutationScheduler.Lane.SNOW);
+        assertEquals(20, run.getLastRan());
+        assertEquals(20, run.getTotalRan());
+
+        // The cap follows the whole tick's demand, not just the last run's
+        for (int tick = 2; tick <= 4; tick++) {
+            MutationScheduler.beginTick(0, 40, AMPLE_BUDGET, tick);
+            MutationScheduler.begin(MutationScheduler.Lane.SNOW, 10).end();
+            MutationScheduler.begin(MutationScheduler.Lane.SNOW, 10).end();
+        }
+        assertEquals(60, run.getDeferred());
+        assertEquals(0, run.getTotalDropped());
+    }
+
+    @Test
+    void clearDebtDropsCarriedWork() {
+        MutationScheduler.beginTick(0, 40, AMPLE_BUDGET, 1);
+        MutationScheduler.Run run = MutationScheduler.begin(MutationScheduler.Lane.FREEZER_VOLUME, 30);
+        run.clearDebt();
+        assertEquals(0, run.getDeferred());
+        run.end();
+    }
+
+    private static int drain(MutationScheduler.Lane lane, double demand) {
+        MutationScheduler.Run run = MutationScheduler.begin(lane, demand);
+        int ran = 0;
+        while (run.next()) ran++;
+        run.end();
+        return ran;
+    }
+}
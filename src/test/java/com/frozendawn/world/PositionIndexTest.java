@@ -0,0 +1,89 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PositionIndexTest {
+
+    @Test
+    void addAndRemoveTrackSize() {
+        PositionIndex index = new PositionIndex();
+        long a = BlockPos.asLong(1, 64, 1);
+        long b = BlockPos.asLong(-40, -10, 300);
+
+        assertTrue(index.isEmpty());
+        assertTrue(index.add(a));
+        assertFalse(index.add(a));
+        assertTrue(index.add(b));
+        assertEquals(2, index.size());
+
+        assertTrue(index.remove(a));
+        assertFalse(index.remove(a));
+        assertEquals(1, index.size());
+        assertTrue(index.remove(b));
+        assertTrue(index.isEmpty());
+    }
+
+    @Test
+    void radiusQueriesAreInclusiveSpheresAcrossChunks() {
+        PositionIndex index = new PositionIndex();
+        BlockPos center = new BlockPos(0, 64, 0);
+        long onEdge = BlockPos.asLong(-5, 64, 0);
+        long inCorner = BlockPos.asLong(3, 66, -3);
+        long outside = BlockPos.asLong(4, 64, -4);
+        index.add(onEdge);
+        index.add(inCorner);
+        index.add(outside);
+
+        LongOpenHashSet found = new LongOpenHashSet();
+        index.forEachWithin(center, 5, found::add);
+        assertEquals(new LongOpenHashSet(new long[] {onEdge, inCorner}), found);
+
+        assertTrue(index.anyWithin(center, 5, packed -> packed == inCorner));
+        assertFalse(index.anyWithin(center, 5, packed -> packed == outside));
+        assertTrue(index.anyWithin(center, 6, packed -> packed == outside));
+    }
+
+    @Test
+    void anyWithinStopsAtTheFirstMatch() {
+        PositionIndex index = new PositionIndex();
+        for (int x = 0; x < 8; x++) index.add(BlockPos.asLong(x, 0, 0));
+
+        int[] visited = {0};
+        assertTrue(index.anyWithin(BlockPos.ZERO, 16, packed -> ++visited[0] == 3));
+        assertEquals(3, visited[0]);
+    }
+
+    @Test
+    void chunkOperationsOnlyTouchTheirColumn() {
+        PositionIndex index = new PositionIndex();
+        long a = BlockPos.asLong(-1, 10, -1);
+        long b = BlockPos.asLong(-16, 200, -16);
+        long c = BlockPos.asLong(0, 10, 0);
+        index.add(a);
+        index.add(b);
+        index.add(c);
+        long column = ChunkPos.asLong(-1, -1);
+
+        LongArrayList out = new LongArrayList();
+        index.copyChunk(column, out);
+        assertEquals(new LongOpenHashSet(new long[] {a, b}), new LongOpenHashSet(out));
+
+        index.removeChunk(column);
+        assertEquals(1, index.size());
+        LongArrayList left = new LongArrayList();
+        index.forEach(left::add);
+        assertEquals(LongArrayList.of(c), left);
+
+        index.clear();
+        assertTrue(index.isEmpty());
+        assertFalse(index.anyWithin(BlockPos.ZERO, 64, packed -> true));
+    }
+}
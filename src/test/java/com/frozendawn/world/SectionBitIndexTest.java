@@ -0,0 +1,85 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SectionBitIndexTest {
+
+    @Test
+    void localIndexMatchesVanillaSectionOrder() {
+        assertEquals(0, SectionBitIndex.localIndex(0, 0, 0));
+        assertEquals(1, SectionBitIndex.localIndex(1, 0, 0));
+        assertEquals(16, SectionBitIndex.localIndex(0, 0, 1));
+        assertEquals(256, SectionBitIndex.localIndex(0, 1, 0));
+        assertEquals(4095, SectionBitIndex.localIndex(-1, -1, -1));
+    }
+
+    @Test
+    void addRemoveAndContains() {
+        SectionBitIndex index = new SectionBitIndex();
+        BlockPos pos = new BlockPos(-17, -63, 33);
+
+        assertTrue(index.add(pos));
+        assertFalse(index.add(pos));
+        assertTrue(index.contains(pos));
+        assertFalse(index.contains(pos.east()));
+
+        assertTrue(index.remove(pos));
+        assertFalse(index.remove(pos));
+        assertFalse(index.contains(pos));
+        assertTrue(index.isEmpty());
+    }
+
+    @Test
+    void boxQueriesAreInclusiveAndCrossSections() {
+        SectionBitIndex index = new SectionBitIndex();
+        BlockPos[] inside = {
+                new BlockPos(-1, 15, -1), new BlockPos(0, 16, 0), new BlockPos(-3, 20, 2), new BlockPos(2, 12, -3)};
+        BlockPos[] outside = {new BlockPos(3, 16, 0), new BlockPos(0, 11, 0), new BlockPos(0, 16, -4)};
+        for (BlockPos pos : inside) index.add(pos);
+        for (BlockPos pos : outside) index.add(pos);
+
+        LongOpenHashSet found = new LongOpenHashSet();
+        assertFalse(index.anyInBox(-3, 12, -3, 2, 20, 2, packed -> !found.add(packed)));
+
+        LongOpenHashSet expected = new LongOpenHashSet();
+        for (BlockPos pos : inside) expected.add(pos.asLong());
+        assertEquals(expected, found);
+        assertTrue(index.anyInBox(-3, 12, -3, 2, 20, 2, packed -> packed == inside[2].asLong()));
+    }
+
+    @Test
+    void putSectionReplacesOrClearsAWholeSection() {
+        SectionBitIndex index = new SectionBitIndex();
+        long section = SectionPos.asLong(2, -1, -3);
+        long[] mask = SectionBitIndex.newMask();
+        int bit = SectionBitIndex.localIndex(5, 6, 7);
+        mask[bit >>> 6] |= 1L << (bit & 63);
+
+        index.putSection(section, mask);
+        assertTrue(index.contains(new BlockPos(32 + 5, -16 + 6, -48 + 7)));
+
+        index.putSection(section, SectionBitIndex.newMask());
+        assertTrue(index.isEmpty());
+    }
+
+    @Test
+    void removeChunkDropsEverySectionOfTheColumn() {
+        SectionBitIndex index = new SectionBitIndex();
+        index.add(new BlockPos(1, -60, 1));
+        index.add(new BlockPos(1, 300, 1));
+        BlockPos neighbour = new BlockPos(17, 0, 1);
+        index.add(neighbour);
+
+        index.removeChunk(0, 0, -4, 19);
+        assertFalse(index.contains(new BlockPos(1, -60, 1)));
+        assertFalse(index.contains(new BlockPos(1, 300, 1)));
+        assertTrue(index.contains(neighbour));
+    }
+}
@@ -0,0 +1,98 @@
+package com.frozendawn.world;
+
+import net.minecraft.core.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TemperatureCacheTest {
+
+    private static final long POS = BlockPos.asLong(10, 64, -20);
+    private static final long INPUTS = TemperatureCache.inputs(30, 100, false);
+
+    @Test
+    void missesUntilStored() {
+        TemperatureCache cache = new TemperatureCache();
+        assertTrue(Float.isNaN(cache.get(POS, INPUTS, 0, 100, 20)));
+
+        cache.put(POS, INPUTS, 0, 100, -12.5f);
+        assertEquals(-12.5f, cache.get(POS, INPUTS, 0, 100, 20));
+    }
+
+    @Test
+    void entriesExpireAfterTheWindow() {
+        TemperatureCache cache = new TemperatureCache();
+        cache.put(POS, INPUTS, 0, 100, 4f);
+
+        assertEquals(4f, cache.get(POS, INPUTS, 0, 119, 20));
+        assertTrue(Float.isNaN(cache.get(POS, INPUTS, 0, 120, 20)));
+    }
+
+    @Test
+    void entriesOnlyMatchTheirOwnInputsAndGeneration() {
+        TemperatureCache cache = new TemperatureCache();
+        cache.put(POS, INPUTS, 3, 100, 4f);
+
+        assertTrue(Float.isNaN(cache.get(POS, TemperatureCache.inputs(31, 100, false), 3, 100, 20)));
+        assertTrue(Float.isNaN(cache.get(POS, TemperatureCache.inputs(30, 100, true), 3, 100, 20)));
+        assertTrue(Float.isNaN(cache.get(POS, INPUTS, 4, 100, 20)));
+        assertTrue(Float.isNaN(cache.get(BlockPos.asLong(10, 65, -20), INPUTS, 3, 100, 20)));
+    }
+
+    @Test
+    void inputsPackEveryField() {
+        long base = TemperatureCache.inputs(30, 100, false);
+        assertNotEquals(base, TemperatureCache.inputs(30, 100, true));
+        assertNotEquals(base, TemperatureCache.inputs(31, 100, false));
+        assertNotEquals(base, TemperatureCache.inputs(30, 101, false));
+    }
+
+    @Test
+    void generationMovesOnInvalidateAndOnGlobalChanges() {
+        TemperatureCache cache = new TemperatureCache();
+        int start = cache.generation(0, POS);
+        assertEquals(start, cache.generation(0, POS));
+
+        cache.invalidate();
+        int local = cache.generation(0, POS);
+        assertNotEquals(start, local);
+
+        int global = cache.generation(1, POS);
+        assertNotEquals(local, global);
+        assertEquals(global, cache.generation(1, POS));
+    }
+
+    @Test
+    void boxInvalidationOnlyMovesTheSectionsItTouches() {
+        TemperatureCache cache = new TemperatureCache();
+        long sameSection = BlockPos.asLong(15, 79, -17);
+        long nextSection = BlockPos.asLong(16, 64, -20);
+        int inside = cache.generation(0, POS);
+        int outside = cache.generation(0, nextSection);
+
+        cache.invalidate(8, 60, -24, 12, 70, -18);
+        int moved = cache.generation(0, POS);
+        assertNotEquals(inside, moved);
+        assertEquals(moved, cache.generation(0, sameSection));
+        assertEquals(outside, cache.generation(0, nextSection));
+
+        // A later level-wide move still reaches a section that moved on its own
+        cache.invalidate();
+        assertNotEquals(moved, cache.generation(0, POS));
+        assertEquals(cache.generation(0, POS), cache.generation(0, nextSection));
+    }
+
+    @Test
+    void evictDropsOnlyThatPosition() {
+        TemperatureCache cache = new TemperatureCache();
+        long other = BlockPos.asLong(11, 64, -20);
+        cache.put(POS, INPUTS, 0, 100, 1f);
+        cache.put(other, INPUTS, 0, 100, 2f);
+
+        cache.evict(POS);
+        assertTrue(Float.isNaN(cache.get(POS, INPUTS, 0, 100, 20)));
+        assertEquals(2f, cache.get(other, INPUTS, 0, 100, 20));
+    }
+}
@@ -0,0 +1,108 @@
+package com.frozendawn.world;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    @Test
+    void firesOnItsDueTickAndNotBefore() {
+        TimingWheel wheel = new TimingWheel(0);
+        wheel.schedule(7, 10);
+        LongArrayList fired = new LongArrayList();
+
+        wheel.advance(9, fired::add);
+        assertTrue(fired.isEmpty());
+        assertEquals(1, wheel.size());
+
+        wheel.advance(10, fired::add);
+        assertEquals(LongArrayList.of(7), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDueKeysFireOnTheNextTick() {
+        TimingWheel wheel = new TimingWheel(100);
+        wheel.schedule(1, 50);
+        wheel.schedule(2, 100);
+        LongArrayList fired = new LongArrayList();
+
+        wheel.advance(100, fired::add);
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(101, fired::add);
+        assertEquals(2, fired.size());
+        assertTrue(fired.contains(1) && fired.contains(2));
+    }
+
+    @Test
+    void cascadesEveryLevelAndOverflowAtTheExactTick() {
+        TimingWheel wheel = new TimingWheel(0);
+        long[] dues = {3, 70, 5_000, 300_000, 20_000_000, 1L << 30};
+        for (int i = 0; i < dues.length; i++) wheel.schedule(i, dues[i]);
+
+        LongArrayList keys = new LongArrayList();
+        LongArrayList times = new LongArrayList();
+        wheel.advance(1L << 31, key -> {
+            keys.add(key);
+            times.add(wheel.time());
+        });
+
+        assertEquals(dues.length, keys.size());
+        for (int i = 0; i < dues.length; i++) {
+            assertEquals(i, keys.getLong(i));
+            assertEquals(dues[i], times.getLong(i));
+        }
+        assertEquals(1L << 31, wheel.time());
+    }
+
+    @Test
+    void jumpsOverEmptyTime() {
+        TimingWheel wheel = new TimingWheel(5);
+        wheel.advance(Long.MAX_VALUE / 2, key -> {
+            throw new AssertionError("nothing was scheduled");
+        });
+        assertEquals(Long.MAX_VALUE / 2, wheel.time());
+    }
+
+    @Test
+    void firesEachKeyOnceOnItsDueTickAcrossRandomSteps() {
+        Random random = new Random(42);
+        TimingWheel wheel = new TimingWheel(1_000);
+        long[] due = new long[2_000];
+        for (int key = 0; key < due.length; key++) {
+            due[key] = 1_000 + 1 + (long) (random.nextDouble() * random.nextDouble() * (1 << 26));
+            wheel.schedule(key, due[key]);
+        }
+
+        long[] firedAt = new long[due.length];
+        while (wheel.size() > 0) {
+            wheel.advance(wheel.time() + 1 + random.nextInt(100_000), key -> {
+                assertEquals(0, firedAt[(int) key], "fired twice");
+                firedAt[(int) key] = wheel.time();
+            });
+        }
+        assertArrayEquals(due, firedAt);
+    }
+
+    @Test
+    void clearDropsEveryKeyAndMovesTheClock() {
+        TimingWheel wheel = new TimingWheel(0);
+        wheel.schedule(1, 10);
+        wheel.schedule(2, 1L << 40);
+        assertEquals(2, wheel.size());
+
+        wheel.clear(500);
+        assertEquals(0, wheel.size());
+        assertEquals(500, wheel.time());
+        wheel.advance(1L << 41, key -> {
+            throw new AssertionError("cleared key fired");
+        });
+    }
+}